@@ -0,0 +1,86 @@
+package com.example.pagination.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import com.example.pagination.model.User;
+
+/**
+ * Deterministic synthetic users shaped like the DummyJSON payload.
+ */
+public final class BenchmarkData {
+
+    private static final String[] FIRST_NAMES = { "Emily", "Michael", "Sophia", "James", "Emma", "Olivia",
+            "Alexander", "Ava", "Ethan", "Isabella", "Liam", "Mia", "Noah", "Charlotte", "William", "Amelia" };
+    private static final String[] LAST_NAMES = { "Johnson", "Williams", "Brown", "Davis", "Miller", "Wilson",
+            "Jones", "Taylor", "Martinez", "Anderson", "Thomas", "Garcia", "Rodriguez", "Lee", "Walker", "Hall" };
+    private static final String[] BLOOD_GROUPS = { "A+", "A-", "B+", "B-", "AB+", "AB-", "O+", "O-" };
+    private static final String[] EYE_COLORS = { "Green", "Brown", "Blue", "Gray", "Amber", "Hazel" };
+    private static final String[] ROLES = { "admin", "moderator", "user" };
+    private static final String[] STATES = { "Mississippi", "Alabama", "Texas", "Florida", "Ohio", "Washington",
+            "Nevada", "Georgia", "Virginia", "Colorado" };
+    private static final String[] DEPARTMENTS = { "Engineering", "Support", "Research and Development",
+            "Human Resources", "Product Management", "Marketing", "Services", "Accounting", "Legal", "Sales" };
+
+    // Nested values that do not matter to the benchmarks are shared to keep
+    // the 1M user dataset within a few GB of heap
+    private static final User.Hair HAIR = new User.Hair("Brown", "Curly");
+    private static final User.Bank BANK = new User.Bank("03/26", "9289760655481815", "Elo", "CNY",
+            "YPUXISOBI7TTHPK2BR3HAIXL");
+    private static final User.Crypto CRYPTO = new User.Crypto("Bitcoin", "0xb9fc2fe63b2a6c003f1c324c3bfa53259162181a",
+            "Ethereum (ERC20)");
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Generate users with ids 1..count; the same count always yields the same users.
+     */
+    public static List<User> users(int count) {
+        SplittableRandom random = new SplittableRandom(42);
+        List<User> users = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            String username = (firstName.charAt(0) + lastName + i).toLowerCase();
+            String state = STATES[random.nextInt(STATES.length)];
+            User.Address address = new User.Address(
+                    random.nextInt(1, 9999) + " Main Street",
+                    "City" + random.nextInt(500),
+                    state,
+                    state.substring(0, 2).toUpperCase(),
+                    String.valueOf(random.nextInt(10000, 99999)),
+                    new User.Address.Coordinates(random.nextDouble(-90, 90), random.nextDouble(-180, 180)),
+                    "United States");
+            users.add(new User(
+                    (long) i,
+                    firstName,
+                    lastName,
+                    random.nextInt(18, 80),
+                    username + "@x.example.com",
+                    "+1 555-" + random.nextInt(100, 999) + "-" + random.nextInt(1000, 9999),
+                    username,
+                    (1950 + random.nextInt(55)) + "-" + (1 + random.nextInt(12)) + "-" + (1 + random.nextInt(28)),
+                    "https://example.com/icon/" + username + "/128",
+                    BLOOD_GROUPS[random.nextInt(BLOOD_GROUPS.length)],
+                    Math.round(random.nextDouble(150, 200) * 100) / 100.0,
+                    Math.round(random.nextDouble(45, 110) * 100) / 100.0,
+                    EYE_COLORS[random.nextInt(EYE_COLORS.length)],
+                    HAIR,
+                    "10." + random.nextInt(256) + "." + random.nextInt(256) + "." + random.nextInt(256),
+                    address,
+                    "47:fa:41:18:ec:eb",
+                    "University of Example",
+                    BANK,
+                    new User.Company(DEPARTMENTS[random.nextInt(DEPARTMENTS.length)], "Example Inc", "Engineer",
+                            address),
+                    "977-175",
+                    "900-590-289",
+                    "Mozilla/5.0 (Windows NT 10.0; Win64; x64)",
+                    CRYPTO,
+                    ROLES[random.nextInt(ROLES.length)]));
+        }
+        return users;
+    }
+}
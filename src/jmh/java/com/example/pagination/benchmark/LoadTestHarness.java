@@ -0,0 +1,273 @@
+package com.example.pagination.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.pagination.PaginationApplication;
+import com.example.pagination.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Closed-loop load test of the whole application, once with platform threads
+ * and once with {@code spring.threads.virtual.enabled}.
+ * <p>
+ * The external API is replaced by a local stub that serves synthetic users
+ * with a fixed latency per page. The users cache expires every second and
+ * refresh-ahead and the snapshot file are off, so requests keep running into
+ * a cold cache and block on the upstream load. Each client worker is a
+ * virtual thread sending one request at a time over its own connection.
+ * <p>
+ * Not a JMH benchmark; run it through the {@code jmh} profile with
+ * <pre>
+ * ./mvnw -Pjmh test-compile exec:exec@loadtest -Dloadtest.args="concurrency=2000 seconds=30"
+ * </pre>
+ * Arguments, all optional: {@code concurrency} (1000), {@code seconds} (20),
+ * {@code warmup} (5), {@code users} (10000), {@code latency} upstream
+ * milliseconds per page (50) and {@code modes} ({@code platform,virtual}).
+ */
+public final class LoadTestHarness {
+
+    private static final String[] NAMES = { "john", "emma", "smith", "ava", "noah", "li", "mi", "an" };
+
+    private LoadTestHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        // Devtools is on the test classpath and would relaunch main in a restart class loader
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        Map<String, String> options = parse(args);
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "1000"));
+        int seconds = Integer.parseInt(options.getOrDefault("seconds", "20"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "5"));
+        int users = Integer.parseInt(options.getOrDefault("users", "10000"));
+        int latency = Integer.parseInt(options.getOrDefault("latency", "50"));
+        String[] modes = options.getOrDefault("modes", "platform,virtual").split(",");
+
+        HttpServer upstream = startUpstream(BenchmarkData.users(users), latency);
+        try {
+            List<Result> results = new ArrayList<>();
+            for (String mode : modes) {
+                results.add(run(mode.trim(), upstream.getAddress().getPort(), concurrency, warmup, seconds));
+            }
+            System.out.printf(Locale.ROOT, "%n%d clients, %ds measured, %d users, %dms upstream latency per page%n",
+                    concurrency, seconds, users, latency);
+            System.out.printf(Locale.ROOT, "%-10s %10s %8s %12s %10s %10s %10s%n",
+                    "mode", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms");
+            results.forEach(Result::print);
+        } finally {
+            upstream.stop(0);
+        }
+    }
+
+    private static Result run(String mode, int upstreamPort, int concurrency, int warmup, int seconds)
+            throws Exception {
+        boolean virtual = switch (mode) {
+            case "virtual" -> true;
+            case "platform" -> false;
+            default -> throw new IllegalArgumentException("Unknown mode " + mode + ", expected platform or virtual");
+        };
+        // Command line arguments, since builder properties rank below application.yaml
+        String[] arguments = {
+                "--spring.threads.virtual.enabled=" + virtual,
+                "--server.port=0",
+                "--external.api.base-url=http://127.0.0.1:" + upstreamPort,
+                "--external.api.http2=false",
+                "--cache.ttl-seconds=1",
+                "--cache.refresh-ahead=false",
+                "--cache.snapshot-path=",
+                "--logging.level.com.example.pagination=WARN",
+                "--logging.level.org.springframework.web=ERROR" };
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(PaginationApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .run(arguments)) {
+            String base = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port")
+                    + "/api/users";
+            System.out.printf(Locale.ROOT, "Running %s threads: %ds warmup, %ds measured%n", mode, warmup, seconds);
+            drive(base, concurrency, warmup);
+            return new Result(mode, seconds, drive(base, concurrency, seconds));
+        }
+    }
+
+    /**
+     * Run the client workers for the given time and collect their samples.
+     */
+    private static List<Samples> drive(String base, int concurrency, int seconds) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        List<Future<Samples>> workers = new ArrayList<>(concurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                workers.add(executor.submit(() -> work(base, deadline)));
+            }
+            List<Samples> samples = new ArrayList<>(concurrency);
+            for (Future<Samples> worker : workers) {
+                samples.add(worker.get());
+            }
+            return samples;
+        }
+    }
+
+    private static Samples work(String base, long deadline) {
+        Samples samples = new Samples();
+        try (HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build()) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (System.nanoTime() < deadline) {
+                // Mostly filtered pages, so the filter cache stays cold as well
+                String uri = base + "?page=" + random.nextInt(1, 6) + "&size=20"
+                        + (random.nextInt(4) == 0 ? "" : "&name=" + NAMES[random.nextInt(NAMES.length)]);
+                HttpRequest request = HttpRequest.newBuilder(URI.create(uri))
+                        .timeout(Duration.ofSeconds(30))
+                        .build();
+                long start = System.nanoTime();
+                try {
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    samples.add(System.nanoTime() - start, response.statusCode() == 200);
+                } catch (IOException e) {
+                    samples.add(System.nanoTime() - start, false);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        return samples;
+    }
+
+    /**
+     * Stub of the external users endpoint that answers {@code limit} and
+     * {@code skip} like the real one, after sleeping for the given latency.
+     */
+    private static HttpServer startUpstream(List<User> users, int latencyMillis) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, byte[]> pages = new ConcurrentHashMap<>();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/users", exchange -> {
+            try (exchange) {
+                Map<String, String> query = parse(queryOf(exchange).split("&"));
+                int skip = Math.min(Integer.parseInt(query.getOrDefault("skip", "0")), users.size());
+                int limit = Integer.parseInt(query.getOrDefault("limit", "30"));
+                byte[] body = pages.computeIfAbsent(skip + ":" + limit, key -> page(mapper, users, skip, limit));
+                Thread.sleep(latencyMillis);
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    private static byte[] page(ObjectMapper mapper, List<User> users, int skip, int limit) {
+        List<User> slice = users.subList(skip, Math.min(skip + limit, users.size()));
+        Map<String, Object> page = new LinkedHashMap<>();
+        page.put("users", slice);
+        page.put("total", users.size());
+        page.put("skip", skip);
+        page.put("limit", slice.size());
+        try {
+            return mapper.writeValueAsBytes(page);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String queryOf(HttpExchange exchange) {
+        String query = exchange.getRequestURI().getRawQuery();
+        return query != null ? query : "";
+    }
+
+    private static Map<String, String> parse(String[] pairs) {
+        Map<String, String> values = new HashMap<>();
+        for (String pair : pairs) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                values.put(pair.substring(0, separator), pair.substring(separator + 1));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Latencies of one worker, in nanoseconds, with failed requests counted
+     * separately but still part of the distribution.
+     */
+    private static final class Samples {
+        private long[] latencies = new long[1024];
+        private int count;
+        private int errors;
+
+        void add(long latency, boolean ok) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+            if (!ok) {
+                errors++;
+            }
+        }
+    }
+
+    private record Result(String mode, int seconds, long[] latencies, int errors) {
+
+        Result(String mode, int seconds, List<Samples> samples) {
+            this(mode, seconds, merge(samples), samples.stream().mapToInt(sample -> sample.errors).sum());
+        }
+
+        private static long[] merge(List<Samples> samples) {
+            long[] merged = new long[samples.stream().mapToInt(sample -> sample.count).sum()];
+            int offset = 0;
+            for (Samples sample : samples) {
+                System.arraycopy(sample.latencies, 0, merged, offset, sample.count);
+                offset += sample.count;
+            }
+            Arrays.sort(merged);
+            return merged;
+        }
+
+        void print() {
+            System.out.printf(Locale.ROOT, "%-10s %10d %8d %12.1f %10.1f %10.1f %10.1f%n",
+                    mode, latencies.length, errors, latencies.length / (double) seconds,
+                    percentile(0.50), percentile(0.99), percentile(1.0));
+        }
+
+        private double percentile(double quantile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * latencies.length) - 1;
+            return latencies[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+}
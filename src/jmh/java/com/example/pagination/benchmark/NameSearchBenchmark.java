@@ -0,0 +1,86 @@
+package com.example.pagination.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.pagination.dto.NameQuery;
+import com.example.pagination.dto.UserQuery;
+import com.example.pagination.model.User;
+import com.example.pagination.snapshot.UserSnapshot;
+import com.example.pagination.specification.UserSpecificationFactory;
+
+/**
+ * The {@code q} name search on the trie vs. the substring {@code name} filter
+ * it complements. The substring filter cannot tolerate typos, so the typo
+ * queries give it the correctly spelled word. One user in a thousand gets a
+ * rare last name, so the rare queries match few users whatever the size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+@State(Scope.Benchmark)
+public class NameSearchBenchmark {
+
+    @Param({ "1000", "100000", "1000000" })
+    public int users;
+
+    @Param({ "exact", "prefix", "typo", "two-words", "rare", "rare-typo", "rare+common" })
+    public String search;
+
+    private UserSnapshot snapshot;
+    private NameQuery nameQuery;
+    private UserQuery substringQuery;
+
+    @Setup
+    public void setUp() {
+        List<User> data = new ArrayList<>(BenchmarkData.users(users));
+        for (int i = 0; i < data.size(); i += 1000) {
+            data.set(i, withLastName(data.get(i), "Kowalczyk"));
+        }
+        snapshot = UserSnapshot.of(data);
+        String[] q = switch (search) {
+            case "exact" -> new String[] { "johnson", "johnson" };
+            case "prefix" -> new String[] { "joh", "joh" };
+            case "typo" -> new String[] { "jonson", "johnson" };
+            case "two-words" -> new String[] { "emly jonson", "johnson" };
+            case "rare" -> new String[] { "kowalczyk", "kowalczyk" };
+            case "rare-typo" -> new String[] { "kowalcyk", "kowalczyk" };
+            case "rare+common" -> new String[] { "emily kowalczyk", "kowalczyk" };
+            default -> throw new IllegalArgumentException(search);
+        };
+        nameQuery = NameQuery.parse(q[0]);
+        substringQuery = UserQuery.of(q[1], null, 1, 10);
+    }
+
+    @Benchmark
+    public int[] trieSearch() {
+        return snapshot.nameTrie().search(nameQuery.terms(), position -> true);
+    }
+
+    @Benchmark
+    public int[] substringFilter() {
+        return UserSpecificationFactory.filter(snapshot, substringQuery);
+    }
+
+    private static User withLastName(User user, String lastName) {
+        return new User(user.id(), user.firstName(), lastName, user.age(), user.email(), user.phone(),
+                user.username(), user.birthDate(), user.image(), user.bloodGroup(), user.height(), user.weight(),
+                user.eyeColor(), user.hair(), user.ip(), user.address(), user.macAddress(), user.university(),
+                user.bank(), user.company(), user.ein(), user.ssn(), user.userAgent(), user.crypto(), user.role());
+    }
+}
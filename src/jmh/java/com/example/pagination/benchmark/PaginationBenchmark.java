@@ -0,0 +1,127 @@
+package com.example.pagination.benchmark;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.pagination.dto.PaginationResponse;
+import com.example.pagination.dto.UserQuery;
+import com.example.pagination.dto.UserSort;
+import com.example.pagination.metrics.UserMetrics;
+import com.example.pagination.model.User;
+import com.example.pagination.service.UserCacheService;
+import com.example.pagination.service.impl.FilteredUserCacheServiceImpl;
+import com.example.pagination.service.impl.UserFacetServiceImpl;
+import com.example.pagination.service.impl.UserServiceImpl;
+import com.example.pagination.snapshot.SnapshotDelta;
+import com.example.pagination.snapshot.UserSnapshot;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * End-to-end UserServiceImpl.getUsers at different page depths, with the
+ * cached snapshot served from memory. The filter result cache is not proxied
+ * here, so every call pays the full filter cost. Sort permutations are built
+ * once per snapshot and warm up with the first call, as in production.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+@State(Scope.Benchmark)
+public class PaginationBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({ "1000", "100000", "1000000" })
+    public int users;
+
+    @Param({ "first", "middle", "last" })
+    public String depth;
+
+    @Param({ "none", "name" })
+    public String filter;
+
+    @Param({ "", "lastName", "lastName,age,desc" })
+    public String sort;
+
+    private UserServiceImpl userService;
+    private UserQuery query;
+
+    @Setup
+    public void setUp() {
+        UserSnapshot snapshot = UserSnapshot.of(BenchmarkData.users(users));
+        UserMetrics metrics = new UserMetrics(new SimpleMeterRegistry());
+        FilteredUserCacheServiceImpl filteredUserCacheService = new FilteredUserCacheServiceImpl(metrics);
+        userService = new UserServiceImpl(new InMemoryUserCacheService(snapshot), filteredUserCacheService,
+                new UserFacetServiceImpl(filteredUserCacheService), metrics);
+
+        String name = filter.equals("name") ? "johnson" : null;
+        long matching = userService.getUsers(UserQuery.of(name, null, 1, PAGE_SIZE)).totalItems();
+        int lastPage = (int) Math.max(1, (matching + PAGE_SIZE - 1) / PAGE_SIZE);
+        int page = switch (depth) {
+            case "first" -> 1;
+            case "middle" -> Math.max(1, lastPage / 2);
+            case "last" -> lastPage;
+            default -> throw new IllegalArgumentException(depth);
+        };
+        UserSort order = sort.isEmpty() ? UserSort.UNSORTED : UserSort.parse(List.of(sort));
+        query = UserQuery.of(name, null, null, order, page, PAGE_SIZE);
+        userService.getUsers(query);
+    }
+
+    @Benchmark
+    public PaginationResponse<User> getUsers() {
+        return userService.getUsers(query);
+    }
+
+    /**
+     * Serves a fixed snapshot, standing in for the Caffeine-backed cache.
+     */
+    private record InMemoryUserCacheService(UserSnapshot snapshot) implements UserCacheService {
+
+        @Override
+        public UserSnapshot getSnapshot() {
+            return snapshot;
+        }
+
+        @Override
+        public UserSnapshot refreshSnapshot() {
+            return snapshot;
+        }
+
+        @Override
+        public UserSnapshot restoreSnapshot() {
+            return snapshot;
+        }
+
+        @Override
+        public Optional<Duration> staleAge() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Duration remainingTtl() {
+            return Duration.ofMinutes(10);
+        }
+
+        @Override
+        public Optional<SnapshotDelta> lastDelta() {
+            return Optional.empty();
+        }
+    }
+}
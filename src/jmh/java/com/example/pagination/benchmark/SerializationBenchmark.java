@@ -0,0 +1,66 @@
+package com.example.pagination.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.pagination.dto.PaginationResponse;
+import com.example.pagination.model.User;
+import com.example.pagination.projection.ProjectedUser;
+import com.example.pagination.projection.UserProjection;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Jackson serialization of a PaginationResponse page, configured the way
+ * Spring MVC configures its message converter.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({ "10", "100" })
+    public int pageSize;
+
+    private ObjectMapper objectMapper;
+    private PaginationResponse<User> page;
+    private PaginationResponse<ProjectedUser> projectedPage;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<User> data = BenchmarkData.users(pageSize);
+        page = new PaginationResponse<>(1, pageSize, 100_000, 100_000 / pageSize, data);
+        UserProjection projection = UserProjection.of("id,firstName,lastName,username");
+        projectedPage = page.map(user -> new ProjectedUser(user, projection));
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    /**
+     * The same page with fields=id,firstName,lastName,username.
+     */
+    @Benchmark
+    public byte[] serializeProjectedPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(projectedPage);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.pagination.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.pagination.model.User;
+import com.example.pagination.snapshot.UserSnapshot;
+
+/**
+ * Rebuilding the snapshot after a reload, from scratch vs. diffed against the
+ * previous snapshot. The reloaded users differ from the cached ones in the
+ * age of {@code changes} users, spread over the dataset, so a delta build
+ * rebuilds only the age range index and reuses every other index. Both modes
+ * columnize every user, as a real reload does while parsing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms6g", "-Xmx6g" })
+@State(Scope.Benchmark)
+public class SnapshotRefreshBenchmark {
+
+    @Param({ "100000", "1000000" })
+    public int users;
+
+    @Param({ "0", "100", "10000" })
+    public int changes;
+
+    private UserSnapshot previous;
+    private List<User> reloaded;
+
+    @Setup
+    public void setUp() {
+        List<User> data = BenchmarkData.users(users);
+        previous = UserSnapshot.of(data);
+        reloaded = new ArrayList<>(data);
+        int step = Math.max(1, users / Math.max(1, changes));
+        for (int i = 0, changed = 0; i < users && changed < changes; i += step, changed++) {
+            reloaded.set(i, olderByOneYear(reloaded.get(i)));
+        }
+    }
+
+    @Benchmark
+    public UserSnapshot fullRebuild() {
+        return build(null);
+    }
+
+    @Benchmark
+    public UserSnapshot deltaRefresh() {
+        return build(previous);
+    }
+
+    private UserSnapshot build(UserSnapshot base) {
+        UserSnapshot.Builder builder = UserSnapshot.builder();
+        builder.begin(reloaded.size());
+        for (int i = 0; i < reloaded.size(); i++) {
+            builder.accept(i, reloaded.get(i));
+        }
+        return builder.build(base);
+    }
+
+    private static User olderByOneYear(User user) {
+        return new User(user.id(), user.firstName(), user.lastName(), user.age() + 1, user.email(), user.phone(),
+                user.username(), user.birthDate(), user.image(), user.bloodGroup(), user.height(), user.weight(),
+                user.eyeColor(), user.hair(), user.ip(), user.address(), user.macAddress(), user.university(),
+                user.bank(), user.company(), user.ein(), user.ssn(), user.userAgent(), user.crypto(), user.role());
+    }
+}
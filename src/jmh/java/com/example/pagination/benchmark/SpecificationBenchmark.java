@@ -0,0 +1,87 @@
+package com.example.pagination.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.pagination.dto.UserQuery;
+import com.example.pagination.model.User;
+import com.example.pagination.snapshot.UserSnapshot;
+import com.example.pagination.specification.NameSpecification;
+import com.example.pagination.specification.UserSpecification;
+import com.example.pagination.specification.UserSpecificationFactory;
+import com.example.pagination.specification.UsernameSpecification;
+
+/**
+ * Compares the original per-user stream().allMatch() composition with the
+ * compiled specification pipeline, over plain users and over the indexed
+ * snapshot.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+@State(Scope.Benchmark)
+public class SpecificationBenchmark {
+
+    @Param({ "1000", "100000", "1000000" })
+    public int users;
+
+    @Param({ "name", "name+username", "short-name" })
+    public String filter;
+
+    private List<User> data;
+    private UserSnapshot snapshot;
+    private UserQuery query;
+
+    @Setup
+    public void setUp() {
+        data = BenchmarkData.users(users);
+        snapshot = UserSnapshot.of(data);
+        query = switch (filter) {
+            case "name" -> UserQuery.of("johnson", null, 1, 10);
+            case "name+username" -> UserQuery.of("em", "john", 1, 10);
+            case "short-name" -> UserQuery.of("a", null, 1, 10);
+            default -> throw new IllegalArgumentException(filter);
+        };
+    }
+
+    /**
+     * The original implementation: a stream pipeline per user, specs in fixed order.
+     */
+    @Benchmark
+    public List<User> streamAllMatch() {
+        List<UserSpecification> specs = new ArrayList<>();
+        if (query.hasNameFilter()) {
+            specs.add(new NameSpecification(query.name()));
+        }
+        if (query.hasUsernameFilter()) {
+            specs.add(new UsernameSpecification(query.username()));
+        }
+        UserSpecification spec = user -> specs.stream().allMatch(s -> s.isSatisfiedBy(user));
+        return data.stream().filter(spec::isSatisfiedBy).toList();
+    }
+
+    @Benchmark
+    public List<User> compiledUsers() {
+        return UserSpecificationFactory.filter(data, query);
+    }
+
+    @Benchmark
+    public int[] compiledSnapshot() {
+        return UserSpecificationFactory.filter(snapshot, query);
+    }
+}
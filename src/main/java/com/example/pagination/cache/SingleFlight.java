@@ -0,0 +1,85 @@
+package com.example.pagination.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent loads of the same key.
+ * The first caller for a key runs the loader; every caller arriving while that
+ * load is in flight waits on the same future and receives the same result or
+ * exception. Once the load finishes the key is released, so the next call
+ * starts a new load.
+ *
+ * @param <K> Key type
+ * @param <V> Loaded value type
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder coalescedWaiters = new LongAdder();
+
+    /**
+     * Run the loader for the key, or join the load already in flight for it.
+     */
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalescedWaiters.increment();
+            return await(existing);
+        }
+
+        loads.increment();
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Number of loads actually executed.
+     */
+    public long loads() {
+        return loads.sum();
+    }
+
+    /**
+     * Number of callers that joined a load already in flight instead of
+     * starting their own.
+     */
+    public long coalescedWaiters() {
+        return coalescedWaiters.sum();
+    }
+
+    /**
+     * Number of keys currently being loaded.
+     */
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    private static <V> V await(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
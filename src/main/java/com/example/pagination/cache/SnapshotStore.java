@@ -0,0 +1,192 @@
+package com.example.pagination.cache;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import com.example.pagination.config.properties.CacheProperties;
+import com.example.pagination.model.User;
+import com.example.pagination.snapshot.UserSnapshot;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Local copy of the last loaded users snapshot, used for warm restarts.
+ * <p>
+ * The file holds a fixed header (magic, format, snapshot version, load time,
+ * user count) followed by one length-prefixed JSON record per user. It is read
+ * through a memory-mapped {@link FileChannel}, and the rebuilt snapshot must
+ * reproduce the stored version, so a truncated or stale file is rejected
+ * instead of served. Writes go to a temporary file that is then moved over the
+ * old one; saving a version the file already holds only updates the load time.
+ * <p>
+ * Persistence is disabled when {@code cache.snapshot-path} is not set.
+ */
+@Slf4j
+@Component
+public class SnapshotStore {
+
+    private static final int MAGIC = 0x55534e50; // "USNP"
+    private static final int FORMAT = 3; // 2: versions derive from 64-bit user hashes, 3: load time
+    private static final int LOADED_AT_OFFSET = 2 * Integer.BYTES + Long.BYTES;
+
+    private final Path path;
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+    private volatile long storedVersion;
+    private volatile boolean stored;
+
+    public SnapshotStore(CacheProperties properties, ObjectMapper objectMapper) {
+        String location = properties.getSnapshotPath();
+        this.path = StringUtils.hasText(location) ? Path.of(location) : null;
+        this.reader = objectMapper.readerFor(User.class);
+        this.writer = objectMapper.writerFor(User.class);
+    }
+
+    public boolean isEnabled() {
+        return path != null;
+    }
+
+    /**
+     * Read the stored snapshot.
+     *
+     * @return The snapshot and when it was loaded from the external API, or
+     *         empty if persistence is disabled, no file exists or the file
+     *         cannot be read back intact
+     */
+    public Optional<StoredSnapshot> load() {
+        if (path == null || !Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT) {
+                log.warn("Ignoring snapshot file {} with unknown format", path);
+                return Optional.empty();
+            }
+            long version = buffer.getLong();
+            Instant loadedAt = Instant.ofEpochMilli(buffer.getLong());
+            int count = buffer.getInt();
+            List<User> users = new ArrayList<>(count);
+            byte[] record = new byte[0];
+            for (int i = 0; i < count; i++) {
+                int length = buffer.getInt();
+                if (length < 0 || length > buffer.remaining()) {
+                    log.warn("Ignoring truncated snapshot file {}", path);
+                    return Optional.empty();
+                }
+                if (record.length < length) {
+                    record = new byte[length];
+                }
+                buffer.get(record, 0, length);
+                users.add(reader.readValue(record, 0, length));
+            }
+
+            UserSnapshot snapshot = UserSnapshot.of(users);
+            if (snapshot.version() != version) {
+                log.warn("Ignoring snapshot file {}: content does not match version {}", path, version);
+                return Optional.empty();
+            }
+            markStored(version);
+            return Optional.of(new StoredSnapshot(snapshot, loadedAt));
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+            log.warn("Could not read snapshot file {}: {}", path, e.toString());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Write the snapshot, or only its load time if the file already holds this
+     * version. Failures are logged and never propagated, since the file is only
+     * an optimization.
+     *
+     * @param loadedAt When the snapshot was loaded from the external API
+     */
+    public void save(UserSnapshot snapshot, Instant loadedAt) {
+        if (path == null) {
+            return;
+        }
+        if (stored && storedVersion == snapshot.version()) {
+            touch(loadedAt);
+            return;
+        }
+        try {
+            Path directory = path.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+            try {
+                write(temp, snapshot, loadedAt);
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            markStored(snapshot.version());
+            log.debug("Stored snapshot version {} with {} users in {}", snapshot.version(), snapshot.size(), path);
+        } catch (IOException e) {
+            log.warn("Could not write snapshot file {}: {}", path, e.toString());
+        }
+    }
+
+    private void touch(Instant loadedAt) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, loadedAt.toEpochMilli()), LOADED_AT_OFFSET);
+            channel.force(false);
+        } catch (IOException e) {
+            log.warn("Could not update snapshot file {}: {}", path, e.toString());
+        }
+    }
+
+    private void write(Path target, UserSnapshot snapshot, Instant loadedAt) throws IOException {
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+                OutputStream stream = Channels.newOutputStream(channel);
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 64 * 1024))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT);
+            out.writeLong(snapshot.version());
+            out.writeLong(loadedAt.toEpochMilli());
+            out.writeInt(snapshot.size());
+            for (User user : snapshot.users()) {
+                byte[] record = writer.writeValueAsBytes(user);
+                out.writeInt(record.length);
+                out.write(record);
+            }
+            out.flush();
+            channel.force(false);
+        }
+    }
+
+    private void markStored(long version) {
+        storedVersion = version;
+        stored = true;
+    }
+
+    /**
+     * A snapshot read back from the file.
+     *
+     * @param snapshot The restored snapshot
+     * @param loadedAt When it was loaded from the external API
+     */
+    public record StoredSnapshot(UserSnapshot snapshot, Instant loadedAt) {
+    }
+}
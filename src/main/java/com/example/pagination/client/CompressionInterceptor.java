@@ -0,0 +1,90 @@
+package com.example.pagination.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.zip.GZIPInputStream;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Asks the upstream for gzip-encoded responses and decompresses them as the
+ * body is read, since the JDK HttpClient does not handle content encoding.
+ * Responses without {@code Content-Encoding: gzip} are passed through as is.
+ */
+public class CompressionInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final String GZIP = "gzip";
+    private static final int BUFFER_SIZE = 8192;
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        if (!request.getHeaders().containsKey(HttpHeaders.ACCEPT_ENCODING)) {
+            request.getHeaders().set(HttpHeaders.ACCEPT_ENCODING, GZIP);
+        }
+        ClientHttpResponse response = execution.execute(request, body);
+        String encoding = response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+        return GZIP.equalsIgnoreCase(encoding) ? new GzipResponse(response) : response;
+    }
+
+    private static final class GzipResponse implements ClientHttpResponse {
+        private final ClientHttpResponse delegate;
+        private final HttpHeaders headers;
+        private InputStream body;
+
+        GzipResponse(ClientHttpResponse delegate) {
+            this.delegate = delegate;
+            // The decoded body no longer matches the encoded length or encoding
+            HttpHeaders decoded = new HttpHeaders();
+            decoded.putAll(delegate.getHeaders());
+            decoded.remove(HttpHeaders.CONTENT_ENCODING);
+            decoded.remove(HttpHeaders.CONTENT_LENGTH);
+            this.headers = HttpHeaders.readOnlyHttpHeaders(decoded);
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                body = decode(delegate.getBody());
+            }
+            return body;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+
+        private static InputStream decode(InputStream encoded) throws IOException {
+            // GZIPInputStream reads the gzip header eagerly and fails on an empty body
+            PushbackInputStream in = new PushbackInputStream(encoded, 1);
+            int first = in.read();
+            if (first < 0) {
+                return InputStream.nullInputStream();
+            }
+            in.unread(first);
+            return new GZIPInputStream(in, BUFFER_SIZE);
+        }
+    }
+}
@@ -19,4 +19,22 @@ public interface ExternalApiClient {
      *
      */
     List<User> fetchAllUsers();
+
+    /**
+     * Fetch all users from the external API and hand each one to the sink as
+     * it is read. Implementations that can stream should override this; the
+     * default delivers the result of {@link #fetchAllUsers()}.
+     *
+     * @return Number of users delivered
+     * @throws com.example.pagination.exception.ExternalApiException if API call
+     *                                                               fails
+     */
+    default int fetchAllUsers(UserSink sink) {
+        List<User> users = fetchAllUsers();
+        sink.begin(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            sink.accept(i, users.get(i));
+        }
+        return users.size();
+    }
 }
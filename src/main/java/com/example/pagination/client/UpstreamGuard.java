@@ -0,0 +1,112 @@
+package com.example.pagination.client;
+
+import java.time.Duration;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.springframework.web.client.HttpClientErrorException;
+
+import com.example.pagination.config.properties.ExternalApiProperties;
+import com.example.pagination.exception.ExternalApiException;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.core.IntervalFunction;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+
+/**
+ * Circuit breaker, bulkhead and jittered retry around single upstream calls.
+ * <p>
+ * Each attempt first takes a bulkhead slot, so the number of calls in flight
+ * against the upstream is capped across all fetches. The circuit breaker
+ * opens once too many recent calls failed and then rejects calls immediately
+ * instead of waiting for timeouts. Failed attempts are retried with
+ * exponential backoff and random jitter, except for client errors and calls
+ * rejected by an open circuit.
+ */
+public final class UpstreamGuard {
+
+    private static final String NAME = "upstream";
+
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final Retry retry;
+
+    private UpstreamGuard(CircuitBreaker circuitBreaker, Bulkhead bulkhead, Retry retry) {
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+        this.retry = retry;
+    }
+
+    public static UpstreamGuard of(ExternalApiProperties.Resilience settings) {
+        Predicate<Throwable> upstreamFailure = UpstreamGuard::isUpstreamFailure;
+        // Ignored rather than unrecorded, since unrecorded errors count as successes
+        CircuitBreaker circuitBreaker = CircuitBreaker.of(NAME, CircuitBreakerConfig.custom()
+                .failureRateThreshold(settings.getFailureRateThreshold())
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(settings.getSlidingWindowSize())
+                .minimumNumberOfCalls(settings.getMinimumCalls())
+                .waitDurationInOpenState(Duration.ofSeconds(settings.getOpenSeconds()))
+                .permittedNumberOfCallsInHalfOpenState(settings.getHalfOpenCalls())
+                .ignoreException(upstreamFailure.negate())
+                .build());
+        Bulkhead bulkhead = Bulkhead.of(NAME, BulkheadConfig.custom()
+                .maxConcurrentCalls(settings.getMaxConcurrentCalls())
+                .maxWaitDuration(Duration.ofMillis(settings.getMaxWaitMillis()))
+                .build());
+        Retry retry = Retry.of(NAME, RetryConfig.custom()
+                .maxAttempts(Math.max(1, settings.getMaxAttempts()))
+                .intervalFunction(IntervalFunction.ofExponentialRandomBackoff(
+                        Duration.ofMillis(settings.getInitialBackoffMillis()), 2.0, settings.getBackoffJitter()))
+                .retryOnException(upstreamFailure.or(BulkheadFullException.class::isInstance))
+                .build());
+        return new UpstreamGuard(circuitBreaker, bulkhead, retry);
+    }
+
+    /**
+     * Run one upstream call under retry, circuit breaker and bulkhead.
+     *
+     * @throws ExternalApiException if every attempt failed, the circuit is
+     *                              open or no bulkhead slot became free in time
+     */
+    public <T> T call(Supplier<T> call) {
+        Supplier<T> guarded = Retry.decorateSupplier(retry,
+                CircuitBreaker.decorateSupplier(circuitBreaker,
+                        Bulkhead.decorateSupplier(bulkhead, call)));
+        try {
+            return guarded.get();
+        } catch (CallNotPermittedException e) {
+            throw new ExternalApiException("External API circuit breaker is open, failing fast", e);
+        } catch (BulkheadFullException e) {
+            throw new ExternalApiException("Too many concurrent calls to external API", e);
+        }
+    }
+
+    public CircuitBreaker circuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public Bulkhead bulkhead() {
+        return bulkhead;
+    }
+
+    public Retry retry() {
+        return retry;
+    }
+
+    /**
+     * Failures that say something about the upstream's health. Rejections by
+     * the guard itself and 4xx responses to our own requests do not count.
+     */
+    private static boolean isUpstreamFailure(Throwable error) {
+        if (error instanceof CallNotPermittedException || error instanceof BulkheadFullException) {
+            return false;
+        }
+        return !(error instanceof HttpClientErrorException || error.getCause() instanceof HttpClientErrorException);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.pagination.client;
+
+import com.example.pagination.model.User;
+
+/**
+ * Receives users as they are read from the upstream, so they can be stored
+ * without first collecting the whole dataset.
+ */
+public interface UserSink {
+
+    /**
+     * Called once before any user is delivered.
+     *
+     * @param total Number of users the upstream reports; positions passed to
+     *              {@link #accept(int, User)} are below this value
+     */
+    void begin(int total);
+
+    /**
+     * Receive the user at the given position in upstream order. May be called
+     * concurrently for different positions, and some positions may never be
+     * delivered if the upstream returns fewer users than it reported.
+     */
+    void accept(int position, User user);
+}
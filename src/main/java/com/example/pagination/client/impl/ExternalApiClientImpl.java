@@ -1,62 +1,275 @@
 package com.example.pagination.client.impl;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.ObjIntConsumer;
 
+import org.springframework.http.HttpStatusCode;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import com.example.pagination.client.ExternalApiClient;
+import com.example.pagination.client.UpstreamGuard;
+import com.example.pagination.client.UserSink;
 import com.example.pagination.config.properties.ExternalApiProperties;
-import com.example.pagination.dto.ExternalApiResponse;
+import com.example.pagination.config.properties.ExternalApiProperties.FetchMode;
 import com.example.pagination.exception.ExternalApiException;
+import com.example.pagination.metrics.UserMetrics;
 import com.example.pagination.model.User;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Implementation of ExternalApiClient using Spring's RestClient.
- * Fetches user data from DummyJSON API.
+ * Fetches user data from DummyJSON API, reading each response with a
+ * streaming parser instead of binding the whole body at once.
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class ExternalApiClientImpl implements ExternalApiClient {
 
+    private static final String USERS_FIELD = "users";
+    private static final String TOTAL_FIELD = "total";
+
     private final RestClient restClient;
     private final ExternalApiProperties properties;
+    private final UserMetrics metrics;
+    private final UpstreamGuard guard;
+    private final ObjectReader userReader;
+
+    public ExternalApiClientImpl(RestClient restClient, ExternalApiProperties properties, UserMetrics metrics,
+            UpstreamGuard guard, ObjectMapper objectMapper) {
+        this.restClient = restClient;
+        this.properties = properties;
+        this.metrics = metrics;
+        this.guard = guard;
+        this.userReader = objectMapper.readerFor(User.class);
+    }
 
     @Override
     public List<User> fetchAllUsers() {
+        UserCollector collector = new UserCollector();
+        fetchAllUsers(collector);
+        return collector.users();
+    }
+
+    @Override
+    public int fetchAllUsers(UserSink sink) {
+        return metrics.recordFetch(() -> fetchEveryPage(sink));
+    }
+
+    /**
+     * Only the first page is buffered, since "total" is not known until it has
+     * been read. Every later page streams its users straight into the sink.
+     */
+    private int fetchEveryPage(UserSink sink) {
+        int pageSize = properties.getPageSize();
+        List<User> firstUsers = new ArrayList<>(pageSize);
+        Page first = fetchPage(0, pageSize, (user, position) -> {
+            if (position < firstUsers.size()) {
+                firstUsers.set(position, user);
+            } else {
+                firstUsers.add(user);
+            }
+        });
+
+        // The upstream may cap "limit", so step by what it actually returned
+        int step = first.count();
+        boolean single = properties.getFetchMode() == FetchMode.SINGLE || step == 0 || step >= first.total();
+        int total = single ? step : first.total();
+
+        sink.begin(total);
+        for (int i = 0; i < step; i++) {
+            sink.accept(i, firstUsers.get(i));
+        }
+        if (single) {
+            log.info("Successfully fetched {} users from external API", step);
+            return step;
+        }
+
+        int delivered = step + fetchRemainingPages(step, total, sink);
+        log.info("Successfully fetched {} of {} users from external API in {} pages",
+                delivered, total, (total + step - 1) / step);
+        return delivered;
+    }
+
+    /**
+     * Fetch every window after the first one concurrently, delivering each
+     * user at its upstream position. Each window runs on its own virtual thread
+     * and a semaphore caps how many requests are in flight against the upstream.
+     */
+    private int fetchRemainingPages(int step, int total, UserSink sink) {
+        Semaphore inFlight = new Semaphore(Math.max(1, properties.getMaxConcurrentRequests()));
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Integer>> pages = new ArrayList<>();
+            for (int skip = step; skip < total; skip += step) {
+                int windowSkip = skip;
+                int windowEnd = Math.min(skip + step, total);
+                pages.add(executor.submit(() -> {
+                    inFlight.acquire();
+                    try {
+                        Page page = fetchPage(windowSkip, step, (user, position) -> {
+                            if (position < windowEnd) {
+                                sink.accept(position, user);
+                            }
+                        });
+                        return Math.min(page.count(), windowEnd - windowSkip);
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+            }
+            return awaitAll(pages);
+        }
+    }
+
+    /**
+     * Wait for every page and sum the users they delivered. On the first
+     * failure the pages still pending are cancelled so the executor can shut
+     * down promptly.
+     */
+    private int awaitAll(List<Future<Integer>> pages) {
+        int delivered = 0;
+        try {
+            for (Future<Integer> page : pages) {
+                delivered += page.get();
+            }
+            return delivered;
+        } catch (ExecutionException e) {
+            pages.forEach(page -> page.cancel(true));
+            if (e.getCause() instanceof ExternalApiException apiException) {
+                throw apiException;
+            }
+            throw new ExternalApiException("Failed to fetch users from external API: " + e.getCause().getMessage(),
+                    e.getCause());
+        } catch (InterruptedException e) {
+            pages.forEach(page -> page.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new ExternalApiException("Interrupted while fetching users from external API", e);
+        }
+    }
+
+    private Page fetchPage(int skip, int limit, ObjIntConsumer<User> consumer) {
         // Construct URL safely using UriComponentsBuilder
         // This handles slash concatenation and query parameters automatically
         String url = UriComponentsBuilder
                 .fromUriString(properties.getBaseUrl())
                 .path(properties.getUsersEndpoint())
-                .queryParam("limit", 100)
+                .queryParam("limit", limit)
+                .queryParam("skip", skip)
                 .toUriString();
 
-        log.info("Fetching all users from external API: {}", url);
+        log.info("Fetching users from external API: {}", url);
 
-        try {
-            ExternalApiResponse response = restClient.get()
-                    .uri(url)
-                    .retrieve()
-                    .body(ExternalApiResponse.class);
+        // Retried attempts deliver the same positions again; consumers store by
+        // position, so a partly read page is overwritten rather than appended to
+        return guard.call(() -> {
+            try {
+                return restClient.get()
+                        .uri(url)
+                        .exchange((request, response) -> {
+                            HttpStatusCode status = response.getStatusCode();
+                            if (status.is4xxClientError()) {
+                                throw HttpClientErrorException.create(status, response.getStatusText(),
+                                        response.getHeaders(), null, null);
+                            }
+                            if (status.isError()) {
+                                throw HttpServerErrorException.create(status, response.getStatusText(),
+                                        response.getHeaders(), null, null);
+                            }
+                            return readPage(response.getBody(), skip, consumer);
+                        });
+            } catch (RestClientException e) {
+                log.error("Error fetching users from external API", e);
+                throw new ExternalApiException("Failed to fetch users from external API: " + e.getMessage(), e);
+            }
+        });
+    }
 
-            if (response == null || response.users() == null) {
+    /**
+     * Read one upstream page token by token. Each element of the "users" array
+     * is bound on its own and passed on with its upstream position, "total" is
+     * picked up wherever it appears, and every other field is skipped without
+     * being bound.
+     */
+    private Page readPage(InputStream body, int skip, ObjIntConsumer<User> consumer) throws IOException {
+        try (JsonParser parser = userReader.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
                 log.error("Received null response from external API");
                 throw new ExternalApiException("External API returned null response");
             }
+            boolean hasUsers = false;
+            int count = 0;
+            int total = 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (USERS_FIELD.equals(field) && value == JsonToken.START_ARRAY) {
+                    hasUsers = true;
+                    JsonToken element;
+                    while ((element = parser.nextToken()) != JsonToken.END_ARRAY) {
+                        if (element == JsonToken.START_OBJECT) {
+                            consumer.accept(userReader.readValue(parser, User.class), skip + count++);
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                } else if (TOTAL_FIELD.equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+                    total = parser.getIntValue();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (!hasUsers) {
+                log.error("Received null response from external API");
+                throw new ExternalApiException("External API returned null response");
+            }
+            return new Page(count, total);
+        }
+    }
+
+    /**
+     * Users read from one upstream page and the total the upstream reported.
+     */
+    private record Page(int count, int total) {
+    }
+
+    /**
+     * Sink collecting the users into a list in upstream order.
+     */
+    private static final class UserCollector implements UserSink {
+        private User[] users = new User[0];
 
-            log.info("Successfully fetched {} users from external API", response.users().size());
-            return response.users();
+        @Override
+        public synchronized void begin(int total) {
+            users = new User[total];
+        }
+
+        @Override
+        public synchronized void accept(int position, User user) {
+            users[position] = user;
+        }
 
-        } catch (RestClientException e) {
-            log.error("Error fetching users from external API", e);
-            throw new ExternalApiException("Failed to fetch users from external API: " + e.getMessage(), e);
+        synchronized List<User> users() {
+            return Arrays.stream(users).filter(Objects::nonNull).toList();
         }
     }
 }
@@ -7,21 +7,33 @@ import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+import com.example.pagination.cache.SingleFlight;
 import com.example.pagination.config.properties.CacheProperties;
+import com.example.pagination.snapshot.UserSnapshot;
 import com.github.benmanes.caffeine.cache.Caffeine;
 
 import lombok.RequiredArgsConstructor;
 
 /**
  * Cache configuration using Caffeine.
- * Enables caching for external API responses with TTL.
+ * Enables caching for external API responses with TTL, and scheduling for
+ * the optional refresh-ahead of the users snapshot.
  */
 @Configuration
 @EnableCaching
+@EnableScheduling
 @RequiredArgsConstructor
 public class CacheConfig {
 
+    /**
+     * Rough per-entry cost of the key and array header, in bytes.
+     */
+    private static final int FILTERED_ENTRY_OVERHEAD_BYTES = 128;
+
+    private static final int FACET_MAX_ENTRIES = 1000;
+
     private final CacheProperties properties;
 
     @Bean
@@ -31,6 +43,31 @@ public class CacheConfig {
                 .expireAfterWrite(properties.getTtlSeconds(), TimeUnit.SECONDS)
                 .maximumSize(100)
                 .recordStats());
+
+        // Filter results are int[] positions, bounded by their size in bytes
+        cacheManager.registerCustomCache("filteredUsers", Caffeine.newBuilder()
+                .expireAfterWrite(properties.getTtlSeconds(), TimeUnit.SECONDS)
+                .maximumWeight(properties.getFilteredMaxWeightBytes())
+                .weigher((Object key, Object value) -> FILTERED_ENTRY_OVERHEAD_BYTES
+                        + (value instanceof int[] positions ? positions.length * Integer.BYTES : 0))
+                .recordStats()
+                .build());
+
+        // Facet counts are small maps, one per snapshot version, filter and bucket size
+        cacheManager.registerCustomCache("userFacets", Caffeine.newBuilder()
+                .expireAfterWrite(properties.getTtlSeconds(), TimeUnit.SECONDS)
+                .maximumSize(FACET_MAX_ENTRIES)
+                .recordStats()
+                .build());
         return cacheManager;
     }
+
+    /**
+     * Coalesces concurrent snapshot loads so only one upstream fetch is in
+     * flight at a time. Exposed as a bean so its counters can be observed.
+     */
+    @Bean
+    public SingleFlight<String, UserSnapshot> snapshotLoads() {
+        return new SingleFlight<>();
+    }
 }
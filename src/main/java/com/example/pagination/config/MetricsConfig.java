@@ -0,0 +1,79 @@
+package com.example.pagination.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.pagination.cache.SingleFlight;
+import com.example.pagination.client.UpstreamGuard;
+import com.example.pagination.snapshot.UserSnapshot;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Metrics that are not tied to a single request stage.
+ * Cache statistics of the Caffeine caches are bound by Spring Boot itself as
+ * {@code cache.gets}, {@code cache.puts}, {@code cache.evictions} and
+ * {@code cache.size}, tagged with the cache name.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Publish how often snapshot loads are shared between concurrent callers.
+     */
+    @Bean
+    public MeterBinder snapshotLoadMetrics(SingleFlight<String, UserSnapshot> snapshotLoads) {
+        return registry -> {
+            FunctionCounter.builder("users.snapshot.loads", snapshotLoads, SingleFlight::loads)
+                    .description("Snapshot loads that reached the upstream")
+                    .register(registry);
+            FunctionCounter.builder("users.snapshot.coalesced", snapshotLoads, SingleFlight::coalescedWaiters)
+                    .description("Callers that joined a snapshot load already in flight")
+                    .register(registry);
+            Gauge.builder("users.snapshot.inflight", snapshotLoads, SingleFlight::inFlight)
+                    .description("Snapshot loads currently in flight")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Publish the state of the upstream circuit breaker, free bulkhead slots
+     * and retried calls. Rejections are counted from the breaker's events,
+     * since its own not-permitted count restarts on every state transition.
+     */
+    @Bean
+    public MeterBinder upstreamGuardMetrics(UpstreamGuard guard) {
+        return registry -> {
+            CircuitBreaker circuitBreaker = guard.circuitBreaker();
+            for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+                Gauge.builder("users.upstream.circuit.state", circuitBreaker,
+                        breaker -> breaker.getState() == state ? 1 : 0)
+                        .description("1 for the current state of the upstream circuit breaker, 0 otherwise")
+                        .tag("state", state.name().toLowerCase())
+                        .register(registry);
+            }
+            Counter rejected = Counter.builder("users.upstream.circuit.rejected")
+                    .description("Upstream calls rejected while the circuit was open")
+                    .register(registry);
+            circuitBreaker.getEventPublisher().onCallNotPermitted(event -> rejected.increment());
+            Gauge.builder("users.upstream.bulkhead.available", guard.bulkhead(),
+                    bulkhead -> bulkhead.getMetrics().getAvailableConcurrentCalls())
+                    .description("Upstream calls that can still start without waiting")
+                    .register(registry);
+            FunctionCounter.builder("users.upstream.retried", guard.retry(),
+                    retry -> retry.getMetrics().getNumberOfSuccessfulCallsWithRetryAttempt())
+                    .description("Upstream calls that needed retries, by outcome")
+                    .tag("outcome", "success")
+                    .register(registry);
+            FunctionCounter.builder("users.upstream.retried", guard.retry(),
+                    retry -> retry.getMetrics().getNumberOfFailedCallsWithRetryAttempt())
+                    .description("Upstream calls that needed retries, by outcome")
+                    .tag("outcome", "error")
+                    .register(registry);
+        };
+    }
+}
@@ -1,14 +1,82 @@
 package com.example.pagination.config;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
 
+import com.example.pagination.client.CompressionInterceptor;
+import com.example.pagination.client.UpstreamGuard;
+import com.example.pagination.config.properties.ExternalApiProperties;
+import com.example.pagination.metrics.ResponseSizeInterceptor;
+import com.example.pagination.metrics.UserMetrics;
+
 @Configuration
 public class RestClientConfig {
 
+    /**
+     * Built from Boot's RestClient.Builder so upstream calls are observed as
+     * {@code http.client.requests}, with response body sizes counted on top.
+     * The size interceptor runs closest to the transport, so compressed
+     * responses are counted as received.
+     */
+    @Bean
+    public RestClient restClient(RestClient.Builder builder, HttpClient upstreamHttpClient,
+            ExternalApiProperties properties, UserMetrics metrics) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(upstreamHttpClient);
+        if (properties.getTimeout() > 0) {
+            requestFactory.setReadTimeout(Duration.ofMillis(properties.getTimeout()));
+        }
+        if (properties.isCompression()) {
+            builder.requestInterceptor(new CompressionInterceptor());
+        }
+        return builder
+                .requestFactory(requestFactory)
+                .requestInterceptor(new ResponseSizeInterceptor(metrics))
+                .build();
+    }
+
+    /**
+     * JDK HttpClient for upstream calls. Responses are handled on virtual
+     * threads, and the client is closed with the context, waiting for
+     * in-flight requests.
+     */
+    @Bean
+    public HttpClient upstreamHttpClient(ExternalApiProperties properties) {
+        configureConnectionPool(properties);
+        return HttpClient.newBuilder()
+                .version(properties.isHttp2() ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(properties.getConnectTimeout()))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    /**
+     * Circuit breaker, bulkhead and retry shared by every upstream call.
+     */
     @Bean
-    public RestClient restClient() {
-        return RestClient.create();
+    public UpstreamGuard upstreamGuard(ExternalApiProperties properties) {
+        return UpstreamGuard.of(properties.getResilience());
+    }
+
+    /**
+     * The JDK HttpClient only reads its pool settings from system properties,
+     * once, when the first client is created. Values given on the command line
+     * take precedence.
+     */
+    private static void configureConnectionPool(ExternalApiProperties properties) {
+        setIfAbsent("jdk.httpclient.connectionPoolSize", properties.getMaxIdleConnections());
+        setIfAbsent("jdk.httpclient.keepalive.timeout", properties.getKeepAliveSeconds());
+    }
+
+    private static void setIfAbsent(String key, int value) {
+        if (System.getProperty(key) == null) {
+            System.setProperty(key, Integer.toString(value));
+        }
     }
 }
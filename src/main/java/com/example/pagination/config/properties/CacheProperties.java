@@ -12,4 +12,37 @@ public class CacheProperties {
      * Default is 600 (10 minutes).
      */
     private int ttlSeconds = 600;
+
+    /**
+     * Reload the users snapshot in the background before it expires, so
+     * requests keep reading the previous snapshot instead of blocking on
+     * the upstream.
+     */
+    private boolean refreshAhead = false;
+
+    /**
+     * Fraction of the TTL after which a refresh-ahead reload is started.
+     * Default is 0.8 (refresh after 8 of 10 minutes).
+     */
+    private double refreshAheadRatio = 0.8;
+
+    /**
+     * Diff each load against the previous snapshot by user id and content
+     * hash. An unchanged load keeps the previous snapshot, its indexes and
+     * the filter caches; in-place updates only rebuild the indexes over
+     * values that changed. When disabled, every load builds from scratch.
+     */
+    private boolean deltaRefresh = true;
+
+    /**
+     * Upper bound for the "filteredUsers" cache, in bytes of cached positions.
+     * Default is 16 MB.
+     */
+    private long filteredMaxWeightBytes = 16L * 1024 * 1024;
+
+    /**
+     * File the users snapshot is persisted to after every load, and restored
+     * from on startup. Persistence is disabled when empty.
+     */
+    private String snapshotPath;
 }
@@ -18,7 +18,126 @@ public class ExternalApiProperties {
     private String usersEndpoint;
 
     /**
-     * Timeout for API calls in milliseconds.
+     * Read timeout for API calls in milliseconds: the longest a request waits
+     * for the response headers. Disabled when not positive.
      */
     private int timeout;
+
+    /**
+     * Timeout for establishing a connection in milliseconds.
+     */
+    private int connectTimeout = 2000;
+
+    /**
+     * Negotiate HTTP/2 with the upstream, falling back to HTTP/1.1 when it is
+     * not supported.
+     */
+    private boolean http2 = true;
+
+    /**
+     * Request gzip-encoded responses and decompress them while streaming.
+     */
+    private boolean compression = true;
+
+    /**
+     * Maximum number of idle connections kept alive for reuse. Zero keeps
+     * every connection. Applies JVM-wide to the JDK HttpClient and only takes
+     * effect before the first client is created.
+     */
+    private int maxIdleConnections = 16;
+
+    /**
+     * Seconds an idle connection is kept alive before it is closed. Applies
+     * JVM-wide, like {@link #maxIdleConnections}.
+     */
+    private int keepAliveSeconds = 30;
+
+    /**
+     * How the full dataset is fetched from the external API.
+     */
+    private FetchMode fetchMode = FetchMode.PARALLEL;
+
+    /**
+     * Number of users requested per upstream call (the "limit" query parameter).
+     */
+    private int pageSize = 100;
+
+    /**
+     * Maximum number of page requests in flight at once in PARALLEL mode.
+     */
+    private int maxConcurrentRequests = 4;
+
+    /**
+     * Circuit breaker, bulkhead and retry applied to every upstream call.
+     */
+    private Resilience resilience = new Resilience();
+
+    public enum FetchMode {
+        /**
+         * A single request for the first page only.
+         */
+        SINGLE,
+
+        /**
+         * Read "total" from the first page, then fetch the remaining pages
+         * concurrently on virtual threads.
+         */
+        PARALLEL
+    }
+
+    @Data
+    public static class Resilience {
+        /**
+         * Maximum number of upstream calls in flight across all fetches.
+         */
+        private int maxConcurrentCalls = 8;
+
+        /**
+         * How long a call waits for a free bulkhead slot, in milliseconds.
+         */
+        private long maxWaitMillis = 1000;
+
+        /**
+         * Attempts per upstream call, including the first one.
+         */
+        private int maxAttempts = 3;
+
+        /**
+         * Backoff before the first retry in milliseconds; doubled on each
+         * further retry.
+         */
+        private long initialBackoffMillis = 200;
+
+        /**
+         * Random spread applied to each backoff, as a fraction of it, so
+         * concurrent retries do not hit the upstream in lockstep.
+         */
+        private double backoffJitter = 0.5;
+
+        /**
+         * Percentage of failed calls in the sliding window that opens the circuit.
+         */
+        private float failureRateThreshold = 50;
+
+        /**
+         * Number of most recent calls the failure rate is computed over.
+         */
+        private int slidingWindowSize = 20;
+
+        /**
+         * Calls required in the window before the failure rate is evaluated.
+         */
+        private int minimumCalls = 5;
+
+        /**
+         * How long the circuit stays open before trial calls are let through,
+         * in seconds.
+         */
+        private int openSeconds = 30;
+
+        /**
+         * Trial calls allowed while the circuit is half-open.
+         */
+        private int halfOpenCalls = 2;
+    }
 }
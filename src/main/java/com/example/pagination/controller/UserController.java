@@ -1,16 +1,50 @@
 package com.example.pagination.controller;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.example.pagination.dto.CursorPaginationResponse;
+import com.example.pagination.dto.FacetsResponse;
+import com.example.pagination.dto.GeoQuery;
+import com.example.pagination.dto.NameQuery;
+import com.example.pagination.dto.NearbyUser;
 import com.example.pagination.dto.PaginationResponse;
+import com.example.pagination.dto.UserAttributeFilter;
+import com.example.pagination.dto.UserBatchRequest;
+import com.example.pagination.dto.UserBatchResponse;
+import com.example.pagination.dto.UserFilter;
 import com.example.pagination.dto.UserQuery;
+import com.example.pagination.dto.UserSort;
 import com.example.pagination.model.User;
+import com.example.pagination.projection.ProjectedUser;
+import com.example.pagination.projection.UserProjection;
 import com.example.pagination.service.UserService;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -32,41 +66,424 @@ import lombok.extern.slf4j.Slf4j;
 @Tag(name = "Users", description = "User management API")
 public class UserController {
 
+        private static final String FIELDS_DESCRIPTION = "Optional comma-separated fields to return; dots select nested fields (e.g. address.city). Returns all fields when omitted";
+
+        private static final String NDJSON_VALUE = "application/x-ndjson";
+
+        /**
+         * Warning sent while the external API is failing and the last good snapshot is served.
+         */
+        private static final String STALE_WARNING = "110 - \"Response is Stale\"";
+
         private final UserService userService;
+        private final ObjectMapper objectMapper;
 
         /**
          * Get paginated list of users with optional name filtering.
          * 
          * @param name Optional name filter (searches in firstName and lastName)
+         * @param username Optional username filter
+         * @param attributes Optional attribute range and equality filters
          * @param page Page number (default: 1, min: 1)
          * @param size Number of items per page (default: 10, min: 1)
+         * @param sort Optional sort keys, e.g. lastName,asc (default: upstream order)
+         * @param fields Optional comma-separated fields to return (default: all)
+         * @param near Optional point as lat,lng; orders users by distance from it
+         * @param radiusKm Optional search radius around near, in kilometres
+         * @param nearest Optional maximum number of users nearest to near
+         * @param q Optional name search, tolerant of prefixes and typos; ranks users by match quality
          * @return Paginated response containing users
          */
-        @Operation(summary = "Get paginated users", description = "Retrieves a paginated list of users from the external API with optional name filtering")
+        @Operation(summary = "Get paginated users", description = "Retrieves a paginated list of users from the external API with optional name, username and attribute filtering. With near, users are ordered by distance and carry distanceKm; with q, by how well their names match")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "200", description = "Successfully retrieved users", content = @Content(schema = @Schema(implementation = PaginationResponse.class))),
-                        @ApiResponse(responseCode = "400", description = "Invalid pagination parameters"),
+                        @ApiResponse(responseCode = "304", description = "Page unchanged since the ETag sent in If-None-Match"),
+                        @ApiResponse(responseCode = "400", description = "Invalid pagination or filter parameters"),
                         @ApiResponse(responseCode = "500", description = "External API error or internal server error")
         })
         @GetMapping
-        public ResponseEntity<PaginationResponse<User>> getUsers(
+        public ResponseEntity<PaginationResponse<?>> getUsers(
                         @Parameter(description = "Optional name filter (case-insensitive, partial match on firstName or lastName)", example = "John") @RequestParam(required = false) String name,
 
                         @Parameter(description = "Optional username filter (case-insensitive, partial match on username)", example = "emilys") @RequestParam(required = false) String username,
 
+                        @ParameterObject UserAttributeFilter attributes,
+
                         @Parameter(description = "Page number (1-indexed)", example = "1") @RequestParam(required = false, defaultValue = "1") Integer page,
 
-                        @Parameter(description = "Number of items per page", example = "10") @RequestParam(required = false, defaultValue = "10") Integer size) {
+                        @Parameter(description = "Number of items per page", example = "10") @RequestParam(required = false, defaultValue = "10") Integer size,
+
+                        @Parameter(description = "Optional sort keys as field,asc|desc; repeat or chain for several keys. Sortable fields: id, firstName, lastName, username, email, age, height, weight, birthDate", example = "lastName,asc") @RequestParam(required = false) List<String> sort,
 
-                log.info("GET /api/users - name: '{}', username: '{}', page: {}, size: {}", name, username, page, size);
+                        @Parameter(description = FIELDS_DESCRIPTION, example = "id,firstName,lastName,username") @RequestParam(required = false) String fields,
+
+                        @Parameter(description = "Optional point as latitude,longitude; users are returned nearest first, and only those with coordinates", example = "40.7128,-74.0060") @RequestParam(required = false) String near,
+
+                        @Parameter(description = "Optional radius around near, in kilometres", example = "50") @RequestParam(required = false) Double radiusKm,
+
+                        @Parameter(description = "Optional number of users nearest to near to return", example = "20") @RequestParam(required = false) Integer nearest,
+
+                        @Parameter(description = "Optional name search; every word must match a first or last name word exactly, as a prefix or with up to two typos. Best matches first, cannot be combined with sort or near", example = "jon smi") @RequestParam(required = false) String q,
+
+                        @Parameter(description = "ETag of a previously received page; answered with 304 if unchanged") @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+                log.info("GET /api/users - name: '{}', username: '{}', attributes: {}, page: {}, size: {}, sort: {}, fields: '{}', near: '{}', radiusKm: {}, nearest: {}, q: '{}'", name, username, attributes, page, size, sort, fields, near, radiusKm, nearest, q);
 
                 // Create query object with validation
-                UserQuery query = UserQuery.of(name, username, page, size);
+                UserQuery query = UserQuery.of(name, username, attributes, UserSort.parse(sort), page, size);
+                GeoQuery geo = GeoQuery.parse(near, radiusKm, nearest);
+                NameQuery search = NameQuery.parse(q);
+                if (geo != null && search != null) {
+                        throw new IllegalArgumentException("q cannot be combined with near");
+                }
+
+                // Checked before filtering, so an unchanged page costs only the snapshot lookup
+                String eTag = entityTag(query.canonical() + "|" + normalizedFields(fields) + "|" + geo + "|" + search);
+                if (isNotModified(ifNoneMatch, eTag)) {
+                        log.debug("Users page not modified for ETag {}", eTag);
+                        return notModified(eTag);
+                }
+
+                if (geo != null) {
+                        return nearbyUsers(query, geo, fields, eTag);
+                }
+                if (search != null) {
+                        return searchUsers(query, search, fields, eTag);
+                }
+
                 PaginationResponse<User> response = userService.getUsers(query);
 
                 log.debug("Returning {} users for page {} (total filtered: {})",
                                 response.data().size(), page, response.totalItems());
 
-                return ResponseEntity.ok(response);
+                if (hasFields(fields)) {
+                        UserProjection projection = UserProjection.of(fields);
+                        return ok(eTag).body(response.map(user -> new ProjectedUser(user, projection)));
+                }
+                return ok(eTag).body(response);
+        }
+
+        private ResponseEntity<PaginationResponse<?>> nearbyUsers(UserQuery query, GeoQuery geo, String fields, String eTag) {
+                PaginationResponse<NearbyUser<User>> response = userService.getNearbyUsers(query, geo);
+
+                log.debug("Returning {} nearby users for page {} (total within range: {})",
+                                response.data().size(), query.page(), response.totalItems());
+
+                if (hasFields(fields)) {
+                        UserProjection projection = UserProjection.of(fields);
+                        return ok(eTag).body(response.map(nearby -> nearby.map(user -> new ProjectedUser(user, projection))));
+                }
+                return ok(eTag).body(response);
+        }
+
+        private ResponseEntity<PaginationResponse<?>> searchUsers(UserQuery query, NameQuery search, String fields, String eTag) {
+                PaginationResponse<User> response = userService.searchUsers(query, search);
+
+                log.debug("Returning {} matching users for page {} (total matching: {})",
+                                response.data().size(), query.page(), response.totalItems());
+
+                if (hasFields(fields)) {
+                        UserProjection projection = UserProjection.of(fields);
+                        return ok(eTag).body(response.map(user -> new ProjectedUser(user, projection)));
+                }
+                return ok(eTag).body(response);
+        }
+
+        /**
+         * Get users in ascending id order using keyset (cursor) pagination.
+         * Selected whenever the cursor parameter is present; pass an empty cursor
+         * to start from the first page.
+         * 
+         * @param name     Optional name filter (searches in firstName and lastName)
+         * @param username Optional username filter
+         * @param attributes Optional attribute range and equality filters
+         * @param cursor   Cursor from the previous response, empty for the first page
+         * @param size     Number of items per page (default: 10, min: 1)
+         * @param fields   Optional comma-separated fields to return (default: all)
+         * @return Page of users with the cursor for the next page
+         */
+        @Operation(summary = "Get users by cursor", description = "Retrieves users in ascending id order using an opaque keyset cursor. Results do not shift when the cached data is refreshed between requests")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Successfully retrieved users", content = @Content(schema = @Schema(implementation = CursorPaginationResponse.class))),
+                        @ApiResponse(responseCode = "304", description = "Page unchanged since the ETag sent in If-None-Match"),
+                        @ApiResponse(responseCode = "400", description = "Invalid page size, malformed cursor or cursor issued for different filters"),
+                        @ApiResponse(responseCode = "500", description = "External API error or internal server error")
+        })
+        @GetMapping(params = "cursor")
+        public ResponseEntity<CursorPaginationResponse<?>> getUsersByCursor(
+                        @Parameter(description = "Optional name filter (case-insensitive, partial match on firstName or lastName)", example = "John") @RequestParam(required = false) String name,
+
+                        @Parameter(description = "Optional username filter (case-insensitive, partial match on username)", example = "emilys") @RequestParam(required = false) String username,
+
+                        @ParameterObject UserAttributeFilter attributes,
+
+                        @Parameter(description = "Cursor from the previous response (empty for the first page)", example = "") @RequestParam String cursor,
+
+                        @Parameter(description = "Number of items per page", example = "10") @RequestParam(required = false, defaultValue = "10") Integer size,
+
+                        @Parameter(description = FIELDS_DESCRIPTION, example = "id,firstName,lastName,username") @RequestParam(required = false) String fields,
+
+                        @Parameter(description = "ETag of a previously received page; answered with 304 if unchanged") @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+                log.info("GET /api/users - name: '{}', username: '{}', attributes: {}, cursor: '{}', size: {}, fields: '{}'", name, username, attributes, cursor, size, fields);
+
+                UserQuery query = UserQuery.of(name, username, attributes, 1, size);
+
+                String eTag = entityTag(query.canonical() + "|" + normalizedFields(fields) + "|" + cursor.trim());
+                if (isNotModified(ifNoneMatch, eTag)) {
+                        log.debug("Users page after cursor not modified for ETag {}", eTag);
+                        return notModified(eTag);
+                }
+
+                CursorPaginationResponse<User> response = userService.getUsersAfter(query, cursor);
+
+                log.debug("Returning {} users after cursor (has more: {})", response.data().size(), response.hasMore());
+
+                if (hasFields(fields)) {
+                        UserProjection projection = UserProjection.of(fields);
+                        return ok(eTag).body(response.map(user -> new ProjectedUser(user, projection)));
+                }
+                return ok(eTag).body(response);
+        }
+
+        /**
+         * Export every user matching the filters as newline-delimited JSON.
+         * Users are written one by one from the cached snapshot while the
+         * response streams, so memory use does not grow with the result size.
+         * The stream is bounded by {@code spring.mvc.async.request-timeout}.
+         * 
+         * @param name     Optional name filter (searches in firstName and lastName)
+         * @param username Optional username filter
+         * @param attributes Optional attribute range and equality filters
+         * @param fields   Optional comma-separated fields to return (default: all)
+         * @return Streaming NDJSON body, one user per line
+         */
+        @Operation(summary = "Export users as NDJSON", description = "Streams every user matching the filters in a single response, one JSON object per line")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Users streamed as newline-delimited JSON", content = @Content(mediaType = NDJSON_VALUE)),
+                        @ApiResponse(responseCode = "400", description = "Invalid filter or fields parameter"),
+                        @ApiResponse(responseCode = "500", description = "External API error or internal server error")
+        })
+        @GetMapping(value = "/export", produces = NDJSON_VALUE)
+        public ResponseEntity<StreamingResponseBody> exportUsers(
+                        @Parameter(description = "Optional name filter (case-insensitive, partial match on firstName or lastName)", example = "John") @RequestParam(required = false) String name,
+
+                        @Parameter(description = "Optional username filter (case-insensitive, partial match on username)", example = "emilys") @RequestParam(required = false) String username,
+
+                        @ParameterObject UserAttributeFilter attributes,
+
+                        @Parameter(description = FIELDS_DESCRIPTION, example = "id,firstName,lastName,username") @RequestParam(required = false) String fields) {
+
+                log.info("GET /api/users/export - name: '{}', username: '{}', attributes: {}, fields: '{}'", name, username, attributes, fields);
+
+                // Resolve the projection and snapshot before streaming, so errors still map to JSON responses
+                UserProjection projection = hasFields(fields) ? UserProjection.of(fields) : null;
+                UserFilter filter = UserQuery.of(name, username, attributes, 1, 1).filter();
+                Stream<User> users = userService.streamUsers(filter);
+
+                StreamingResponseBody body = outputStream -> {
+                        try (users) {
+                                long written = writeNdjson(users.iterator(), projection, outputStream);
+                                log.debug("Exported {} users", written);
+                        }
+                };
+                return ok()
+                                .contentType(MediaType.parseMediaType(NDJSON_VALUE))
+                                .body(body);
+        }
+
+        /**
+         * Count the users matching the filters per facet value, for dashboards
+         * that would otherwise page through every user.
+         * 
+         * @param name     Optional name filter (searches in firstName and lastName)
+         * @param username Optional username filter
+         * @param attributes Optional attribute range and equality filters
+         * @param ageBucketSize Width of each age bucket in years (default: 10)
+         * @return Counts by role, blood group, department, state and age bucket
+         */
+        @Operation(summary = "Get user facet counts", description = "Counts the users matching the filters by role, bloodGroup, department, state and age bucket in a single pass")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Facet counts for the matching users", content = @Content(schema = @Schema(implementation = FacetsResponse.class))),
+                        @ApiResponse(responseCode = "304", description = "Counts unchanged since the ETag sent in If-None-Match"),
+                        @ApiResponse(responseCode = "400", description = "Invalid filter or bucket size"),
+                        @ApiResponse(responseCode = "500", description = "External API error or internal server error")
+        })
+        @GetMapping("/facets")
+        public ResponseEntity<FacetsResponse> getFacets(
+                        @Parameter(description = "Optional name filter (case-insensitive, partial match on firstName or lastName)", example = "John") @RequestParam(required = false) String name,
+
+                        @Parameter(description = "Optional username filter (case-insensitive, partial match on username)", example = "emilys") @RequestParam(required = false) String username,
+
+                        @ParameterObject UserAttributeFilter attributes,
+
+                        @Parameter(description = "Width of each age bucket in years", example = "10") @RequestParam(required = false, defaultValue = "10") Integer ageBucketSize,
+
+                        @Parameter(description = "ETag of previously received counts; answered with 304 if unchanged") @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+                log.info("GET /api/users/facets - name: '{}', username: '{}', attributes: {}, ageBucketSize: {}", name, username, attributes, ageBucketSize);
+
+                UserFilter filter = UserQuery.of(name, username, attributes, 1, 1).filter();
+                String eTag = entityTag("facets|" + filter + "|" + ageBucketSize);
+                if (isNotModified(ifNoneMatch, eTag)) {
+                        log.debug("Facets not modified for ETag {}", eTag);
+                        return notModified(eTag);
+                }
+
+                FacetsResponse response = userService.getFacets(filter, ageBucketSize);
+                log.debug("Returning facets over {} users", response.totalItems());
+                return ok(eTag).body(response);
+        }
+
+        /**
+         * Get one user by id. Literal paths such as /export and /facets take
+         * precedence over this mapping.
+         * 
+         * @param id     User id
+         * @param fields Optional comma-separated fields to return (default: all)
+         * @return The user
+         */
+        @Operation(summary = "Get user by id", description = "Looks up a single user by id in the cached snapshot, without scanning")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Successfully retrieved user", content = @Content(schema = @Schema(implementation = User.class))),
+                        @ApiResponse(responseCode = "304", description = "User unchanged since the ETag sent in If-None-Match"),
+                        @ApiResponse(responseCode = "400", description = "Invalid id or fields parameter"),
+                        @ApiResponse(responseCode = "404", description = "No user with this id"),
+                        @ApiResponse(responseCode = "500", description = "External API error or internal server error")
+        })
+        @GetMapping("/{id}")
+        public ResponseEntity<Object> getUser(
+                        @Parameter(description = "User id", example = "1") @PathVariable long id,
+
+                        @Parameter(description = FIELDS_DESCRIPTION, example = "id,firstName,lastName,username") @RequestParam(required = false) String fields,
+
+                        @Parameter(description = "ETag of a previously received user; answered with 304 if unchanged") @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+                log.info("GET /api/users/{} - fields: '{}'", id, fields);
+
+                String eTag = entityTag("user|" + id + "|" + normalizedFields(fields));
+                if (isNotModified(ifNoneMatch, eTag)) {
+                        log.debug("User {} not modified for ETag {}", id, eTag);
+                        return notModified(eTag);
+                }
+
+                User user = userService.getUser(id);
+                if (hasFields(fields)) {
+                        return ok(eTag).body(new ProjectedUser(user, UserProjection.of(fields)));
+                }
+                return ok(eTag).body(user);
+        }
+
+        /**
+         * Get several users by id and by exact username in one request.
+         * 
+         * @param request Ids and usernames to look up
+         * @param fields  Optional comma-separated fields to return (default: all)
+         * @return Users found and the keys that matched no user
+         */
+        @Operation(summary = "Get users by ids and usernames", description = "Looks up to 100 ids and exact (case-insensitive) usernames in the cached snapshot, one hash lookup each")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Users found, with the ids and usernames that matched nobody", content = @Content(schema = @Schema(implementation = UserBatchResponse.class))),
+                        @ApiResponse(responseCode = "400", description = "Malformed body, too many keys or blank usernames"),
+                        @ApiResponse(responseCode = "500", description = "External API error or internal server error")
+        })
+        @PostMapping("/batch")
+        public ResponseEntity<UserBatchResponse<?>> getUsersByKeys(
+                        @RequestBody UserBatchRequest request,
+
+                        @Parameter(description = FIELDS_DESCRIPTION, example = "id,firstName,lastName,username") @RequestParam(required = false) String fields) {
+
+                log.info("POST /api/users/batch - ids: {}, usernames: {}, fields: '{}'", request.ids().size(), request.usernames().size(), fields);
+
+                UserProjection projection = hasFields(fields) ? UserProjection.of(fields) : null;
+                UserBatchResponse<User> response = userService.getUsersByKeys(request);
+
+                log.debug("Returning {} users from batch lookup", response.data().size());
+
+                if (projection != null) {
+                        return ok().body(response.map(user -> new ProjectedUser(user, projection)));
+                }
+                return ok().body(response);
+        }
+
+        /**
+         * 200 response that carries Warning and Age headers when the data is stale.
+         */
+        private ResponseEntity.BodyBuilder ok() {
+                return withStaleness(ResponseEntity.ok());
+        }
+
+        /**
+         * 200 response with the page's ETag, cacheable until the users cache entry expires.
+         */
+        private ResponseEntity.BodyBuilder ok(String eTag) {
+                return validated(ResponseEntity.ok(), eTag);
+        }
+
+        private <T> ResponseEntity<T> notModified(String eTag) {
+                return validated(ResponseEntity.status(HttpStatus.NOT_MODIFIED), eTag).build();
+        }
+
+        private ResponseEntity.BodyBuilder validated(ResponseEntity.BodyBuilder builder, String eTag) {
+                return withStaleness(builder)
+                                .eTag(eTag)
+                                .cacheControl(CacheControl.maxAge(userService.remainingTtl()));
+        }
+
+        private ResponseEntity.BodyBuilder withStaleness(ResponseEntity.BodyBuilder builder) {
+                userService.staleAge().ifPresent(age -> builder
+                                .header(HttpHeaders.WARNING, STALE_WARNING)
+                                .header(HttpHeaders.AGE, Long.toString(age.toSeconds())));
+                return builder;
+        }
+
+        /**
+         * Strong ETag of a response: the snapshot version plus a hash of the
+         * normalized request. A page only changes when the snapshot does, and
+         * the version is derived from the snapshot content, so the tag stays
+         * valid across refreshes that load identical data. If a refresh lands
+         * between this call and building the body, the body is newer than its
+         * tag, which costs the client one extra full response later on.
+         */
+        private String entityTag(String request) {
+                return "\"" + Long.toHexString(userService.snapshotVersion()) + "-"
+                                + Integer.toHexString(request.hashCode()) + "\"";
+        }
+
+        /**
+         * If-None-Match uses the weak comparison, so W/ prefixed tags match too.
+         */
+        private static boolean isNotModified(String ifNoneMatch, String eTag) {
+                if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+                        return false;
+                }
+                ETag current = ETag.create(eTag);
+                return ETag.parse(ifNoneMatch).stream()
+                                .anyMatch(candidate -> candidate.isWildcard() || candidate.compare(current, false));
+        }
+
+        private static String normalizedFields(String fields) {
+                return hasFields(fields) ? fields.trim() : "";
+        }
+
+        private long writeNdjson(Iterator<User> users, UserProjection projection, OutputStream outputStream)
+                        throws IOException {
+                // Flushing after every record would turn each line into its own network write
+                ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+                long written = 0;
+                try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                        generator.setRootValueSeparator(null);
+                        while (users.hasNext()) {
+                                User user = users.next();
+                                writer.writeValue(generator, projection != null ? new ProjectedUser(user, projection) : user);
+                                generator.writeRaw('\n');
+                                written++;
+                        }
+                }
+                return written;
+        }
+
+        private static boolean hasFields(String fields) {
+                return fields != null && !fields.isBlank();
         }
 }
@@ -0,0 +1,25 @@
+package com.example.pagination.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset pagination response wrapper.
+ * Pass {@code nextCursor} back as the {@code cursor} parameter to get the
+ * following page; it is null on the last page.
+ *
+ * @param <T> Type of data being paginated
+ */
+public record CursorPaginationResponse<T>(
+        int size,
+        boolean hasMore,
+        String nextCursor,
+        List<T> data) {
+
+    /**
+     * Same page with every item converted by the mapper.
+     */
+    public <R> CursorPaginationResponse<R> map(Function<? super T, ? extends R> mapper) {
+        return new CursorPaginationResponse<>(size, hasMore, nextCursor, data.stream().<R>map(mapper).toList());
+    }
+}
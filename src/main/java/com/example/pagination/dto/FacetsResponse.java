@@ -0,0 +1,17 @@
+package com.example.pagination.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts of the users matching a filter, per value of each facet.
+ * Categorical facets list the most common values first; the age facet lists
+ * its buckets in ascending order. Values no matching user holds are left out.
+ */
+public record FacetsResponse(
+        int totalItems,
+        Map<String, List<FacetCount>> facets) {
+
+    public record FacetCount(String value, int count) {
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.pagination.dto;
+
+/**
+ * Proximity part of a user query: a point, and optionally a radius and a
+ * maximum number of nearest users. Results are ordered by distance from the
+ * point; users without coordinates never match.
+ */
+public record GeoQuery(
+        double latitude,
+        double longitude,
+        Double radiusKm,
+        Integer nearest) {
+
+    /**
+     * Compact constructor with validation.
+     */
+    public GeoQuery {
+        if (!(latitude >= -90 && latitude <= 90) || !(longitude >= -180 && longitude <= 180)) {
+            throw new IllegalArgumentException("near must be a latitude in [-90, 90] and a longitude in [-180, 180]");
+        }
+        if (radiusKm != null && !(radiusKm > 0)) {
+            throw new IllegalArgumentException("radiusKm must be greater than 0");
+        }
+        if (nearest != null && nearest <= 0) {
+            throw new IllegalArgumentException("nearest must be greater than 0");
+        }
+    }
+
+    /**
+     * Parse the {@code near=lat,lng} parameter together with its options.
+     *
+     * @return The query, or null if {@code near} is absent
+     * @throws IllegalArgumentException if {@code near} is malformed or out of
+     *                                  range, or an option is given without it
+     */
+    public static GeoQuery parse(String near, Double radiusKm, Integer nearest) {
+        if (near == null || near.isBlank()) {
+            if (radiusKm != null || nearest != null) {
+                throw new IllegalArgumentException("radiusKm and nearest require near");
+            }
+            return null;
+        }
+        String[] parts = near.split(",");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("near must be given as latitude,longitude");
+        }
+        try {
+            return new GeoQuery(Double.parseDouble(parts[0].trim()), Double.parseDouble(parts[1].trim()), radiusKm,
+                    nearest);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("near must be given as latitude,longitude");
+        }
+    }
+
+    /**
+     * Maximum distance to search, unbounded without a radius.
+     */
+    public double maxDistanceKm() {
+        return radiusKm != null ? radiusKm : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Maximum number of users to return, unbounded without nearest.
+     */
+    public int limit() {
+        return nearest != null ? nearest : Integer.MAX_VALUE;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.pagination.dto;
+
+import java.util.List;
+
+import com.example.pagination.index.NameTokenizer;
+
+/**
+ * Free-text name search: the normalized words of the {@code q} parameter.
+ * Each word matches first and last names exactly, as a prefix or with typos,
+ * and users must match every word.
+ */
+public record NameQuery(List<String> terms) {
+
+    private static final int MAX_LENGTH = 100;
+    private static final int MAX_TERMS = 5;
+
+    /**
+     * Compact constructor with validation.
+     */
+    public NameQuery {
+        if (terms == null || terms.isEmpty()) {
+            throw new IllegalArgumentException("q must contain a letter or digit");
+        }
+        if (terms.size() > MAX_TERMS) {
+            throw new IllegalArgumentException("q must have at most " + MAX_TERMS + " words");
+        }
+        terms = List.copyOf(terms);
+    }
+
+    /**
+     * Parse the {@code q} parameter.
+     *
+     * @return The query, or null if {@code q} is absent or blank
+     * @throws IllegalArgumentException if {@code q} is too long, has too many
+     *                                  words or no letters or digits
+     */
+    public static NameQuery parse(String q) {
+        if (q == null || q.isBlank()) {
+            return null;
+        }
+        if (q.length() > MAX_LENGTH) {
+            throw new IllegalArgumentException("q must be at most " + MAX_LENGTH + " characters");
+        }
+        return new NameQuery(NameTokenizer.tokens(q));
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.pagination.dto;
+
+import java.util.function.Function;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+/**
+ * A user returned by a proximity query, serialized as the user's own fields
+ * followed by {@code distanceKm}.
+ *
+ * @param <T> Type of the user representation, full or projected
+ */
+public record NearbyUser<T>(
+        @JsonUnwrapped T user,
+        double distanceKm) {
+
+    /**
+     * Same distance with the user converted by the mapper.
+     */
+    public <R> NearbyUser<R> map(Function<? super T, ? extends R> mapper) {
+        return new NearbyUser<>(mapper.apply(user), distanceKm);
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.pagination.dto;
 
 import java.util.List;
+import java.util.function.Function;
 
 /**
  * Generic pagination response wrapper.
@@ -14,4 +15,11 @@ public record PaginationResponse<T>(
         long totalItems,
         int totalPages,
         List<T> data) {
+
+    /**
+     * Same page with every item converted by the mapper.
+     */
+    public <R> PaginationResponse<R> map(Function<? super T, ? extends R> mapper) {
+        return new PaginationResponse<>(page, size, totalItems, totalPages, data.stream().<R>map(mapper).toList());
+    }
 }
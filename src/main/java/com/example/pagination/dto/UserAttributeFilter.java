@@ -0,0 +1,101 @@
+package com.example.pagination.dto;
+
+import java.time.LocalDate;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Range and equality filters on user attributes.
+ * Ranges are inclusive and either bound may be omitted; users without a value
+ * for a filtered attribute never match. Equality filters are case-insensitive.
+ */
+public record UserAttributeFilter(
+        @Schema(description = "Minimum age (inclusive)", example = "25") Integer minAge,
+        @Schema(description = "Maximum age (inclusive)", example = "40") Integer maxAge,
+        @Schema(description = "Minimum height (inclusive)", example = "160") Double minHeight,
+        @Schema(description = "Maximum height (inclusive)", example = "190") Double maxHeight,
+        @Schema(description = "Minimum weight (inclusive)", example = "50") Double minWeight,
+        @Schema(description = "Maximum weight (inclusive)", example = "90") Double maxWeight,
+        @Schema(description = "Earliest birth date (inclusive, ISO date)", example = "1990-01-01") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate bornFrom,
+        @Schema(description = "Latest birth date (inclusive, ISO date)", example = "1999-12-31") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate bornTo,
+        @Schema(description = "Role (exact, case-insensitive)", example = "admin") String role,
+        @Schema(description = "Blood group (exact, case-insensitive)", example = "O-") String bloodGroup,
+        @Schema(description = "Company department (exact, case-insensitive)", example = "Engineering") String department,
+        @Schema(description = "Address country (exact, case-insensitive)", example = "United States") String country) {
+
+    /**
+     * Filter without any attribute condition.
+     */
+    public static final UserAttributeFilter NONE = new UserAttributeFilter(null, null, null, null, null, null, null,
+            null, null, null, null, null);
+
+    /**
+     * Check that every bound is a finite number and no range has its lower
+     * bound above its upper bound.
+     *
+     * @throws IllegalArgumentException if a bound is NaN or infinite, or a
+     *                                  range is empty
+     */
+    public void validate() {
+        requireFinite(minHeight, "minHeight");
+        requireFinite(maxHeight, "maxHeight");
+        requireFinite(minWeight, "minWeight");
+        requireFinite(maxWeight, "maxWeight");
+        requireOrdered(minAge, maxAge, "minAge", "maxAge");
+        requireOrdered(minHeight, maxHeight, "minHeight", "maxHeight");
+        requireOrdered(minWeight, maxWeight, "minWeight", "maxWeight");
+        requireOrdered(bornFrom, bornTo, "bornFrom", "bornTo");
+    }
+
+    /**
+     * Same filter with equality values trimmed and lowercase, and blank values
+     * dropped, so filters selecting the same users compare equal.
+     */
+    public UserAttributeFilter normalized() {
+        return new UserAttributeFilter(minAge, maxAge, minHeight, maxHeight, minWeight, maxWeight, bornFrom, bornTo,
+                normalize(role), normalize(bloodGroup), normalize(department), normalize(country));
+    }
+
+    public boolean hasAgeFilter() {
+        return minAge != null || maxAge != null;
+    }
+
+    public boolean hasHeightFilter() {
+        return minHeight != null || maxHeight != null;
+    }
+
+    public boolean hasWeightFilter() {
+        return minWeight != null || maxWeight != null;
+    }
+
+    public boolean hasBirthDateFilter() {
+        return bornFrom != null || bornTo != null;
+    }
+
+    /**
+     * Check if any attribute filter is active.
+     */
+    public boolean isActive() {
+        return hasAgeFilter() || hasHeightFilter() || hasWeightFilter() || hasBirthDateFilter()
+                || role != null || bloodGroup != null || department != null || country != null;
+    }
+
+    private static void requireFinite(Double value, String name) {
+        if (value != null && !Double.isFinite(value)) {
+            throw new IllegalArgumentException(name + " must be a finite number");
+        }
+    }
+
+    private static <T extends Comparable<? super T>> void requireOrdered(T min, T max, String minName,
+            String maxName) {
+        if (min != null && max != null && min.compareTo(max) > 0) {
+            throw new IllegalArgumentException(minName + " must not be greater than " + maxName);
+        }
+    }
+
+    private static String normalize(String value) {
+        return value != null && !value.isBlank() ? value.trim().toLowerCase() : null;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.pagination.dto;
+
+import java.util.List;
+
+/**
+ * Users to look up by id and by exact username. Either list may be omitted.
+ */
+public record UserBatchRequest(
+        List<Long> ids,
+        List<String> usernames) {
+
+    public UserBatchRequest {
+        ids = ids != null ? ids : List.of();
+        usernames = usernames != null ? usernames : List.of();
+    }
+
+    /**
+     * Number of keys to look up.
+     */
+    public int size() {
+        return ids.size() + usernames.size();
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.pagination.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Users found by a batch lookup, in request order with ids before usernames.
+ * A user requested more than once is returned once; keys that matched no
+ * user are listed separately.
+ *
+ * @param <T> Type of the user representation, full or projected
+ */
+public record UserBatchResponse<T>(
+        List<T> data,
+        List<Long> missingIds,
+        List<String> missingUsernames) {
+
+    /**
+     * Same result with every user converted by the mapper.
+     */
+    public <R> UserBatchResponse<R> map(Function<? super T, ? extends R> mapper) {
+        return new UserBatchResponse<>(data.stream().<R>map(mapper).toList(), missingIds, missingUsernames);
+    }
+}
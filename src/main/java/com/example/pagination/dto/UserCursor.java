@@ -0,0 +1,57 @@
+package com.example.pagination.dto;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for walking users in id order.
+ * Encodes the id (null if it had none) and position of the last user
+ * returned, the hash of the filters it was issued for, and the snapshot
+ * version it was read from. The position breaks ties between users sharing
+ * an id or lacking one.
+ */
+public record UserCursor(
+        Long lastId,
+        int lastPosition,
+        int filterHash,
+        long snapshotVersion) {
+
+    private static final byte FORMAT = 2;
+    private static final int ENCODED_LENGTH = 1 + 1 + Long.BYTES + Integer.BYTES + Integer.BYTES + Long.BYTES;
+
+    /**
+     * Encode as a URL-safe string.
+     */
+    public String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(ENCODED_LENGTH)
+                .put(FORMAT)
+                .put((byte) (lastId != null ? 1 : 0))
+                .putLong(lastId != null ? lastId : 0)
+                .putInt(lastPosition)
+                .putInt(filterHash)
+                .putLong(snapshotVersion);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * Decode a cursor produced by {@link #encode()}.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static UserCursor decode(String cursor) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor is malformed");
+        }
+        if (bytes.length != ENCODED_LENGTH || bytes[0] != FORMAT) {
+            throw new IllegalArgumentException("Cursor is malformed");
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, ENCODED_LENGTH - 1);
+        boolean hasId = buffer.get() != 0;
+        long lastId = buffer.getLong();
+        return new UserCursor(hasId ? lastId : null, buffer.getInt(), buffer.getInt(), buffer.getLong());
+    }
+}
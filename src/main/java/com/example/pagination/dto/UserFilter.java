@@ -0,0 +1,44 @@
+package com.example.pagination.dto;
+
+/**
+ * Normalized filter part of a {@link UserQuery}, without page and size.
+ * Values are trimmed and lowercase, and null when the filter is not active,
+ * so queries selecting the same users compare equal.
+ */
+public record UserFilter(
+        String name,
+        String username,
+        UserAttributeFilter attributes) {
+
+    public UserFilter {
+        attributes = attributes != null ? attributes : UserAttributeFilter.NONE;
+    }
+
+    /**
+     * Filter on name and username only.
+     */
+    public UserFilter(String name, String username) {
+        this(name, username, UserAttributeFilter.NONE);
+    }
+
+    /**
+     * Check if name filter is active.
+     */
+    public boolean hasNameFilter() {
+        return name != null;
+    }
+
+    /**
+     * Check if username filter is active.
+     */
+    public boolean hasUsernameFilter() {
+        return username != null;
+    }
+
+    /**
+     * Check if any filter is active.
+     */
+    public boolean isActive() {
+        return hasNameFilter() || hasUsernameFilter() || attributes.isActive();
+    }
+}
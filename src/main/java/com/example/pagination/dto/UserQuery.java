@@ -7,6 +7,8 @@ package com.example.pagination.dto;
 public record UserQuery(
         String name,
         String username,
+        UserAttributeFilter attributes,
+        UserSort sort,
         int page,
         int size) {
 
@@ -20,15 +22,36 @@ public record UserQuery(
         if (size <= 0) {
             throw new IllegalArgumentException("Size must be greater than 0");
         }
+        attributes = attributes != null ? attributes : UserAttributeFilter.NONE;
+        attributes.validate();
+        sort = sort != null ? sort : UserSort.UNSORTED;
     }
 
     /**
      * Factory method for creating query with defaults.
      */
     public static UserQuery of(String name, String username, Integer page, Integer size) {
+        return of(name, username, null, page, size);
+    }
+
+    /**
+     * Factory method for creating query with attribute filters and defaults.
+     */
+    public static UserQuery of(String name, String username, UserAttributeFilter attributes, Integer page,
+            Integer size) {
+        return of(name, username, attributes, null, page, size);
+    }
+
+    /**
+     * Factory method for creating a sorted query with attribute filters and defaults.
+     */
+    public static UserQuery of(String name, String username, UserAttributeFilter attributes, UserSort sort,
+            Integer page, Integer size) {
         return new UserQuery(
                 name,
                 username,
+                attributes,
+                sort,
                 page != null ? page : 1,
                 size != null ? size : 10);
     }
@@ -53,4 +76,35 @@ public record UserQuery(
     public String normalizedName() {
         return hasNameFilter() ? name.trim().toLowerCase() : null;
     }
+
+    /**
+     * Get normalized username for filtering (trimmed and lowercase).
+     */
+    public String normalizedUsername() {
+        return hasUsernameFilter() ? username.trim().toLowerCase() : null;
+    }
+
+    /**
+     * Get the normalized filters, ignoring page and size.
+     */
+    public UserFilter filter() {
+        return new UserFilter(normalizedName(), normalizedUsername(), attributes.normalized());
+    }
+
+    /**
+     * Hash of the normalized filters, ignoring page and size.
+     * Queries that select the same users share the same hash.
+     */
+    public int filterHash() {
+        return filter().hashCode();
+    }
+
+    /**
+     * Text form of the normalized query, equal for queries that return the
+     * same page. It is built from values only, so unlike {@link #hashCode()},
+     * which depends on enum identity, it is stable across restarts.
+     */
+    public String canonical() {
+        return filter() + "|" + sort + "|" + page + "|" + size;
+    }
 }
@@ -0,0 +1,111 @@
+package com.example.pagination.dto;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Sort order of a user query, as a list of keys applied in turn.
+ * Users without a value for a key sort after the others in either direction;
+ * users equal on every key keep their upstream order.
+ */
+public record UserSort(List<Order> orders) {
+
+    /**
+     * Upstream order.
+     */
+    public static final UserSort UNSORTED = new UserSort(List.of());
+
+    public UserSort {
+        orders = List.copyOf(orders);
+    }
+
+    /**
+     * Fields users can be sorted by, named as in the JSON response.
+     */
+    public enum Field {
+        ID("id"),
+        FIRST_NAME("firstName"),
+        LAST_NAME("lastName"),
+        USERNAME("username"),
+        EMAIL("email"),
+        AGE("age"),
+        HEIGHT("height"),
+        WEIGHT("weight"),
+        BIRTH_DATE("birthDate");
+
+        private final String jsonName;
+
+        Field(String jsonName) {
+            this.jsonName = jsonName;
+        }
+
+        public String jsonName() {
+            return jsonName;
+        }
+
+        static Field of(String name) {
+            for (Field field : values()) {
+                if (field.jsonName.equalsIgnoreCase(name)) {
+                    return field;
+                }
+            }
+            throw new IllegalArgumentException("Unknown sort field '" + name + "'");
+        }
+    }
+
+    public record Order(Field field, boolean descending) {
+    }
+
+    /**
+     * Parse sort parameters such as {@code lastName,asc} and {@code age,desc}.
+     * Values may hold several comma-separated keys; a direction applies to the
+     * field before it and defaults to ascending.
+     *
+     * @throws IllegalArgumentException for unknown fields, misplaced directions
+     *                                  or a field listed twice
+     */
+    public static UserSort parse(List<String> values) {
+        if (values == null || values.isEmpty()) {
+            return UNSORTED;
+        }
+
+        List<Order> orders = new ArrayList<>();
+        Set<Field> seen = EnumSet.noneOf(Field.class);
+        Field pending = null;
+        for (String value : values) {
+            for (String token : value.split(",")) {
+                String trimmed = token.trim();
+                if (trimmed.isEmpty()) {
+                    continue;
+                }
+                String lower = trimmed.toLowerCase(Locale.ROOT);
+                if (lower.equals("asc") || lower.equals("desc")) {
+                    if (pending == null) {
+                        throw new IllegalArgumentException("Sort direction '" + trimmed + "' must follow a field");
+                    }
+                    orders.add(new Order(pending, lower.equals("desc")));
+                    pending = null;
+                    continue;
+                }
+                if (pending != null) {
+                    orders.add(new Order(pending, false));
+                }
+                pending = Field.of(trimmed);
+                if (!seen.add(pending)) {
+                    throw new IllegalArgumentException("Sort field '" + trimmed + "' is listed more than once");
+                }
+            }
+        }
+        if (pending != null) {
+            orders.add(new Order(pending, false));
+        }
+        return orders.isEmpty() ? UNSORTED : new UserSort(orders);
+    }
+
+    public boolean isSorted() {
+        return !orders.isEmpty();
+    }
+}
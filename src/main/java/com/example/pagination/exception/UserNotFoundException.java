@@ -0,0 +1,11 @@
+package com.example.pagination.exception;
+
+/**
+ * Thrown when a single user is requested that the current snapshot does not hold.
+ */
+public class UserNotFoundException extends RuntimeException {
+
+    public UserNotFoundException(String message) {
+        super(message);
+    }
+}
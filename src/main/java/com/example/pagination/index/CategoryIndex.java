@@ -0,0 +1,90 @@
+package com.example.pagination.index;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Exact-match index over one low-cardinality attribute.
+ * Values are lowercased, and each distinct value maps to the sorted positions
+ * holding it, so an equality filter is a single lookup and combining filters
+ * is a posting-list intersection.
+ */
+public final class CategoryIndex {
+
+    private static final int[] EMPTY = new int[0];
+    private static final int NO_KEY = -1;
+
+    private final String[] keys;
+    private final int[] keyByDocument;
+    private final int[][] postings;
+    private final Map<String, Integer> keyIds;
+
+    private CategoryIndex(String[] keys, int[] keyByDocument, int[][] postings, Map<String, Integer> keyIds) {
+        this.keys = keys;
+        this.keyByDocument = keyByDocument;
+        this.postings = postings;
+        this.keyIds = keyIds;
+    }
+
+    /**
+     * Build an index where document {@code i} holds {@code value.apply(i)};
+     * null values are left out.
+     */
+    public static CategoryIndex build(int documents, IntFunction<String> value) {
+        Map<String, Integer> keyIds = new HashMap<>();
+        int[] keyByDocument = new int[documents];
+        for (int doc = 0; doc < documents; doc++) {
+            String raw = value.apply(doc);
+            keyByDocument[doc] = raw == null
+                    ? NO_KEY
+                    : keyIds.computeIfAbsent(raw.toLowerCase(), key -> keyIds.size());
+        }
+
+        // Count first so every posting list is allocated once, then fill in document order
+        int[] counts = new int[keyIds.size()];
+        for (int key : keyByDocument) {
+            if (key != NO_KEY) {
+                counts[key]++;
+            }
+        }
+        int[][] postings = new int[counts.length][];
+        for (int key = 0; key < counts.length; key++) {
+            postings[key] = new int[counts[key]];
+        }
+        int[] filled = new int[counts.length];
+        for (int doc = 0; doc < documents; doc++) {
+            int key = keyByDocument[doc];
+            if (key != NO_KEY) {
+                postings[key][filled[key]++] = doc;
+            }
+        }
+
+        String[] keys = new String[keyIds.size()];
+        keyIds.forEach((key, id) -> keys[id] = key);
+        return new CategoryIndex(keys, keyByDocument, postings, Map.copyOf(keyIds));
+    }
+
+    /**
+     * Documents holding the value.
+     *
+     * @param key Lowercase value
+     * @return Sorted positions. Shared, callers must not modify it.
+     */
+    public int[] positions(String key) {
+        Integer id = keyIds.get(key);
+        return id != null ? postings[id] : EMPTY;
+    }
+
+    public boolean matches(int document, String key) {
+        int id = keyByDocument[document];
+        return id != NO_KEY && keys[id].equals(key);
+    }
+
+    /**
+     * Number of distinct values.
+     */
+    public int cardinality() {
+        return keys.length;
+    }
+}
@@ -0,0 +1,335 @@
+package com.example.pagination.index;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Spatial index over latitude/longitude coordinates for radius and
+ * nearest-neighbour queries.
+ * <p>
+ * Each point is stored as a unit vector on the sphere, and the vectors form an
+ * implicit k-d tree over three primitive arrays: the node of a slice
+ * {@code [lo, hi)} sits at its midpoint, with the left subtree before it and
+ * the right subtree after it. The straight-line (chord) distance between unit
+ * vectors grows with the great-circle distance, so the tree is pruned with
+ * plain Euclidean bounds, and there is no special case at the antimeridian or
+ * the poles.
+ */
+public final class GeoIndex {
+
+    /**
+     * Mean Earth radius in kilometres.
+     */
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private final int[] positions;
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] zs;
+
+    private GeoIndex(int[] positions, double[] xs, double[] ys, double[] zs) {
+        this.positions = positions;
+        this.xs = xs;
+        this.ys = ys;
+        this.zs = zs;
+    }
+
+    /**
+     * Build an index over documents {@code 0..documents-1}; documents for which
+     * {@code present} is false are left out.
+     */
+    public static GeoIndex build(int documents, IntPredicate present, IntToDoubleFunction latitude,
+            IntToDoubleFunction longitude) {
+        int[] positions = IntStream.range(0, documents).filter(present).toArray();
+        double[] xs = new double[positions.length];
+        double[] ys = new double[positions.length];
+        double[] zs = new double[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            double lat = Math.toRadians(latitude.applyAsDouble(positions[i]));
+            double lng = Math.toRadians(longitude.applyAsDouble(positions[i]));
+            xs[i] = Math.cos(lat) * Math.cos(lng);
+            ys[i] = Math.cos(lat) * Math.sin(lng);
+            zs[i] = Math.sin(lat);
+        }
+        GeoIndex index = new GeoIndex(positions, xs, ys, zs);
+        index.arrange(0, positions.length, 0);
+        return index;
+    }
+
+    /**
+     * Number of documents that have coordinates.
+     */
+    public int size() {
+        return positions.length;
+    }
+
+    /**
+     * Accepted documents closest to a point, nearest first; documents at the
+     * same distance are ordered by position.
+     *
+     * @param limit         Maximum number of documents to return
+     * @param maxDistanceKm Only documents within this great-circle distance
+     * @param accept        Documents that may be returned
+     * @return Positions ordered by distance, freshly allocated
+     */
+    public int[] nearest(double latitude, double longitude, int limit, double maxDistanceKm, IntPredicate accept) {
+        if (limit <= 0 || positions.length == 0) {
+            return new int[0];
+        }
+        double lat = Math.toRadians(latitude);
+        double lng = Math.toRadians(longitude);
+        Search search = new Search(Math.cos(lat) * Math.cos(lng), Math.cos(lat) * Math.sin(lng), Math.sin(lat),
+                limit, squaredChord(maxDistanceKm), accept);
+        search.visit(0, positions.length, 0);
+        return search.heap.drainAscending();
+    }
+
+    /**
+     * Great-circle distance between two points by the haversine formula.
+     */
+    public static double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double lat1 = Math.toRadians(latitude1);
+        double lat2 = Math.toRadians(latitude2);
+        double sinLat = Math.sin((lat2 - lat1) / 2);
+        double sinLng = Math.sin(Math.toRadians(longitude2 - longitude1) / 2);
+        double h = sinLat * sinLat + Math.cos(lat1) * Math.cos(lat2) * sinLng * sinLng;
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(h)));
+    }
+
+    /**
+     * Squared chord length spanning the given great-circle distance. Anything
+     * from half the circumference on covers the whole sphere.
+     */
+    private static double squaredChord(double distanceKm) {
+        double angle = distanceKm / EARTH_RADIUS_KM;
+        if (angle >= Math.PI || Double.isInfinite(distanceKm)) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double chord = 2 * Math.sin(angle / 2);
+        return chord * chord;
+    }
+
+    private double coordinate(int axis, int i) {
+        return switch (axis) {
+            case 0 -> xs[i];
+            case 1 -> ys[i];
+            default -> zs[i];
+        };
+    }
+
+    /**
+     * Order {@code [lo, hi)} as a subtree split on the given axis: the median
+     * goes to the midpoint, smaller values before it and larger ones after.
+     */
+    private void arrange(int lo, int hi, int axis) {
+        if (hi - lo <= 1) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        select(lo, hi - 1, mid, axis);
+        int next = (axis + 1) % 3;
+        arrange(lo, mid, next);
+        arrange(mid + 1, hi, next);
+    }
+
+    /**
+     * Quickselect: move the k-th smallest value on the axis within
+     * {@code [left, right]} to index k.
+     */
+    private void select(int left, int right, int k, int axis) {
+        while (left < right) {
+            double pivot = coordinate(axis, (left + right) >>> 1);
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (coordinate(axis, i) < pivot) {
+                    i++;
+                }
+                while (coordinate(axis, j) > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i++, j--);
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void swap(int i, int j) {
+        int position = positions[i];
+        positions[i] = positions[j];
+        positions[j] = position;
+        double x = xs[i];
+        xs[i] = xs[j];
+        xs[j] = x;
+        double y = ys[i];
+        ys[i] = ys[j];
+        ys[j] = y;
+        double z = zs[i];
+        zs[i] = zs[j];
+        zs[j] = z;
+    }
+
+    private final class Search {
+        private final double x;
+        private final double y;
+        private final double z;
+        private final int limit;
+        private final IntPredicate accept;
+        private final NearestHeap heap;
+        private double bound;
+
+        Search(double x, double y, double z, int limit, double bound, IntPredicate accept) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.limit = limit;
+            this.bound = bound;
+            this.accept = accept;
+            this.heap = new NearestHeap(Math.min(limit, positions.length));
+        }
+
+        void visit(int lo, int hi, int axis) {
+            if (lo >= hi) {
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            double dx = xs[mid] - x;
+            double dy = ys[mid] - y;
+            double dz = zs[mid] - z;
+            double distance = dx * dx + dy * dy + dz * dz;
+            if (distance <= bound && accept.test(positions[mid])) {
+                heap.offer(distance, positions[mid], limit);
+                if (heap.size() == limit) {
+                    bound = Math.min(bound, heap.maxDistance());
+                }
+            }
+
+            double delta = switch (axis) {
+                case 0 -> dx;
+                case 1 -> dy;
+                default -> dz;
+            };
+            int next = (axis + 1) % 3;
+            // delta > 0 means the query lies before the split, in the left subtree
+            if (delta > 0) {
+                visit(lo, mid, next);
+                if (delta * delta <= bound) {
+                    visit(mid + 1, hi, next);
+                }
+            } else {
+                visit(mid + 1, hi, next);
+                if (delta * delta <= bound) {
+                    visit(lo, mid, next);
+                }
+            }
+        }
+    }
+
+    /**
+     * Max-heap of (distance, position) pairs that keeps the closest entries
+     * seen so far, ordered by distance and then by position.
+     */
+    private static final class NearestHeap {
+        private double[] distances;
+        private int[] positions;
+        private int size;
+
+        NearestHeap(int capacity) {
+            this.distances = new double[Math.max(1, capacity)];
+            this.positions = new int[Math.max(1, capacity)];
+        }
+
+        int size() {
+            return size;
+        }
+
+        double maxDistance() {
+            return distances[0];
+        }
+
+        void offer(double distance, int position, int limit) {
+            if (size == limit) {
+                if (!before(distance, position, distances[0], positions[0])) {
+                    return;
+                }
+                distances[0] = distance;
+                positions[0] = position;
+                siftDown(0);
+                return;
+            }
+            if (size == distances.length) {
+                distances = Arrays.copyOf(distances, size * 2);
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            distances[size] = distance;
+            positions[size] = position;
+            siftUp(size++);
+        }
+
+        int[] drainAscending() {
+            int[] ordered = new int[size];
+            for (int i = size - 1; i >= 0; i--) {
+                ordered[i] = positions[0];
+                size--;
+                distances[0] = distances[size];
+                positions[0] = positions[size];
+                siftDown(0);
+            }
+            return ordered;
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!before(distances[parent], positions[parent], distances[i], positions[i])) {
+                    return;
+                }
+                exchange(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int largest = i;
+                int left = 2 * i + 1;
+                int right = left + 1;
+                if (left < size && before(distances[largest], positions[largest], distances[left], positions[left])) {
+                    largest = left;
+                }
+                if (right < size
+                        && before(distances[largest], positions[largest], distances[right], positions[right])) {
+                    largest = right;
+                }
+                if (largest == i) {
+                    return;
+                }
+                exchange(i, largest);
+                i = largest;
+            }
+        }
+
+        private void exchange(int i, int j) {
+            double distance = distances[i];
+            distances[i] = distances[j];
+            distances[j] = distance;
+            int position = positions[i];
+            positions[i] = positions[j];
+            positions[j] = position;
+        }
+
+        private static boolean before(double distance, int position, double otherDistance, int otherPosition) {
+            return distance < otherDistance || (distance == otherDistance && position < otherPosition);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.pagination.index;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Hash index from user id to position, for point lookups.
+ * <p>
+ * Ids are kept in an open-addressing table of two primitive arrays with
+ * linear probing, so a lookup hashes the id once and usually reads a single
+ * slot, with no boxing of keys or values. The table is sized to at most half
+ * full, which keeps probe sequences short.
+ */
+public final class IdIndex {
+
+    /**
+     * Position reported for ids that are not in the index.
+     */
+    public static final int NOT_FOUND = -1;
+
+    private final long[] keys;
+    private final int[] positions;
+    private final int mask;
+    private final int size;
+
+    private IdIndex(long[] keys, int[] positions, int size) {
+        this.keys = keys;
+        this.positions = positions;
+        this.mask = keys.length - 1;
+        this.size = size;
+    }
+
+    /**
+     * Build an index over documents {@code 0..documents-1}; documents for which
+     * {@code present} is false are left out. If an id occurs more than once,
+     * the first position wins.
+     */
+    public static IdIndex build(int documents, IntPredicate present, IntToLongFunction id) {
+        int capacity = Integer.highestOneBit(Math.max(2, documents) * 2 - 1) << 1;
+        long[] keys = new long[capacity];
+        int[] positions = new int[capacity];
+        Arrays.fill(positions, NOT_FOUND);
+        int mask = capacity - 1;
+        int size = 0;
+        for (int doc = 0; doc < documents; doc++) {
+            if (!present.test(doc)) {
+                continue;
+            }
+            long key = id.applyAsLong(doc);
+            int slot = slot(key, mask);
+            while (positions[slot] != NOT_FOUND && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (positions[slot] == NOT_FOUND) {
+                keys[slot] = key;
+                positions[slot] = doc;
+                size++;
+            }
+        }
+        return new IdIndex(keys, positions, size);
+    }
+
+    /**
+     * Position of the user with the given id.
+     *
+     * @return Position, or {@link #NOT_FOUND}
+     */
+    public int position(long id) {
+        int slot = slot(id, mask);
+        while (positions[slot] != NOT_FOUND) {
+            if (keys[slot] == id) {
+                return positions[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * Number of distinct ids.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Spread the id over the table; sequential ids would otherwise fill one
+     * contiguous run of slots.
+     */
+    private static int slot(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.pagination.index;
+
+/**
+ * Automaton accepting every string within a bounded edit distance of a word.
+ * <p>
+ * A state is the row of edit distances between the word's prefixes and the
+ * input read so far, with every entry capped at {@code maxEdits + 1}. Capping
+ * keeps the number of distinct states finite, so this is a lazily built
+ * Levenshtein DFA; stepping it costs one pass over the word. Walking it
+ * alongside a trie prunes every branch whose state can no longer reach an
+ * accepting one.
+ */
+public final class LevenshteinAutomaton {
+
+    private final char[] word;
+    private final int maxEdits;
+
+    public LevenshteinAutomaton(String word, int maxEdits) {
+        if (maxEdits < 0) {
+            throw new IllegalArgumentException("maxEdits must not be negative");
+        }
+        this.word = word.toCharArray();
+        this.maxEdits = maxEdits;
+    }
+
+    /**
+     * Number of entries in a state.
+     */
+    public int stateSize() {
+        return word.length + 1;
+    }
+
+    /**
+     * State before any input: the distance from each prefix of the word to
+     * the empty string.
+     */
+    public void start(int[] state) {
+        for (int i = 0; i <= word.length; i++) {
+            state[i] = Math.min(i, maxEdits + 1);
+        }
+    }
+
+    /**
+     * Read one character.
+     *
+     * @param from State before the character
+     * @param c    Character read
+     * @param to   Receives the state after it
+     * @return Whether the new state can still reach an accepting state
+     */
+    public boolean step(int[] from, char c, int[] to) {
+        int cap = maxEdits + 1;
+        to[0] = Math.min(from[0] + 1, cap);
+        int best = to[0];
+        for (int i = 1; i <= word.length; i++) {
+            int substitute = from[i - 1] + (word[i - 1] == c ? 0 : 1);
+            int insert = from[i] + 1;
+            int delete = to[i - 1] + 1;
+            to[i] = Math.min(Math.min(substitute, insert), Math.min(delete, cap));
+            best = Math.min(best, to[i]);
+        }
+        return best <= maxEdits;
+    }
+
+    /**
+     * Edit distance between the whole word and the input read so far, or
+     * {@code maxEdits + 1} if it exceeds the bound. The input is accepted
+     * when this is at most {@code maxEdits}.
+     */
+    public int distance(int[] state) {
+        return state[word.length];
+    }
+
+    public int maxEdits() {
+        return maxEdits;
+    }
+}
@@ -0,0 +1,422 @@
+package com.example.pagination.index;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+
+/**
+ * Prefix and typo-tolerant search over the words of user names.
+ * <p>
+ * Every distinct normalized word is a term with a posting list of the
+ * positions holding it. Terms are inserted into the trie in sorted order, so
+ * the terms below any node form one contiguous range of term ids and a prefix
+ * match is a single range. Fuzzy matches walk the trie together with a
+ * {@link LevenshteinAutomaton} and skip every branch the automaton rejects,
+ * so a search touches only the part of the trie near the query.
+ * <p>
+ * Each query word scores every term it reaches, lower is better: an exact
+ * word 0, a prefix 1, a whole word within {@code d} edits {@code 1 + d}, and
+ * a word starting within {@code d} edits of the query word {@code 2 + d}. A
+ * user scores the best of its words for each query word and must match all
+ * of them; results are ranked by the sum, then by position.
+ * <p>
+ * A query word first only collects the terms it reaches. If their posting
+ * lists are short next to the document count, the hits are gathered and
+ * sorted; only common words, whose hits rival the document count anyway,
+ * keep a score byte per document. Once the rarer words leave few
+ * candidates, a common word is only looked up for those. Intersecting the
+ * words and ranking by score then only touch matched documents, so a search
+ * costs about as much as the postings it reads.
+ */
+public final class NameTrie {
+
+    private static final int NO_NODE = -1;
+    private static final int ROOT = 0;
+    private static final int EXACT = 0;
+    private static final int PREFIX = 1;
+    private static final int FUZZY = 1;
+    private static final int FUZZY_PREFIX = 2;
+    private static final byte NO_MATCH = Byte.MAX_VALUE;
+    // Sorting costs about log2(hits) per hit, so below this share a dense scan loses
+    private static final int SPARSE_RATIO = 16;
+
+    private final int[][] postings;
+    private final char[] labels;
+    private final int[] firstChild;
+    private final int[] nextSibling;
+    private final int[] termAt;
+    private final int[] termFrom;
+    private final int[] termTo;
+    private final int maxDepth;
+    private final int documents;
+
+    private NameTrie(int documents, int[][] postings, char[] labels, int[] firstChild, int[] nextSibling, int[] termAt,
+            int[] termFrom, int[] termTo, int maxDepth) {
+        this.documents = documents;
+        this.postings = postings;
+        this.labels = labels;
+        this.firstChild = firstChild;
+        this.nextSibling = nextSibling;
+        this.termAt = termAt;
+        this.termFrom = termFrom;
+        this.termTo = termTo;
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * Build a trie over the words of the given fields of documents
+     * {@code 0..documents-1}; null fields are skipped.
+     */
+    @SafeVarargs
+    public static NameTrie build(int documents, IntFunction<String>... fields) {
+        Map<String, Postings> byTerm = new HashMap<>();
+        for (int doc = 0; doc < documents; doc++) {
+            for (IntFunction<String> field : fields) {
+                for (String token : NameTokenizer.tokens(field.apply(doc))) {
+                    byTerm.computeIfAbsent(token, key -> new Postings()).add(doc);
+                }
+            }
+        }
+        String[] terms = byTerm.keySet().toArray(String[]::new);
+        Arrays.sort(terms);
+
+        int capacity = 1;
+        int maxDepth = 0;
+        int[][] postings = new int[terms.length][];
+        for (int id = 0; id < terms.length; id++) {
+            postings[id] = byTerm.get(terms[id]).toArray();
+            capacity += terms[id].length();
+            maxDepth = Math.max(maxDepth, terms[id].length());
+        }
+
+        char[] labels = new char[capacity];
+        int[] firstChild = new int[capacity];
+        int[] nextSibling = new int[capacity];
+        int[] lastChild = new int[capacity];
+        int[] termAt = new int[capacity];
+        int[] termFrom = new int[capacity];
+        int[] termTo = new int[capacity];
+        firstChild[ROOT] = NO_NODE;
+        lastChild[ROOT] = NO_NODE;
+        termAt[ROOT] = NO_NODE;
+        termTo[ROOT] = terms.length;
+        int nodes = 1;
+
+        // path[d] is the node of the previous term's prefix of length d
+        int[] path = new int[maxDepth + 1];
+        String previous = "";
+        for (int id = 0; id < terms.length; id++) {
+            String term = terms[id];
+            int common = commonPrefix(previous, term);
+            for (int d = 1; d <= common; d++) {
+                termTo[path[d]] = id + 1;
+            }
+            for (int d = common; d < term.length(); d++) {
+                int node = nodes++;
+                labels[node] = term.charAt(d);
+                firstChild[node] = NO_NODE;
+                nextSibling[node] = NO_NODE;
+                lastChild[node] = NO_NODE;
+                termAt[node] = NO_NODE;
+                termFrom[node] = id;
+                termTo[node] = id + 1;
+                int parent = path[d];
+                if (lastChild[parent] == NO_NODE) {
+                    firstChild[parent] = node;
+                } else {
+                    nextSibling[lastChild[parent]] = node;
+                }
+                lastChild[parent] = node;
+                path[d + 1] = node;
+            }
+            termAt[path[term.length()]] = id;
+            previous = term;
+        }
+        return new NameTrie(documents, postings, Arrays.copyOf(labels, nodes), Arrays.copyOf(firstChild, nodes),
+                Arrays.copyOf(nextSibling, nodes), Arrays.copyOf(termAt, nodes), Arrays.copyOf(termFrom, nodes),
+                Arrays.copyOf(termTo, nodes), maxDepth);
+    }
+
+    /**
+     * Edit distance allowed for a query word: none up to 2 characters, one
+     * up to 5 and two beyond, so short words do not match everything.
+     */
+    public static int maxEdits(String token) {
+        if (token.length() <= 2) {
+            return 0;
+        }
+        return token.length() <= 5 ? 1 : 2;
+    }
+
+    /**
+     * Number of distinct words.
+     */
+    public int size() {
+        return postings.length;
+    }
+
+    /**
+     * Accepted documents matching every query word, best match first;
+     * documents with the same score are ordered by position.
+     *
+     * @param tokens Normalized query words, see {@link NameTokenizer}
+     * @param accept Documents that may be returned
+     * @return Positions ordered by score, freshly allocated
+     */
+    public int[] search(List<String> tokens, IntPredicate accept) {
+        // Rarest word first, so the running intersection is small from the start
+        TermHits[] words = tokens.stream().map(this::match).toArray(TermHits[]::new);
+        Arrays.sort(words, (a, b) -> Long.compare(a.postings, b.postings));
+        Matches matches = null;
+        for (TermHits word : words) {
+            if (matches != null && (long) matches.size() * word.size * SPARSE_RATIO < word.postings) {
+                matches = probe(matches, word);
+            } else {
+                Matches next = word.postings * SPARSE_RATIO < documents ? sparse(word) : dense(word);
+                matches = matches == null ? next : matches.intersect(next);
+            }
+            if (matches.size() == 0) {
+                break;
+            }
+        }
+        return matches == null ? new int[0] : matches.rank(accept);
+    }
+
+    /**
+     * Terms one query word reaches, with their scores; no postings are read.
+     */
+    private TermHits match(String token) {
+        LevenshteinAutomaton automaton = new LevenshteinAutomaton(token, maxEdits(token));
+        int[][] states = new int[maxDepth + 1][automaton.stateSize()];
+        automaton.start(states[0]);
+        TermHits hits = new TermHits();
+        visit(ROOT, 0, automaton, states, hits);
+        return hits;
+    }
+
+    private void visit(int node, int depth, LevenshteinAutomaton automaton, int[][] states, TermHits hits) {
+        for (int child = firstChild[node]; child != NO_NODE; child = nextSibling[child]) {
+            int[] state = states[depth + 1];
+            if (!automaton.step(states[depth], labels[child], state)) {
+                continue;
+            }
+            int distance = automaton.distance(state);
+            int term = termAt[child];
+            // The child's own term is the first in its range, every other term continues it
+            int rest = term != NO_NODE ? termFrom[child] + 1 : termFrom[child];
+            if (distance == 0) {
+                // Nothing below can beat an exact prefix
+                if (term != NO_NODE) {
+                    hits.add(term, EXACT);
+                }
+                hits.addRange(rest, termTo[child], PREFIX);
+                continue;
+            }
+            if (distance <= automaton.maxEdits()) {
+                if (term != NO_NODE) {
+                    hits.add(term, FUZZY + distance);
+                }
+                hits.addRange(rest, termTo[child], FUZZY_PREFIX + distance);
+            }
+            visit(child, depth + 1, automaton, states, hits);
+        }
+    }
+
+    /**
+     * Best score per document for a rare word: hits packed as
+     * {@code position << 8 | score} and sorted, so each position's best
+     * score comes first.
+     */
+    private Matches sparse(TermHits word) {
+        long[] packed = new long[(int) word.postings];
+        int size = 0;
+        for (int i = 0; i < word.size; i++) {
+            long score = word.scores[i];
+            for (int doc : postings[word.terms[i]]) {
+                packed[size++] = ((long) doc << 8) | score;
+            }
+        }
+        Arrays.sort(packed);
+        int[] positions = new int[size];
+        int[] scores = new int[size];
+        int count = 0;
+        for (long hit : packed) {
+            int position = (int) (hit >>> 8);
+            if (count == 0 || positions[count - 1] != position) {
+                positions[count] = position;
+                scores[count++] = (int) (hit & 0xFF);
+            }
+        }
+        return new Matches(positions, scores, count);
+    }
+
+    /**
+     * Narrow the matches of the rarer words to documents a common word also
+     * matches, looking each one up in the word's postings instead of reading
+     * them all.
+     */
+    private Matches probe(Matches matches, TermHits word) {
+        int[] positions = new int[matches.size()];
+        int[] scores = new int[matches.size()];
+        int count = 0;
+        for (int i = 0; i < matches.size(); i++) {
+            int position = matches.positions()[i];
+            int best = NO_MATCH;
+            for (int t = 0; t < word.size; t++) {
+                if (word.scores[t] < best && Arrays.binarySearch(postings[word.terms[t]], position) >= 0) {
+                    best = word.scores[t];
+                }
+            }
+            if (best != NO_MATCH) {
+                positions[count] = position;
+                scores[count++] = matches.scores()[i] + best;
+            }
+        }
+        return new Matches(positions, scores, count);
+    }
+
+    /**
+     * Best score per document for a common word, through one byte per document.
+     */
+    private Matches dense(TermHits word) {
+        byte[] best = new byte[documents];
+        Arrays.fill(best, NO_MATCH);
+        for (int i = 0; i < word.size; i++) {
+            int score = word.scores[i];
+            for (int doc : postings[word.terms[i]]) {
+                if (score < best[doc]) {
+                    best[doc] = (byte) score;
+                }
+            }
+        }
+        int capacity = (int) Math.min(word.postings, documents);
+        int[] positions = new int[capacity];
+        int[] scores = new int[capacity];
+        int count = 0;
+        for (int doc = 0; doc < documents; doc++) {
+            if (best[doc] != NO_MATCH) {
+                positions[count] = doc;
+                scores[count++] = best[doc];
+            }
+        }
+        return new Matches(positions, scores, count);
+    }
+
+    private static int commonPrefix(String a, String b) {
+        int length = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < length && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Terms reached by one query word and their scores, with the total length
+     * of their posting lists.
+     */
+    private final class TermHits {
+        private int[] terms = new int[16];
+        private int[] scores = new int[16];
+        private int size;
+        private long postings;
+
+        void add(int term, int score) {
+            if (size == terms.length) {
+                terms = Arrays.copyOf(terms, size * 2);
+                scores = Arrays.copyOf(scores, size * 2);
+            }
+            terms[size] = term;
+            scores[size++] = score;
+            postings += NameTrie.this.postings[term].length;
+        }
+
+        void addRange(int from, int to, int score) {
+            for (int term = from; term < to; term++) {
+                add(term, score);
+            }
+        }
+    }
+
+    /**
+     * Matching positions, ascending, with their scores.
+     */
+    private record Matches(int[] positions, int[] scores, int size) {
+
+        /**
+         * Positions in both, with their scores added up.
+         */
+        Matches intersect(Matches other) {
+            int[] positions = new int[Math.min(size, other.size)];
+            int[] scores = new int[positions.length];
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < size && j < other.size) {
+                if (this.positions[i] < other.positions[j]) {
+                    i++;
+                } else if (this.positions[i] > other.positions[j]) {
+                    j++;
+                } else {
+                    positions[count] = this.positions[i];
+                    scores[count++] = this.scores[i++] + other.scores[j++];
+                }
+            }
+            return new Matches(positions, scores, count);
+        }
+
+        /**
+         * Accepted positions by score with a counting sort; positions are
+         * ascending, so ties keep position order.
+         */
+        int[] rank(IntPredicate accept) {
+            int maxScore = 0;
+            for (int i = 0; i < size; i++) {
+                maxScore = Math.max(maxScore, scores[i]);
+            }
+            int[] offsets = new int[maxScore + 2];
+            boolean[] accepted = new boolean[size];
+            for (int i = 0; i < size; i++) {
+                if (accept.test(positions[i])) {
+                    accepted[i] = true;
+                    offsets[scores[i] + 1]++;
+                }
+            }
+            for (int score = 1; score < offsets.length; score++) {
+                offsets[score] += offsets[score - 1];
+            }
+            int[] ranked = new int[offsets[maxScore + 1]];
+            for (int i = 0; i < size; i++) {
+                if (accepted[i]) {
+                    ranked[offsets[scores[i]]++] = positions[i];
+                }
+            }
+            return ranked;
+        }
+    }
+
+    /**
+     * Positions of one term, collected in document order.
+     */
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int size;
+
+        void add(int doc) {
+            if (size > 0 && docs[size - 1] == doc) {
+                return;
+            }
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(docs, size);
+        }
+    }
+}
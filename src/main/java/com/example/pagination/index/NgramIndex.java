@@ -0,0 +1,117 @@
+package com.example.pagination.index;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Trigram posting-list index for substring matching.
+ * Every document (a snapshot position) is split into overlapping 3-character
+ * grams, and each gram maps to the sorted positions that contain it.
+ * <p>
+ * A term of at least 3 characters can only be contained in a document that
+ * holds all of its trigrams, so intersecting their posting lists yields a
+ * superset of the matches. Callers still verify each candidate against the
+ * normalized value, since trigrams alone do not guarantee contiguity.
+ */
+public final class NgramIndex {
+
+    public static final int GRAM_LENGTH = 3;
+
+    private static final int[] EMPTY = new int[0];
+
+    private final Map<Long, int[]> postings;
+
+    private NgramIndex(Map<Long, int[]> postings) {
+        this.postings = postings;
+    }
+
+    /**
+     * Build an index where document {@code i} consists of {@code fields[f][i]}
+     * for every field. Values are expected to be normalized (lowercase) already;
+     * null values are skipped.
+     */
+    public static NgramIndex build(int documents, String[]... fields) {
+        Map<Long, PostingBuilder> builders = new HashMap<>();
+        for (int doc = 0; doc < documents; doc++) {
+            for (String[] field : fields) {
+                String value = field[doc];
+                if (value == null) {
+                    continue;
+                }
+                for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+                    builders.computeIfAbsent(gram(value, i), k -> new PostingBuilder()).add(doc);
+                }
+            }
+        }
+
+        Map<Long, int[]> postings = new HashMap<>(builders.size() * 4 / 3 + 1);
+        builders.forEach((gram, builder) -> postings.put(gram, builder.toArray()));
+        return new NgramIndex(postings);
+    }
+
+    /**
+     * Find the documents that contain every trigram of the given term.
+     *
+     * @param term Normalized search term
+     * @return Sorted candidate positions, or {@code null} if the term is too
+     *         short to be answered by the index
+     */
+    public int[] candidates(String term) {
+        if (term.length() < GRAM_LENGTH) {
+            return null;
+        }
+
+        int gramCount = term.length() - GRAM_LENGTH + 1;
+        int[][] lists = new int[gramCount][];
+        for (int i = 0; i < gramCount; i++) {
+            int[] posting = postings.get(gram(term, i));
+            if (posting == null) {
+                return EMPTY;
+            }
+            lists[i] = posting;
+        }
+
+        // Intersect from the shortest list so the working set shrinks fastest
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.length, b.length));
+        int[] result = lists[0];
+        for (int i = 1; i < lists.length && result.length > 0; i++) {
+            if (lists[i] != lists[i - 1]) {
+                result = PositionSets.intersect(result, lists[i]);
+            }
+        }
+        return result;
+    }
+
+    public int gramCount() {
+        return postings.size();
+    }
+
+    private static long gram(String value, int offset) {
+        return ((long) value.charAt(offset) << 32)
+                | ((long) value.charAt(offset + 1) << 16)
+                | value.charAt(offset + 2);
+    }
+
+    /**
+     * Growable posting list that ignores repeated additions of the same document.
+     */
+    private static final class PostingBuilder {
+        private int[] docs = new int[4];
+        private int size;
+
+        void add(int doc) {
+            if (size > 0 && docs[size - 1] == doc) {
+                return;
+            }
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(docs, size);
+        }
+    }
+}
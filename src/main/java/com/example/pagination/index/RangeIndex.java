@@ -0,0 +1,122 @@
+package com.example.pagination.index;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.IntPredicate;
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Sorted index over one numeric attribute.
+ * Positions that have a value are kept in ascending value order next to the
+ * sorted values, so an inclusive range maps to one contiguous slice found by
+ * two binary searches. A narrow slice is put back in position order by
+ * sorting it; a wide one by marking its positions in a bitmap and reading
+ * them back, which is linear in the document count.
+ */
+public final class RangeIndex {
+
+    private final int documents;
+    private final int[] order;
+    private final double[] values;
+
+    private RangeIndex(int documents, int[] order, double[] values) {
+        this.documents = documents;
+        this.order = order;
+        this.values = values;
+    }
+
+    /**
+     * Build an index over documents {@code 0..documents-1}; documents for which
+     * {@code present} is false are left out.
+     */
+    public static RangeIndex build(int documents, IntPredicate present, IntToDoubleFunction value) {
+        int[] order = IntStream.range(0, documents)
+                .filter(present)
+                .boxed()
+                .sorted(Comparator.comparingDouble(value::applyAsDouble))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        double[] values = Arrays.stream(order).mapToDouble(value).toArray();
+        return new RangeIndex(documents, order, values);
+    }
+
+    /**
+     * Number of documents with a value in {@code [min, max]}.
+     */
+    public int count(double min, double max) {
+        return Math.max(0, upperBound(max) - lowerBound(min));
+    }
+
+    /**
+     * Documents with a value in {@code [min, max]}.
+     *
+     * @return Sorted positions, freshly allocated
+     */
+    public int[] candidates(double min, double max) {
+        int from = lowerBound(min);
+        int to = upperBound(max);
+        if (from >= to) {
+            return new int[0];
+        }
+        // Sorting costs about log2(count) per position, a bitmap one bit per document
+        if ((long) (to - from) * Long.SIZE < documents) {
+            int[] positions = Arrays.copyOfRange(order, from, to);
+            Arrays.sort(positions);
+            return positions;
+        }
+        long[] marked = new long[(documents + Long.SIZE - 1) / Long.SIZE];
+        for (int i = from; i < to; i++) {
+            marked[order[i] >>> 6] |= 1L << order[i];
+        }
+        int[] positions = new int[to - from];
+        int count = 0;
+        for (int word = 0; word < marked.length; word++) {
+            for (long bits = marked[word]; bits != 0; bits &= bits - 1) {
+                positions[count++] = (word << 6) + Long.numberOfTrailingZeros(bits);
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Number of documents that have a value.
+     */
+    public int size() {
+        return order.length;
+    }
+
+    /**
+     * Index of the first value not below {@code min}.
+     */
+    private int lowerBound(double min) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < min) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Index of the first value above {@code max}.
+     */
+    private int upperBound(double max) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] <= max) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
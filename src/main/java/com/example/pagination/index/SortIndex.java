@@ -0,0 +1,97 @@
+package com.example.pagination.index;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * Precomputed sort permutation over one attribute.
+ * Documents with a value are kept in ascending order, ties in document order,
+ * and each one gets a dense rank so multi-key comparisons are integer
+ * comparisons. Documents without a value sort last in either direction.
+ */
+public final class SortIndex {
+
+    /**
+     * Rank of documents without a value.
+     */
+    public static final int NO_RANK = Integer.MAX_VALUE;
+
+    private final int[] order;
+    private final int[] missing;
+    private final int[] ranks;
+
+    private SortIndex(int[] order, int[] missing, int[] ranks) {
+        this.order = order;
+        this.missing = missing;
+        this.ranks = ranks;
+    }
+
+    /**
+     * Build the permutation of documents {@code 0..documents-1}; documents for
+     * which {@code present} is false are placed after all others.
+     */
+    public static SortIndex build(int documents, IntPredicate present, Comparator<Integer> comparator) {
+        // Stream sorting is stable, so equal values keep document order
+        int[] order = IntStream.range(0, documents)
+                .filter(present)
+                .boxed()
+                .sorted(comparator)
+                .mapToInt(Integer::intValue)
+                .toArray();
+        int[] missing = IntStream.range(0, documents).filter(present.negate()).toArray();
+
+        int[] ranks = new int[documents];
+        Arrays.fill(ranks, NO_RANK);
+        int rank = 0;
+        for (int i = 0; i < order.length; i++) {
+            if (i > 0 && comparator.compare(order[i - 1], order[i]) != 0) {
+                rank++;
+            }
+            ranks[order[i]] = rank;
+        }
+        return new SortIndex(order, missing, ranks);
+    }
+
+    /**
+     * Dense rank of the document, or {@link #NO_RANK} if it has no value.
+     */
+    public int rank(int document) {
+        return ranks[document];
+    }
+
+    /**
+     * Visit documents in sorted order until the visitor returns false.
+     * Descending order reverses the values but keeps ties in document order,
+     * and documents without a value always come last.
+     */
+    public void walk(boolean descending, IntPredicate visitor) {
+        if (descending) {
+            int end = order.length - 1;
+            while (end >= 0) {
+                int start = end;
+                while (start > 0 && ranks[order[start - 1]] == ranks[order[end]]) {
+                    start--;
+                }
+                for (int i = start; i <= end; i++) {
+                    if (!visitor.test(order[i])) {
+                        return;
+                    }
+                }
+                end = start - 1;
+            }
+        } else {
+            for (int document : order) {
+                if (!visitor.test(document)) {
+                    return;
+                }
+            }
+        }
+        for (int document : missing) {
+            if (!visitor.test(document)) {
+                return;
+            }
+        }
+    }
+}
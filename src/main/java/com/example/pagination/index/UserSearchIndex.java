@@ -0,0 +1,68 @@
+package com.example.pagination.index;
+
+import java.util.function.IntFunction;
+
+/**
+ * Search structures built once per snapshot.
+ * Holds the lowercase form of every searchable field so requests never
+ * normalize user data, plus trigram indexes for substring lookups.
+ */
+public final class UserSearchIndex {
+
+    private final String[] firstNames;
+    private final String[] lastNames;
+    private final String[] usernames;
+    private final NgramIndex nameIndex;
+    private final NgramIndex usernameIndex;
+
+    private UserSearchIndex(String[] firstNames, String[] lastNames, String[] usernames) {
+        this.firstNames = firstNames;
+        this.lastNames = lastNames;
+        this.usernames = usernames;
+        this.nameIndex = NgramIndex.build(firstNames.length, firstNames, lastNames);
+        this.usernameIndex = NgramIndex.build(usernames.length, usernames);
+    }
+
+    /**
+     * Build the index over {@code size} positions, reading each searchable
+     * field through the given accessors.
+     */
+    public static UserSearchIndex build(int size, IntFunction<String> firstName, IntFunction<String> lastName,
+            IntFunction<String> username) {
+        String[] firstNames = new String[size];
+        String[] lastNames = new String[size];
+        String[] usernames = new String[size];
+        for (int i = 0; i < size; i++) {
+            firstNames[i] = normalize(firstName.apply(i));
+            lastNames[i] = normalize(lastName.apply(i));
+            usernames[i] = normalize(username.apply(i));
+        }
+        return new UserSearchIndex(firstNames, lastNames, usernames);
+    }
+
+    /**
+     * Candidate positions for a name term, or null if the index cannot narrow it.
+     */
+    public int[] nameCandidates(String term) {
+        return nameIndex.candidates(term);
+    }
+
+    /**
+     * Candidate positions for a username term, or null if the index cannot narrow it.
+     */
+    public int[] usernameCandidates(String term) {
+        return usernameIndex.candidates(term);
+    }
+
+    public boolean nameContains(int position, String term) {
+        return firstNames[position].contains(term) || lastNames[position].contains(term);
+    }
+
+    public boolean usernameContains(int position, String term) {
+        return usernames[position].contains(term);
+    }
+
+    private static String normalize(String value) {
+        return value != null ? value.toLowerCase() : "";
+    }
+}
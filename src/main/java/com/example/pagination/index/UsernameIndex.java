@@ -0,0 +1,54 @@
+package com.example.pagination.index;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Exact-match index from username to position, for point lookups.
+ * Usernames are compared case-insensitively, like the username filter; if two
+ * users share a username, the first position wins.
+ */
+public final class UsernameIndex {
+
+    /**
+     * Position reported for usernames that are not in the index.
+     */
+    public static final int NOT_FOUND = -1;
+
+    private final Map<String, Integer> positions;
+
+    private UsernameIndex(Map<String, Integer> positions) {
+        this.positions = positions;
+    }
+
+    /**
+     * Build an index where document {@code i} has username
+     * {@code username.apply(i)}; null usernames are left out.
+     */
+    public static UsernameIndex build(int documents, IntFunction<String> username) {
+        Map<String, Integer> positions = HashMap.newHashMap(documents);
+        for (int doc = 0; doc < documents; doc++) {
+            String value = username.apply(doc);
+            if (value != null) {
+                positions.putIfAbsent(normalize(value), doc);
+            }
+        }
+        return new UsernameIndex(Map.copyOf(positions));
+    }
+
+    /**
+     * Position of the user with the given username.
+     *
+     * @return Position, or {@link #NOT_FOUND}
+     */
+    public int position(String username) {
+        Integer position = username != null ? positions.get(normalize(username)) : null;
+        return position != null ? position : NOT_FOUND;
+    }
+
+    private static String normalize(String username) {
+        return username.trim().toLowerCase(Locale.ROOT);
+    }
+}
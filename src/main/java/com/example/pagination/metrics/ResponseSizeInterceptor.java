@@ -0,0 +1,134 @@
+package com.example.pagination.metrics;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Counts the bytes of every upstream response body as it is read and reports
+ * the total to {@link UserMetrics} when the body is closed.
+ */
+@RequiredArgsConstructor
+public class ResponseSizeInterceptor implements ClientHttpRequestInterceptor {
+
+    private final UserMetrics metrics;
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        return new CountingResponse(execution.execute(request, body));
+    }
+
+    private final class CountingResponse implements ClientHttpResponse {
+        private final ClientHttpResponse delegate;
+        private CountingInputStream body;
+
+        CountingResponse(ClientHttpResponse delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                body = new CountingInputStream(delegate.getBody());
+            }
+            return body;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public void close() {
+            if (body != null) {
+                body.report();
+            }
+            delegate.close();
+        }
+    }
+
+    /**
+     * Counts bytes read, rewinding the count on reset so a peek at the start
+     * of the body is not counted twice.
+     */
+    private final class CountingInputStream extends FilterInputStream {
+        private long count;
+        private long markedCount;
+        private boolean reported;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+
+        @Override
+        public synchronized void mark(int readLimit) {
+            super.mark(readLimit);
+            markedCount = count;
+        }
+
+        @Override
+        public synchronized void reset() throws IOException {
+            super.reset();
+            count = markedCount;
+        }
+
+        @Override
+        public void close() throws IOException {
+            report();
+            super.close();
+        }
+
+        void report() {
+            if (!reported) {
+                reported = true;
+                metrics.recordResponseSize(count);
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.pagination.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import com.example.pagination.snapshot.SnapshotDelta;
+import com.example.pagination.snapshot.UserSnapshot;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Timers and distributions for each stage of serving users: the upstream
+ * fetch, building the snapshot, filtering and slicing the page, plus the
+ * users each refresh changed.
+ * Timers publish histograms so latency percentiles can be computed per stage
+ * in Prometheus and compared with {@code http.server.requests}.
+ */
+@Component
+public class UserMetrics {
+
+    private final MeterRegistry registry;
+    private final Timer snapshotBuild;
+    private final Timer filter;
+    private final Timer paginate;
+    private final DistributionSummary filterMatches;
+    private final DistributionSummary responseSize;
+    private final Counter inserted;
+    private final Counter updated;
+    private final Counter deleted;
+    private final LongAdder fetchBytes = new LongAdder();
+    private final AtomicLong payloadBytes = new AtomicLong();
+    private final AtomicLong records = new AtomicLong();
+
+    public UserMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.snapshotBuild = stageTimer("users.snapshot.build", "Time to build the snapshot and its indexes");
+        this.filter = stageTimer("users.filter", "Time to filter the snapshot on a filter cache miss");
+        this.paginate = stageTimer("users.paginate", "Time to sort and slice one page of filtered users");
+        this.filterMatches = DistributionSummary.builder("users.filter.matches")
+                .description("Number of users matching a filter")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(10_000_000.0)
+                .register(registry);
+        this.responseSize = DistributionSummary.builder("users.upstream.response.size")
+                .description("Size of each upstream response body")
+                .baseUnit("bytes")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1024.0)
+                .maximumExpectedValue(64.0 * 1024 * 1024)
+                .register(registry);
+        this.inserted = changeCounter("inserted");
+        this.updated = changeCounter("updated");
+        this.deleted = changeCounter("deleted");
+        Gauge.builder("users.upstream.payload.size", payloadBytes, AtomicLong::get)
+                .description("Total upstream bytes read by the last successful fetch")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("users.upstream.records", records, AtomicLong::get)
+                .description("Users returned by the last successful fetch")
+                .register(registry);
+    }
+
+    /**
+     * Time a full upstream fetch, tagged with its outcome, and publish the
+     * payload size and the number of users it returned once it succeeds.
+     */
+    public int recordFetch(IntSupplier fetch) {
+        Timer.Sample sample = Timer.start(registry);
+        fetchBytes.reset();
+        String outcome = "error";
+        try {
+            int users = fetch.getAsInt();
+            outcome = "success";
+            records.set(users);
+            payloadBytes.set(fetchBytes.sum());
+            return users;
+        } finally {
+            sample.stop(stageTimerBuilder("users.upstream.fetch", "Time to fetch every user from the upstream")
+                    .tag("outcome", outcome)
+                    .register(registry));
+        }
+    }
+
+    /**
+     * Count one upstream response body towards the current fetch.
+     */
+    public void recordResponseSize(long bytes) {
+        responseSize.record(bytes);
+        fetchBytes.add(bytes);
+    }
+
+    public UserSnapshot recordSnapshotBuild(Supplier<UserSnapshot> build) {
+        return snapshotBuild.record(build);
+    }
+
+    /**
+     * Count the users a refresh inserted, updated and deleted.
+     */
+    public void recordDelta(SnapshotDelta delta) {
+        inserted.increment(delta.inserted());
+        updated.increment(delta.updated());
+        deleted.increment(delta.deleted());
+    }
+
+    /**
+     * Time a filter evaluation and record how many users matched.
+     */
+    public int[] recordFilter(Supplier<int[]> evaluation) {
+        int[] positions = filter.record(evaluation);
+        filterMatches.record(positions.length);
+        return positions;
+    }
+
+    public <T> T recordPaginate(Supplier<T> slice) {
+        return paginate.record(slice);
+    }
+
+    private Counter changeCounter(String change) {
+        return Counter.builder("users.snapshot.changes")
+                .description("Users changed by snapshot loads, compared with the previous snapshot")
+                .tag("change", change)
+                .register(registry);
+    }
+
+    private Timer stageTimer(String name, String description) {
+        return stageTimerBuilder(name, description).register(registry);
+    }
+
+    private static Timer.Builder stageTimerBuilder(String name, String description) {
+        return Timer.builder(name)
+                .description(description)
+                .publishPercentileHistogram();
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.pagination.projection;
+
+import java.io.IOException;
+
+import com.example.pagination.model.User;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.databind.util.NameTransformer;
+
+/**
+ * A user paired with the projection to serialize it with.
+ * Only the projected fields are written.
+ */
+@JsonSerialize(using = ProjectedUser.Serializer.class)
+public record ProjectedUser(User user, UserProjection projection) {
+
+    static class Serializer extends StdSerializer<ProjectedUser> {
+
+        Serializer() {
+            super(ProjectedUser.class);
+        }
+
+        @Override
+        public void serialize(ProjectedUser value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            value.projection().writeFields(value.user(), gen, provider);
+            gen.writeEndObject();
+        }
+
+        /**
+         * Fields only, for {@code @JsonUnwrapped} properties such as the user
+         * of a nearby result. Prefixes are not supported.
+         */
+        @Override
+        public JsonSerializer<ProjectedUser> unwrappingSerializer(NameTransformer unwrapper) {
+            return new UnwrappingSerializer();
+        }
+    }
+
+    static class UnwrappingSerializer extends StdSerializer<ProjectedUser> {
+
+        UnwrappingSerializer() {
+            super(ProjectedUser.class);
+        }
+
+        @Override
+        public void serialize(ProjectedUser value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            value.projection().writeFields(value.user(), gen, provider);
+        }
+
+        @Override
+        public boolean isUnwrappingSerializer() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.pagination.projection;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import com.example.pagination.model.User;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Precompiled serializer for a subset of {@link User} fields.
+ * <p>
+ * A projection is compiled once per distinct field list into a tree of
+ * writers, each holding the accessor of one record component. Serializing a
+ * user then walks that tree and writes straight to the JsonGenerator, without
+ * building intermediate maps or reflecting per request.
+ * <p>
+ * Fields are record component names, comma-separated, with dots selecting
+ * nested fields, e.g. {@code id,firstName,address.city,company}.
+ */
+public final class UserProjection {
+
+    private static final int MAX_CACHED_PROJECTIONS = 256;
+
+    private static final Cache<String, UserProjection> COMPILED = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_PROJECTIONS)
+            .build();
+
+    private final String fields;
+    private final FieldWriter[] writers;
+
+    private UserProjection(String fields, FieldWriter[] writers) {
+        this.fields = fields;
+        this.writers = writers;
+    }
+
+    /**
+     * Get the compiled projection for a field list, compiling it on first use.
+     *
+     * @param fields Comma-separated field paths
+     * @throws IllegalArgumentException if the list is empty or names an unknown field
+     */
+    public static UserProjection of(String fields) {
+        String normalized = normalize(fields);
+        UserProjection cached = COMPILED.getIfPresent(normalized);
+        if (cached != null) {
+            return cached;
+        }
+        // Compile outside the cache so invalid field lists throw to the caller
+        UserProjection compiled = new UserProjection(normalized,
+                compile(User.class, List.of(normalized.split(",")), ""));
+        COMPILED.put(normalized, compiled);
+        return compiled;
+    }
+
+    /**
+     * The normalized field list: trimmed, de-duplicated and sorted.
+     */
+    public String fields() {
+        return fields;
+    }
+
+    /**
+     * Write the projected fields of the user into the current JSON object.
+     */
+    public void writeFields(User user, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        write(writers, user, gen, provider);
+    }
+
+    private static void write(FieldWriter[] writers, Object target, JsonGenerator gen, SerializerProvider provider)
+            throws IOException {
+        for (FieldWriter writer : writers) {
+            writer.write(target, gen, provider);
+        }
+    }
+
+    private static String normalize(String fields) {
+        TreeSet<String> paths = new TreeSet<>();
+        if (fields != null) {
+            for (String path : fields.split(",")) {
+                if (!path.isBlank()) {
+                    paths.add(path.trim());
+                }
+            }
+        }
+        if (paths.isEmpty()) {
+            throw new IllegalArgumentException("Fields must name at least one field");
+        }
+        return String.join(",", paths);
+    }
+
+    /**
+     * Compile writers for the given paths of a record type, in declaration order.
+     */
+    private static FieldWriter[] compile(Class<?> type, List<String> paths, String prefix) {
+        Map<String, List<String>> nestedPaths = new LinkedHashMap<>();
+        for (String path : paths) {
+            int dot = path.indexOf('.');
+            String head = dot < 0 ? path : path.substring(0, dot);
+            List<String> nested = nestedPaths.computeIfAbsent(head, k -> new ArrayList<>());
+            if (dot < 0) {
+                // The whole field was requested, which wins over any nested selection
+                nested.clear();
+                nested.add(null);
+            } else if (!nested.contains(null)) {
+                nested.add(path.substring(dot + 1));
+            }
+        }
+
+        List<FieldWriter> writers = new ArrayList<>();
+        for (RecordComponent component : type.getRecordComponents()) {
+            List<String> nested = nestedPaths.remove(component.getName());
+            if (nested == null) {
+                continue;
+            }
+            MethodHandle accessor = accessor(component);
+            if (nested.contains(null)) {
+                writers.add(new FieldWriter(component.getName(), accessor, null));
+            } else if (component.getType().isRecord()) {
+                writers.add(new FieldWriter(component.getName(), accessor,
+                        compile(component.getType(), nested, prefix + component.getName() + ".")));
+            } else {
+                throw new IllegalArgumentException("Field '" + prefix + component.getName() + "' has no nested fields");
+            }
+        }
+        if (!nestedPaths.isEmpty()) {
+            throw new IllegalArgumentException("Unknown field '" + prefix + nestedPaths.keySet().iterator().next()
+                    + "'");
+        }
+        return writers.toArray(FieldWriter[]::new);
+    }
+
+    private static MethodHandle accessor(RecordComponent component) {
+        try {
+            return MethodHandles.publicLookup()
+                    .unreflect(component.getAccessor())
+                    .asType(MethodType.methodType(Object.class, Object.class));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access " + component, e);
+        }
+    }
+
+    /**
+     * Writes one field, either entirely or through a nested projection.
+     */
+    private record FieldWriter(String name, MethodHandle accessor, FieldWriter[] nested) {
+
+        void write(Object target, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            Object value;
+            try {
+                value = (Object) accessor.invokeExact(target);
+            } catch (Throwable e) {
+                throw new IllegalStateException("Cannot read field '" + name + "'", e);
+            }
+
+            if (nested == null || value == null) {
+                provider.defaultSerializeField(name, value, gen);
+                return;
+            }
+            gen.writeObjectFieldStart(name);
+            UserProjection.write(nested, value, gen, provider);
+            gen.writeEndObject();
+        }
+
+        @Override
+        public String toString() {
+            return nested == null ? name : name + Arrays.toString(nested);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.pagination.scheduler;
+
+import java.time.Duration;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.FixedDelayTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+
+import com.example.pagination.config.properties.CacheProperties;
+import com.example.pagination.service.UserCacheService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Refresh-ahead scheduler for the "users" cache.
+ * Reloads the snapshot before the cache entry expires, so no request ever
+ * waits for the upstream on TTL expiry. A failed refresh keeps the current
+ * snapshot and is retried on the next run.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "cache", name = "refresh-ahead", havingValue = "true")
+public class UserCacheRefresher implements SchedulingConfigurer {
+
+    private final UserCacheService userCacheService;
+    private final CacheProperties properties;
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        Duration interval = refreshInterval();
+        log.info("Refresh-ahead enabled for users cache, refreshing every {}s", interval.toSeconds());
+        registrar.addFixedDelayTask(new FixedDelayTask(this::refresh, interval, interval));
+    }
+
+    void refresh() {
+        try {
+            userCacheService.refreshSnapshot();
+        } catch (RuntimeException e) {
+            log.warn("Refresh-ahead of users cache failed, keeping current snapshot: {}", e.getMessage());
+        }
+    }
+
+    private Duration refreshInterval() {
+        long millis = (long) (properties.getTtlSeconds() * 1000L * properties.getRefreshAheadRatio());
+        return Duration.ofMillis(Math.max(1000L, millis));
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.pagination.scheduler;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+import com.example.pagination.cache.SnapshotStore;
+import com.example.pagination.service.UserCacheService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Warm start of the "users" cache from the persisted snapshot.
+ * The stored snapshot is served right away and revalidated against the
+ * external API in the background; if the upstream is unavailable the restored
+ * snapshot stays in place until the next refresh.
+ * <p>
+ * Revalidation runs on the application task executor, the one behind
+ * {@code @Async}, so it uses virtual threads whenever
+ * {@code spring.threads.virtual.enabled} is set.
+ */
+@Slf4j
+@Component
+public class UserCacheWarmer implements ApplicationRunner {
+
+    private final UserCacheService userCacheService;
+    private final SnapshotStore snapshotStore;
+    private final TaskExecutor taskExecutor;
+
+    public UserCacheWarmer(UserCacheService userCacheService, SnapshotStore snapshotStore,
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) TaskExecutor taskExecutor) {
+        this.userCacheService = userCacheService;
+        this.snapshotStore = snapshotStore;
+        this.taskExecutor = taskExecutor;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!snapshotStore.isEnabled() || userCacheService.restoreSnapshot() == null) {
+            return;
+        }
+        taskExecutor.execute(this::revalidate);
+    }
+
+    void revalidate() {
+        try {
+            userCacheService.refreshSnapshot();
+        } catch (RuntimeException e) {
+            log.warn("Revalidation of restored users snapshot failed, keeping it: {}", e.getMessage());
+        }
+    }
+}
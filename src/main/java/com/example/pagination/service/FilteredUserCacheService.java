@@ -0,0 +1,51 @@
+package com.example.pagination.service;
+
+import com.example.pagination.dto.GeoQuery;
+import com.example.pagination.dto.NameQuery;
+import com.example.pagination.dto.UserFilter;
+import com.example.pagination.snapshot.UserSnapshot;
+
+/**
+ * Service interface for cached filter results.
+ * Lets paging through one filtered view reuse the filter result instead of
+ * re-running the specifications on every page.
+ */
+public interface FilteredUserCacheService {
+
+    /**
+     * Get the positions of the snapshot users matching the filter, with caching.
+     * The cache key combines the snapshot version with the normalized filter.
+     *
+     * @param snapshot Snapshot to filter
+     * @param filter   Normalized filter
+     * @return Matching positions in upstream order. Shared, callers must not
+     *         modify it.
+     */
+    int[] getMatchingPositions(UserSnapshot snapshot, UserFilter filter);
+
+    /**
+     * Get the positions of the snapshot users matching the filter and the
+     * proximity query, nearest first, with caching. The cache key adds the
+     * proximity query to the snapshot version and filter.
+     *
+     * @param snapshot Snapshot to search
+     * @param filter   Normalized filter
+     * @param near     Point, radius and nearest limit
+     * @return Matching positions ordered by distance. Shared, callers must not
+     *         modify it.
+     */
+    int[] getNearbyPositions(UserSnapshot snapshot, UserFilter filter, GeoQuery near);
+
+    /**
+     * Get the positions of the snapshot users matching the filter and the
+     * name search, best match first, with caching. The cache key adds the
+     * search to the snapshot version and filter.
+     *
+     * @param snapshot Snapshot to search
+     * @param filter   Normalized filter
+     * @param search   Normalized search words
+     * @return Matching positions ordered by match quality. Shared, callers
+     *         must not modify it.
+     */
+    int[] getSearchPositions(UserSnapshot snapshot, UserFilter filter, NameQuery search);
+}
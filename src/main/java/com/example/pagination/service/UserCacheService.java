@@ -1,8 +1,10 @@
 package com.example.pagination.service;
 
-import java.util.List;
+import java.time.Duration;
+import java.util.Optional;
 
-import com.example.pagination.model.User;
+import com.example.pagination.snapshot.SnapshotDelta;
+import com.example.pagination.snapshot.UserSnapshot;
 
 /**
  * Service interface for cached user data operations.
@@ -11,10 +13,53 @@ import com.example.pagination.model.User;
 public interface UserCacheService {
 
     /**
-     * Fetch all users with caching.
-     * This method is cached to avoid repeated calls to external API.
+     * Fetch the indexed snapshot of all users with caching.
+     * This method is cached to avoid repeated calls to external API, and the
+     * snapshot indexes are built once per cache refresh.
      * 
-     * @return List of all users
+     * @return Snapshot of all users
      */
-    List<User> getAllUsers();
+    UserSnapshot getSnapshot();
+
+    /**
+     * Reload the snapshot from the external API and replace the cached entry.
+     * Readers keep getting the previous snapshot until the new one is ready.
+     *
+     * @return The freshly loaded snapshot
+     */
+    UserSnapshot refreshSnapshot();
+
+    /**
+     * Load the snapshot persisted by a previous run into the cache, without
+     * contacting the external API. A snapshot loaded longer ago than the TTL
+     * is only kept as the stale fallback.
+     *
+     * @return The restored snapshot, or {@code null} if none is available
+     */
+    UserSnapshot restoreSnapshot();
+
+    /**
+     * Age of the snapshot being served because the latest load failed.
+     *
+     * @return Time since that snapshot was loaded, or empty if the latest load
+     *         succeeded
+     */
+    Optional<Duration> staleAge();
+
+    /**
+     * Time until the cached snapshot expires, measured from when it was
+     * loaded.
+     *
+     * @return Remaining time to live, or zero if the snapshot is stale or none
+     *         has been loaded yet
+     */
+    Duration remainingTtl();
+
+    /**
+     * Users inserted, updated and deleted by the last successful load,
+     * compared with the snapshot it replaced.
+     *
+     * @return Changes of the last load, or empty if nothing was loaded yet
+     */
+    Optional<SnapshotDelta> lastDelta();
 }
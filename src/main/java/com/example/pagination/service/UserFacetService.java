@@ -0,0 +1,23 @@
+package com.example.pagination.service;
+
+import com.example.pagination.dto.FacetsResponse;
+import com.example.pagination.dto.UserFilter;
+import com.example.pagination.snapshot.UserSnapshot;
+
+/**
+ * Service interface for cached facet counts.
+ */
+public interface UserFacetService {
+
+    /**
+     * Count the users matching the filter by role, blood group, department,
+     * state and age bucket, with caching. The cache key combines the snapshot
+     * version with the normalized filter and the bucket size.
+     *
+     * @param snapshot      Snapshot to count
+     * @param filter        Normalized filter
+     * @param ageBucketSize Width of each age bucket in years
+     * @return Facet counts over the matching users
+     */
+    FacetsResponse getFacets(UserSnapshot snapshot, UserFilter filter, int ageBucketSize);
+}
@@ -1,6 +1,18 @@
 package com.example.pagination.service;
 
+import java.time.Duration;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import com.example.pagination.dto.CursorPaginationResponse;
+import com.example.pagination.dto.FacetsResponse;
+import com.example.pagination.dto.GeoQuery;
+import com.example.pagination.dto.NameQuery;
+import com.example.pagination.dto.NearbyUser;
 import com.example.pagination.dto.PaginationResponse;
+import com.example.pagination.dto.UserBatchRequest;
+import com.example.pagination.dto.UserBatchResponse;
+import com.example.pagination.dto.UserFilter;
 import com.example.pagination.dto.UserQuery;
 import com.example.pagination.model.User;
 
@@ -18,4 +30,103 @@ public interface UserService {
      * @throws IllegalArgumentException if query parameters are invalid
      */
     PaginationResponse<User> getUsers(UserQuery query);
+
+    /**
+     * Get the page of users that follows a keyset cursor, in ascending id order.
+     * Unlike offset paging, results do not shift when the snapshot changes
+     * between requests.
+     *
+     * @param query  Query object containing filter parameters and page size
+     * @param cursor Cursor from a previous response, or null/blank for the first page
+     * @return Page of users with the cursor for the next page
+     * @throws IllegalArgumentException if the cursor is malformed or was issued
+     *                                  for different filters
+     */
+    CursorPaginationResponse<User> getUsersAfter(UserQuery query, String cursor);
+
+    /**
+     * Get paginated users near a point, nearest first, with their distance.
+     * Only users with coordinates are returned.
+     *
+     * @param query Query object containing pagination and filter parameters
+     * @param near  Point, optional radius and optional nearest limit
+     * @return Paginated response of users with their distance in kilometres
+     * @throws IllegalArgumentException if the query also asks for a sort order
+     */
+    PaginationResponse<NearbyUser<User>> getNearbyUsers(UserQuery query, GeoQuery near);
+
+    /**
+     * Get paginated users matching a name search, best match first: exact
+     * words, then prefixes, then matches with typos.
+     *
+     * @param query  Query object containing pagination and filter parameters
+     * @param search Normalized search words
+     * @return Paginated response of matching users
+     * @throws IllegalArgumentException if the query also asks for a sort order
+     */
+    PaginationResponse<User> searchUsers(UserQuery query, NameQuery search);
+
+    /**
+     * Get a single user by id, found by hash lookup in the snapshot.
+     *
+     * @param id User id
+     * @return The user
+     * @throws com.example.pagination.exception.UserNotFoundException if no user has the id
+     */
+    User getUser(long id);
+
+    /**
+     * Get users by id and by exact username, case-insensitive, each found by
+     * hash lookup in the snapshot.
+     *
+     * @param request Ids and usernames to look up
+     * @return Users found, in request order, and the keys that matched nobody
+     * @throws IllegalArgumentException if the request has too many or blank keys
+     */
+    UserBatchResponse<User> getUsersByKeys(UserBatchRequest request);
+
+    /**
+     * Stream every user matching the filter, in upstream order.
+     * The snapshot is resolved immediately, but users are filtered lazily as
+     * the stream is consumed, so no result list is materialized.
+     *
+     * @param filter Normalized filter
+     * @return Lazy stream of matching users
+     */
+    Stream<User> streamUsers(UserFilter filter);
+
+    /**
+     * Count the users matching the filter by role, blood group, department,
+     * state and age bucket.
+     *
+     * @param filter        Normalized filter
+     * @param ageBucketSize Width of each age bucket in years
+     * @return Facet counts over the matching users
+     * @throws IllegalArgumentException if the bucket size is out of range
+     */
+    FacetsResponse getFacets(UserFilter filter, int ageBucketSize);
+
+    /**
+     * Age of the data being served if the external API is failing and the
+     * last good snapshot is used instead.
+     *
+     * @return Age of the stale data, or empty if the data is current
+     */
+    Optional<Duration> staleAge();
+
+    /**
+     * Version of the snapshot requests are currently served from, loading it
+     * first if the cache is cold. Responses built from the same snapshot for
+     * the same query are identical.
+     *
+     * @return Content-derived snapshot version
+     */
+    long snapshotVersion();
+
+    /**
+     * Time until the cached snapshot expires.
+     *
+     * @return Remaining time to live, zero while stale data is served
+     */
+    Duration remainingTtl();
 }
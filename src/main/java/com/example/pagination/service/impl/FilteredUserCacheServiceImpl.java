@@ -0,0 +1,63 @@
+package com.example.pagination.service.impl;
+
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import com.example.pagination.dto.GeoQuery;
+import com.example.pagination.dto.NameQuery;
+import com.example.pagination.dto.UserFilter;
+import com.example.pagination.metrics.UserMetrics;
+import com.example.pagination.service.FilteredUserCacheService;
+import com.example.pagination.snapshot.UserSnapshot;
+import com.example.pagination.specification.UserSpecificationFactory;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Implementation of FilteredUserCacheService with caching.
+ * Results are held as compact int[] positions in the "filteredUsers" cache,
+ * which is bounded by weight and cleared whenever the "users" cache refreshes.
+ * Unfiltered queries are not cached since they map to every position.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FilteredUserCacheServiceImpl implements FilteredUserCacheService {
+
+    private final UserMetrics metrics;
+
+    @Cacheable(value = "filteredUsers", key = "{#snapshot.version(), #filter}", condition = "#filter.isActive()")
+    @Override
+    public int[] getMatchingPositions(UserSnapshot snapshot, UserFilter filter) {
+        if (!filter.isActive()) {
+            return snapshot.allPositions();
+        }
+        log.debug("Filter cache miss - filtering snapshot {} with {}", snapshot.version(), filter);
+        return metrics.recordFilter(() -> UserSpecificationFactory.filter(snapshot, filter));
+    }
+
+    /**
+     * Searches the snapshot's spatial index; the filter is only checked for
+     * users the search reaches, so its matches are never listed in full.
+     */
+    @Cacheable(value = "filteredUsers", key = "{#snapshot.version(), #filter, #near}")
+    @Override
+    public int[] getNearbyPositions(UserSnapshot snapshot, UserFilter filter, GeoQuery near) {
+        log.debug("Proximity cache miss - searching snapshot {} with {} and {}", snapshot.version(), near, filter);
+        return metrics.recordFilter(() -> snapshot.geoIndex().nearest(near.latitude(), near.longitude(),
+                near.limit(), near.maxDistanceKm(), UserSpecificationFactory.matcher(snapshot, filter)));
+    }
+
+    /**
+     * Searches the snapshot's name trie; as with proximity, the filter is only
+     * checked for users the search matches.
+     */
+    @Cacheable(value = "filteredUsers", key = "{#snapshot.version(), #filter, #search}")
+    @Override
+    public int[] getSearchPositions(UserSnapshot snapshot, UserFilter filter, NameQuery search) {
+        log.debug("Search cache miss - searching snapshot {} with {} and {}", snapshot.version(), search, filter);
+        return metrics.recordFilter(() -> snapshot.nameTrie().search(search.terms(),
+                UserSpecificationFactory.matcher(snapshot, filter)));
+    }
+}
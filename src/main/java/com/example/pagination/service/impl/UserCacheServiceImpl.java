@@ -1,13 +1,23 @@
 package com.example.pagination.service.impl;
 
-import java.util.List;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
+import com.example.pagination.cache.SingleFlight;
+import com.example.pagination.cache.SnapshotStore;
 import com.example.pagination.client.ExternalApiClient;
-import com.example.pagination.model.User;
+import com.example.pagination.config.properties.CacheProperties;
+import com.example.pagination.exception.ExternalApiException;
+import com.example.pagination.metrics.UserMetrics;
 import com.example.pagination.service.UserCacheService;
+import com.example.pagination.snapshot.SnapshotDelta;
+import com.example.pagination.snapshot.UserSnapshot;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -15,28 +25,153 @@ import lombok.extern.slf4j.Slf4j;
 /**
  * Implementation of UserCacheService with caching.
  * This service is responsible for caching all users from external API.
+ * Concurrent cache misses and refreshes share a single upstream load, and
+ * every loaded snapshot is persisted for warm restarts. With delta refresh,
+ * each load is diffed against the last good snapshot so unchanged users do
+ * not cost an index rebuild. When a load fails the last good snapshot is
+ * served instead, marked as stale.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class UserCacheServiceImpl implements UserCacheService {
 
+    private static final String SNAPSHOT_KEY = "users";
+
     private final ExternalApiClient externalApiClient;
+    private final SingleFlight<String, UserSnapshot> snapshotLoads;
+    private final UserMetrics metrics;
+    private final SnapshotStore snapshotStore;
+    private final CacheProperties properties;
+
+    /**
+     * Most recent snapshot that loaded successfully, served when a load fails.
+     */
+    private volatile LoadedSnapshot lastGood;
+    private volatile boolean stale;
+    private volatile SnapshotDelta lastDelta;
 
     /**
-     * Fetch all users from external API with caching.
+     * Fetch all users from external API with caching and index them.
      * Cache is managed by Spring Cache with TTL configured in application.yaml
      * 
      * IMPORTANT: This method is in a separate service to ensure Spring Cache proxy
      * works correctly.
      * Self-invocation within the same class would bypass the cache proxy.
      */
-    @Cacheable(value = "users", unless = "#result == null")
+    @Cacheable(value = "users", unless = "#result == null || #root.target.staleAge().isPresent()")
     @Override
-    public List<User> getAllUsers() {
+    public UserSnapshot getSnapshot() {
         log.info("🔴 CACHE MISS - Fetching all users from external API");
-        List<User> users = externalApiClient.fetchAllUsers();
-        log.info("✅ Successfully fetched {} users from external API", users.size());
-        return users;
+        return loadSnapshot();
+    }
+
+    /**
+     * Reload all users and overwrite the cached snapshot.
+     * Uses the same (empty) cache key as {@link #getSnapshot()}; the entry is
+     * only replaced once the new snapshot is fully built. Cached filter results
+     * and facet counts belong to the previous snapshot and are dropped, unless
+     * the load changed nothing and the previous snapshot is kept.
+     */
+    @CachePut(value = "users", unless = "#result == null || #root.target.staleAge().isPresent()")
+    @CacheEvict(value = { "filteredUsers", "userFacets" }, allEntries = true,
+            condition = "#root.target.lastDelta().isEmpty() || #root.target.lastDelta().get().changed()")
+    @Override
+    public UserSnapshot refreshSnapshot() {
+        log.info("🔄 CACHE REFRESH - Reloading all users from external API");
+        return loadSnapshot();
+    }
+
+    /**
+     * Seed the cache from the persisted snapshot, if there is a usable one.
+     * Leaves the cache untouched otherwise, so the first request loads from
+     * the external API as usual. The snapshot keeps its original load time; one
+     * older than the TTL is not cached but kept as the stale fallback.
+     */
+    @CachePut(value = "users", unless = "#result == null || #root.target.staleAge().isPresent()")
+    @Override
+    public UserSnapshot restoreSnapshot() {
+        SnapshotStore.StoredSnapshot restored = snapshotStore.load().orElse(null);
+        if (restored == null) {
+            return null;
+        }
+        UserSnapshot snapshot = restored.snapshot();
+        Duration age = Duration.between(restored.loadedAt(), Instant.now());
+        log.info("💾 CACHE RESTORE - Loaded {} users from snapshot file, loaded {}s ago", snapshot.size(),
+                age.toSeconds());
+        lastGood = new LoadedSnapshot(snapshot, restored.loadedAt());
+        stale = age.compareTo(Duration.ofSeconds(properties.getTtlSeconds())) >= 0;
+        return snapshot;
+    }
+
+    @Override
+    public Optional<Duration> staleAge() {
+        LoadedSnapshot served = lastGood;
+        if (!stale || served == null) {
+            return Optional.empty();
+        }
+        return Optional.of(Duration.between(served.loadedAt(), Instant.now()));
+    }
+
+    @Override
+    public Optional<SnapshotDelta> lastDelta() {
+        return Optional.ofNullable(lastDelta);
+    }
+
+    /**
+     * Counted from the last successful load, which happens just before the
+     * entry is written, so this never overstates the entry's remaining TTL.
+     */
+    @Override
+    public Duration remainingTtl() {
+        LoadedSnapshot served = lastGood;
+        if (stale || served == null) {
+            return Duration.ZERO;
+        }
+        Duration remaining = Duration.ofSeconds(properties.getTtlSeconds())
+                .minus(Duration.between(served.loadedAt(), Instant.now()));
+        return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+
+    /**
+     * Load through the single-flight, falling back to the last good snapshot
+     * when the upstream fails. A fallback is never cached, so the next request
+     * tries the upstream again; while the circuit is open that attempt fails
+     * immediately.
+     */
+    private UserSnapshot loadSnapshot() {
+        try {
+            return snapshotLoads.execute(SNAPSHOT_KEY, () -> {
+                // Users are columnized as they are read, the response is never held whole
+                UserSnapshot.Builder builder = UserSnapshot.builder();
+                int fetched = externalApiClient.fetchAllUsers(builder);
+                log.info("✅ Successfully fetched {} users from external API", fetched);
+                LoadedSnapshot current = lastGood;
+                UserSnapshot previous = properties.isDeltaRefresh() && current != null ? current.snapshot() : null;
+                UserSnapshot snapshot = metrics.recordSnapshotBuild(() -> builder.build(previous));
+                SnapshotDelta delta = builder.delta();
+                metrics.recordDelta(delta);
+                log.info("Snapshot {} - {}", snapshot == previous ? "unchanged" : "rebuilt", delta);
+                Instant loadedAt = Instant.now();
+                snapshotStore.save(snapshot, loadedAt);
+                lastDelta = delta;
+                lastGood = new LoadedSnapshot(snapshot, loadedAt);
+                stale = false;
+                log.debug("Snapshot loads: {}, coalesced waiters: {}",
+                        snapshotLoads.loads(), snapshotLoads.coalescedWaiters());
+                return snapshot;
+            });
+        } catch (ExternalApiException e) {
+            LoadedSnapshot fallback = lastGood;
+            if (fallback == null) {
+                throw e;
+            }
+            stale = true;
+            log.warn("⚠️ STALE SNAPSHOT - Serving users loaded at {}: {}", fallback.loadedAt(), e.getMessage());
+            return fallback.snapshot();
+        }
+    }
+
+    private record LoadedSnapshot(UserSnapshot snapshot, Instant loadedAt) {
     }
 }
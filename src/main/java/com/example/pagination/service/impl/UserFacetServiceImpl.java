@@ -0,0 +1,106 @@
+package com.example.pagination.service.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import com.example.pagination.dto.FacetsResponse;
+import com.example.pagination.dto.FacetsResponse.FacetCount;
+import com.example.pagination.dto.UserFilter;
+import com.example.pagination.service.FilteredUserCacheService;
+import com.example.pagination.service.UserFacetService;
+import com.example.pagination.snapshot.DictionaryColumn;
+import com.example.pagination.snapshot.UserColumns;
+import com.example.pagination.snapshot.UserSnapshot;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Implementation of UserFacetService with caching.
+ * Counts every facet in a single pass over the matching positions, using one
+ * {@code int[]} per facet indexed by the column's dictionary code, so no
+ * string is looked at until the counts are turned into a response.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserFacetServiceImpl implements UserFacetService {
+
+    private final FilteredUserCacheService filteredUserCacheService;
+
+    @Cacheable(value = "userFacets", key = "{#snapshot.version(), #filter, #ageBucketSize}")
+    @Override
+    public FacetsResponse getFacets(UserSnapshot snapshot, UserFilter filter, int ageBucketSize) {
+        log.debug("Facet cache miss - counting snapshot {} with {}", snapshot.version(), filter);
+        int[] positions = filteredUserCacheService.getMatchingPositions(snapshot, filter);
+        UserColumns columns = snapshot.columns();
+
+        DictionaryColumn roles = columns.roles();
+        DictionaryColumn bloodGroups = columns.bloodGroups();
+        DictionaryColumn departments = columns.departments();
+        DictionaryColumn states = columns.states();
+        int[] roleCounts = new int[roles.cardinality()];
+        int[] bloodGroupCounts = new int[bloodGroups.cardinality()];
+        int[] departmentCounts = new int[departments.cardinality()];
+        int[] stateCounts = new int[states.cardinality()];
+        int[] ageCounts = new int[120 / ageBucketSize + 1];
+
+        for (int position : positions) {
+            count(roleCounts, roles.code(position));
+            count(bloodGroupCounts, bloodGroups.code(position));
+            count(departmentCounts, departments.code(position));
+            count(stateCounts, states.code(position));
+            if (columns.hasAge(position)) {
+                int bucket = Math.max(0, columns.age(position)) / ageBucketSize;
+                if (bucket >= ageCounts.length) {
+                    ageCounts = Arrays.copyOf(ageCounts, bucket + 1);
+                }
+                ageCounts[bucket]++;
+            }
+        }
+
+        Map<String, List<FacetCount>> facets = new LinkedHashMap<>();
+        facets.put("role", byCount(roles, roleCounts));
+        facets.put("bloodGroup", byCount(bloodGroups, bloodGroupCounts));
+        facets.put("department", byCount(departments, departmentCounts));
+        facets.put("state", byCount(states, stateCounts));
+        facets.put("age", byBucket(ageCounts, ageBucketSize));
+        return new FacetsResponse(positions.length, facets);
+    }
+
+    private static void count(int[] counts, int code) {
+        if (code != DictionaryColumn.NO_CODE) {
+            counts[code]++;
+        }
+    }
+
+    private static List<FacetCount> byCount(DictionaryColumn column, int[] counts) {
+        List<FacetCount> facet = new ArrayList<>();
+        for (int code = 0; code < counts.length; code++) {
+            if (counts[code] > 0) {
+                facet.add(new FacetCount(column.value(code), counts[code]));
+            }
+        }
+        facet.sort(Comparator.comparingInt(FacetCount::count).reversed().thenComparing(FacetCount::value));
+        return facet;
+    }
+
+    private static List<FacetCount> byBucket(int[] counts, int bucketSize) {
+        List<FacetCount> facet = new ArrayList<>();
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            if (counts[bucket] > 0) {
+                int from = bucket * bucketSize;
+                String label = bucketSize == 1 ? Integer.toString(from) : from + "-" + (from + bucketSize - 1);
+                facet.add(new FacetCount(label, counts[bucket]));
+            }
+        }
+        return facet;
+    }
+}
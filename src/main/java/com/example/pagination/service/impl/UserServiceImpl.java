@@ -1,16 +1,38 @@
 package com.example.pagination.service.impl;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import org.springframework.stereotype.Service;
 
+import com.example.pagination.dto.CursorPaginationResponse;
+import com.example.pagination.dto.FacetsResponse;
+import com.example.pagination.dto.GeoQuery;
+import com.example.pagination.dto.NameQuery;
+import com.example.pagination.dto.NearbyUser;
 import com.example.pagination.dto.PaginationResponse;
+import com.example.pagination.dto.UserBatchRequest;
+import com.example.pagination.dto.UserBatchResponse;
+import com.example.pagination.dto.UserCursor;
+import com.example.pagination.dto.UserFilter;
 import com.example.pagination.dto.UserQuery;
+import com.example.pagination.exception.UserNotFoundException;
+import com.example.pagination.metrics.UserMetrics;
 import com.example.pagination.model.User;
+import com.example.pagination.service.FilteredUserCacheService;
 import com.example.pagination.service.UserCacheService;
+import com.example.pagination.service.UserFacetService;
 import com.example.pagination.service.UserService;
-
+import com.example.pagination.snapshot.SortedPositions;
+import com.example.pagination.snapshot.UserSnapshot;
 import com.example.pagination.specification.UserSpecificationFactory;
 
 import lombok.RequiredArgsConstructor;
@@ -25,20 +47,28 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
 
+    /**
+     * Most ids and usernames one batch lookup may ask for.
+     */
+    static final int MAX_BATCH_SIZE = 100;
+
     private final UserCacheService userCacheService;
+    private final FilteredUserCacheService filteredUserCacheService;
+    private final UserFacetService userFacetService;
+    private final UserMetrics metrics;
 
     @Override
     public PaginationResponse<User> getUsers(UserQuery query) {
         log.info("Fetching users - query: {}", query);
 
-        // 1. Fetch all users (Cached)
-        List<User> allUsers = userCacheService.getAllUsers();
+        // 1. Fetch indexed snapshot of all users (Cached)
+        UserSnapshot snapshot = userCacheService.getSnapshot();
 
-        // 2. Filter Users (using Specification Pattern via Factory)
-        List<User> filteredUsers = UserSpecificationFactory.filter(allUsers, query);
-        int totalItems = filteredUsers.size();
+        // 2. Filter Users (using Specification Pattern via Factory and snapshot indexes, Cached)
+        int[] positions = filteredUserCacheService.getMatchingPositions(snapshot, query.filter());
+        int totalItems = positions.length;
 
-        log.debug("Total users after filtering: {} (original: {})", totalItems, allUsers.size());
+        log.debug("Total users after filtering: {} (original: {})", totalItems, snapshot.size());
 
         // 3. Paginate
         int totalPages = (int) Math.ceil((double) totalItems / query.size());
@@ -51,7 +81,7 @@ public class UserServiceImpl implements UserService {
             log.debug("Page {} exceeds total pages {}, returning empty data", query.page(), totalPages);
             pageData = Collections.emptyList();
         } else {
-            pageData = filteredUsers.subList(startIndex, endIndex);
+            pageData = metrics.recordPaginate(() -> slice(snapshot, positions, query, startIndex, endIndex));
             log.debug("Successfully retrieved {} users for page {}", pageData.size(), query.page());
         }
 
@@ -62,4 +92,217 @@ public class UserServiceImpl implements UserService {
                 totalPages,
                 pageData);
     }
+
+    @Override
+    public PaginationResponse<NearbyUser<User>> getNearbyUsers(UserQuery query, GeoQuery near) {
+        log.info("Fetching nearby users - query: {}, near: {}", query, near);
+        if (query.sort().isSorted()) {
+            throw new IllegalArgumentException("sort cannot be combined with near, results are ordered by distance");
+        }
+
+        // 1. Fetch indexed snapshot of all users (Cached)
+        UserSnapshot snapshot = userCacheService.getSnapshot();
+
+        // 2. Search the spatial index, checking filters on the users it reaches (Cached)
+        int[] positions = filteredUserCacheService.getNearbyPositions(snapshot, query.filter(), near);
+        int totalItems = positions.length;
+
+        // 3. Paginate in distance order
+        int totalPages = (int) Math.ceil((double) totalItems / query.size());
+        int startIndex = (query.page() - 1) * query.size();
+        int endIndex = Math.min(startIndex + query.size(), totalItems);
+        List<NearbyUser<User>> pageData = new ArrayList<>(Math.max(0, endIndex - startIndex));
+        for (int i = startIndex; i < endIndex; i++) {
+            double distance = snapshot.distanceKm(positions[i], near.latitude(), near.longitude());
+            pageData.add(new NearbyUser<>(snapshot.user(positions[i]), Math.round(distance * 1000) / 1000.0));
+        }
+
+        log.debug("Successfully retrieved {} of {} nearby users for page {}", pageData.size(), totalItems,
+                query.page());
+        return new PaginationResponse<>(query.page(), query.size(), totalItems, totalPages, pageData);
+    }
+
+    @Override
+    public PaginationResponse<User> searchUsers(UserQuery query, NameQuery search) {
+        log.info("Searching users - query: {}, search: {}", query, search);
+        if (query.sort().isSorted()) {
+            throw new IllegalArgumentException("sort cannot be combined with q, results are ordered by match quality");
+        }
+
+        // 1. Fetch indexed snapshot of all users (Cached)
+        UserSnapshot snapshot = userCacheService.getSnapshot();
+
+        // 2. Search the name trie, checking filters on the users it matches (Cached)
+        int[] positions = filteredUserCacheService.getSearchPositions(snapshot, query.filter(), search);
+        int totalItems = positions.length;
+
+        // 3. Paginate in rank order
+        int totalPages = (int) Math.ceil((double) totalItems / query.size());
+        int startIndex = (query.page() - 1) * query.size();
+        int endIndex = Math.min(startIndex + query.size(), totalItems);
+        List<User> pageData = new ArrayList<>(Math.max(0, endIndex - startIndex));
+        for (int i = startIndex; i < endIndex; i++) {
+            pageData.add(snapshot.user(positions[i]));
+        }
+
+        log.debug("Successfully retrieved {} of {} matching users for page {}", pageData.size(), totalItems,
+                query.page());
+        return new PaginationResponse<>(query.page(), query.size(), totalItems, totalPages, pageData);
+    }
+
+    private static List<User> slice(UserSnapshot snapshot, int[] positions, UserQuery query, int startIndex,
+            int endIndex) {
+        if (query.sort().isSorted()) {
+            // 4. Sort only as far as this page, using the snapshot's cached permutations
+            int[] sorted = SortedPositions.slice(snapshot, query.sort(), positions, startIndex, endIndex);
+            List<User> pageData = new ArrayList<>(sorted.length);
+            for (int position : sorted) {
+                pageData.add(snapshot.user(position));
+            }
+            return pageData;
+        }
+
+        List<User> pageData = new ArrayList<>(endIndex - startIndex);
+        for (int i = startIndex; i < endIndex; i++) {
+            pageData.add(snapshot.user(positions[i]));
+        }
+        return pageData;
+    }
+
+    @Override
+    public CursorPaginationResponse<User> getUsersAfter(UserQuery query, String cursor) {
+        log.info("Fetching users after cursor - query: {}, cursor: '{}'", query, cursor);
+
+        // 1. Fetch indexed snapshot of all users (Cached)
+        UserSnapshot snapshot = userCacheService.getSnapshot();
+
+        // 2. Resume after the last (id, position) seen, located by binary search over the id order
+        int start = 0;
+        if (cursor != null && !cursor.isBlank()) {
+            UserCursor decoded = UserCursor.decode(cursor.trim());
+            if (decoded.filterHash() != query.filterHash()) {
+                throw new IllegalArgumentException("Cursor does not match the current filters");
+            }
+            if (decoded.snapshotVersion() != snapshot.version()) {
+                log.debug("Cursor was issued for snapshot {}, resuming by id in snapshot {}",
+                        decoded.snapshotVersion(), snapshot.version());
+            }
+            start = snapshot.firstAfter(decoded.lastId(), decoded.lastPosition());
+        }
+
+        // 3. Walk forward in id order, filtering only as many users as the page needs
+        IntPredicate matches = UserSpecificationFactory.matcher(snapshot, query);
+        int[] idOrder = snapshot.idOrder();
+        List<User> pageData = new ArrayList<>(query.size());
+        boolean hasMore = false;
+        int lastPosition = -1;
+        for (int i = start; i < idOrder.length; i++) {
+            if (!matches.test(idOrder[i])) {
+                continue;
+            }
+            if (pageData.size() == query.size()) {
+                hasMore = true;
+                break;
+            }
+            pageData.add(snapshot.user(idOrder[i]));
+            lastPosition = idOrder[i];
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            User last = pageData.get(pageData.size() - 1);
+            nextCursor = new UserCursor(last.id(), lastPosition, query.filterHash(), snapshot.version()).encode();
+        }
+
+        log.debug("Successfully retrieved {} users after cursor (has more: {})", pageData.size(), hasMore);
+        return new CursorPaginationResponse<>(query.size(), hasMore, nextCursor, pageData);
+    }
+
+    @Override
+    public User getUser(long id) {
+        log.info("Fetching user - id: {}", id);
+        UserSnapshot snapshot = userCacheService.getSnapshot();
+        int position = snapshot.positionOfId(id);
+        if (position < 0) {
+            throw new UserNotFoundException("No user with id " + id);
+        }
+        return snapshot.user(position);
+    }
+
+    @Override
+    public UserBatchResponse<User> getUsersByKeys(UserBatchRequest request) {
+        log.info("Fetching users by key - ids: {}, usernames: {}", request.ids().size(), request.usernames().size());
+        if (request.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " ids and usernames per batch");
+        }
+        if (request.ids().stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("ids must not contain null");
+        }
+        if (request.usernames().stream().anyMatch(username -> username == null || username.isBlank())) {
+            throw new IllegalArgumentException("usernames must not be blank");
+        }
+
+        UserSnapshot snapshot = userCacheService.getSnapshot();
+        BitSet returned = new BitSet(snapshot.size());
+        List<User> users = new ArrayList<>(request.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (long id : request.ids()) {
+            int position = snapshot.positionOfId(id);
+            if (position < 0) {
+                missingIds.add(id);
+            } else if (!returned.get(position)) {
+                returned.set(position);
+                users.add(snapshot.user(position));
+            }
+        }
+        List<String> missingUsernames = new ArrayList<>();
+        for (String username : request.usernames()) {
+            int position = snapshot.positionOfUsername(username);
+            if (position < 0) {
+                missingUsernames.add(username);
+            } else if (!returned.get(position)) {
+                returned.set(position);
+                users.add(snapshot.user(position));
+            }
+        }
+
+        log.debug("Found {} users, {} ids and {} usernames missing", users.size(), missingIds.size(),
+                missingUsernames.size());
+        return new UserBatchResponse<>(users, missingIds, missingUsernames);
+    }
+
+    @Override
+    public Stream<User> streamUsers(UserFilter filter) {
+        log.info("Streaming users - filter: {}", filter);
+
+        UserSnapshot snapshot = userCacheService.getSnapshot();
+        IntPredicate matches = UserSpecificationFactory.matcher(snapshot, filter);
+        return IntStream.range(0, snapshot.size())
+                .filter(matches)
+                .mapToObj(snapshot::user);
+    }
+
+    @Override
+    public FacetsResponse getFacets(UserFilter filter, int ageBucketSize) {
+        log.info("Counting facets - filter: {}, age bucket size: {}", filter, ageBucketSize);
+        if (ageBucketSize < 1 || ageBucketSize > 100) {
+            throw new IllegalArgumentException("ageBucketSize must be between 1 and 100");
+        }
+        return userFacetService.getFacets(userCacheService.getSnapshot(), filter, ageBucketSize);
+    }
+
+    @Override
+    public Optional<Duration> staleAge() {
+        return userCacheService.staleAge();
+    }
+
+    @Override
+    public long snapshotVersion() {
+        return userCacheService.getSnapshot().version();
+    }
+
+    @Override
+    public Duration remainingTtl() {
+        return userCacheService.remainingTtl();
+    }
 }
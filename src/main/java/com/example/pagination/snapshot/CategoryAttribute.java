@@ -0,0 +1,64 @@
+package com.example.pagination.snapshot;
+
+import com.example.pagination.model.User;
+
+/**
+ * Low-cardinality user attributes that support equality filters.
+ */
+public enum CategoryAttribute {
+
+    ROLE {
+        @Override
+        public DictionaryColumn column(UserColumns columns) {
+            return columns.roles();
+        }
+
+        @Override
+        public String value(User user) {
+            return user.role();
+        }
+    },
+
+    BLOOD_GROUP {
+        @Override
+        public DictionaryColumn column(UserColumns columns) {
+            return columns.bloodGroups();
+        }
+
+        @Override
+        public String value(User user) {
+            return user.bloodGroup();
+        }
+    },
+
+    DEPARTMENT {
+        @Override
+        public DictionaryColumn column(UserColumns columns) {
+            return columns.departments();
+        }
+
+        @Override
+        public String value(User user) {
+            return user.company() != null ? user.company().department() : null;
+        }
+    },
+
+    COUNTRY {
+        @Override
+        public DictionaryColumn column(UserColumns columns) {
+            return columns.countries();
+        }
+
+        @Override
+        public String value(User user) {
+            return user.address() != null ? user.address().country() : null;
+        }
+    };
+
+    public abstract DictionaryColumn column(UserColumns columns);
+
+    /**
+     * Value of a materialized user, or null if it has none.
+     */
+    public abstract String value(User user);
+}
@@ -0,0 +1,87 @@
+package com.example.pagination.snapshot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dictionary-encoded string column for low-cardinality fields.
+ * Each distinct value is stored once and every row holds an int code into the
+ * dictionary, so repeated values such as blood groups or roles cost four bytes
+ * per row instead of a String instance each.
+ */
+public final class DictionaryColumn {
+
+    /**
+     * Code stored for rows whose value is null, and returned by
+     * {@link #codeOf(String)} for values not in the dictionary.
+     */
+    public static final int NO_CODE = -1;
+
+    private final String[] dictionary;
+    private final int[] codes;
+    private final Map<String, Integer> lookup;
+
+    private DictionaryColumn(String[] dictionary, int[] codes, Map<String, Integer> lookup) {
+        this.dictionary = dictionary;
+        this.codes = codes;
+        this.lookup = lookup;
+    }
+
+    static Builder builder(int rows) {
+        return new Builder(rows);
+    }
+
+    public String get(int row) {
+        int code = codes[row];
+        return code == NO_CODE ? null : dictionary[code];
+    }
+
+    public int code(int row) {
+        return codes[row];
+    }
+
+    /**
+     * Code of an exact value, or {@link #NO_CODE} if no row holds it.
+     */
+    public int codeOf(String value) {
+        return lookup.getOrDefault(value, NO_CODE);
+    }
+
+    public String value(int code) {
+        return dictionary[code];
+    }
+
+    public int cardinality() {
+        return dictionary.length;
+    }
+
+    static final class Builder {
+        private final int[] codes;
+        private final List<String> dictionary = new ArrayList<>();
+        private final Map<String, Integer> lookup = new HashMap<>();
+
+        private Builder(int rows) {
+            this.codes = new int[rows];
+            // Rows never set, such as those without the enclosing record, read as null
+            Arrays.fill(codes, NO_CODE);
+        }
+
+        void set(int row, String value) {
+            if (value == null) {
+                codes[row] = NO_CODE;
+                return;
+            }
+            codes[row] = lookup.computeIfAbsent(value, key -> {
+                dictionary.add(key);
+                return dictionary.size() - 1;
+            });
+        }
+
+        DictionaryColumn build() {
+            return new DictionaryColumn(dictionary.toArray(String[]::new), codes, Map.copyOf(lookup));
+        }
+    }
+}
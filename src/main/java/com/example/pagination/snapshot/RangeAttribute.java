@@ -0,0 +1,93 @@
+package com.example.pagination.snapshot;
+
+import java.time.LocalDate;
+
+import com.example.pagination.model.User;
+
+/**
+ * Numeric user attributes that support range filters.
+ * Every attribute is read as a double; birth dates are days since the epoch.
+ */
+public enum RangeAttribute {
+
+    AGE {
+        @Override
+        public boolean has(UserColumns columns, int row) {
+            return columns.hasAge(row);
+        }
+
+        @Override
+        public double value(UserColumns columns, int row) {
+            return columns.age(row);
+        }
+
+        @Override
+        public Double value(User user) {
+            return user.age() != null ? user.age().doubleValue() : null;
+        }
+    },
+
+    HEIGHT {
+        @Override
+        public boolean has(UserColumns columns, int row) {
+            return columns.hasHeight(row);
+        }
+
+        @Override
+        public double value(UserColumns columns, int row) {
+            return columns.height(row);
+        }
+
+        @Override
+        public Double value(User user) {
+            return user.height();
+        }
+    },
+
+    WEIGHT {
+        @Override
+        public boolean has(UserColumns columns, int row) {
+            return columns.hasWeight(row);
+        }
+
+        @Override
+        public double value(UserColumns columns, int row) {
+            return columns.weight(row);
+        }
+
+        @Override
+        public Double value(User user) {
+            return user.weight();
+        }
+    },
+
+    BIRTH_DATE {
+        @Override
+        public boolean has(UserColumns columns, int row) {
+            return columns.hasBirthDay(row);
+        }
+
+        @Override
+        public double value(UserColumns columns, int row) {
+            return columns.birthDay(row);
+        }
+
+        @Override
+        public Double value(User user) {
+            LocalDate birthDate = UserColumns.parseBirthDate(user.birthDate());
+            return birthDate != null ? (double) birthDate.toEpochDay() : null;
+        }
+    };
+
+    public abstract boolean has(UserColumns columns, int row);
+
+    /**
+     * Value at the row; only meaningful when {@link #has(UserColumns, int)} is true.
+     */
+    public abstract double value(UserColumns columns, int row);
+
+    /**
+     * Value of a materialized user, or null if it has none.
+     */
+    public abstract Double value(User user);
+}
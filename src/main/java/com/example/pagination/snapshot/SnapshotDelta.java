@@ -0,0 +1,109 @@
+package com.example.pagination.snapshot;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Changes between two snapshots, matched by user id and compared by 64-bit
+ * content hash. Users without an id cannot be matched and count as inserted.
+ */
+public final class SnapshotDelta {
+
+    private final int inserted;
+    private final int updated;
+    private final int deleted;
+    private final int unchanged;
+    private final boolean positionsStable;
+    private final int[] updatedPositions;
+
+    private SnapshotDelta(int inserted, int updated, int deleted, int unchanged, boolean positionsStable,
+            int[] updatedPositions) {
+        this.inserted = inserted;
+        this.updated = updated;
+        this.deleted = deleted;
+        this.unchanged = unchanged;
+        this.positionsStable = positionsStable;
+        this.updatedPositions = updatedPositions;
+    }
+
+    /**
+     * Diff freshly loaded columns against the previous snapshot.
+     *
+     * @param previous Snapshot being replaced, or null on the first load
+     * @param columns  Newly loaded users
+     * @param hashes   Content hash of each new user, by position
+     */
+    static SnapshotDelta between(UserSnapshot previous, UserColumns columns, long[] hashes) {
+        if (previous == null) {
+            return new SnapshotDelta(columns.size(), 0, 0, 0, false, new int[0]);
+        }
+        BitSet matched = new BitSet(previous.size());
+        int[] updatedPositions = new int[Math.min(columns.size(), previous.size())];
+        int updated = 0;
+        int inserted = 0;
+        int unchanged = 0;
+        boolean positionsStable = columns.size() == previous.size();
+        for (int row = 0; row < columns.size(); row++) {
+            int old = columns.hasId(row) ? previous.positionOfId(columns.id(row)) : -1;
+            if (old < 0 || matched.get(old)) {
+                inserted++;
+                positionsStable = false;
+                continue;
+            }
+            matched.set(old);
+            positionsStable &= old == row;
+            if (previous.hash(old) != hashes[row]) {
+                updatedPositions[updated++] = row;
+            } else {
+                unchanged++;
+            }
+        }
+        int deleted = previous.size() - matched.cardinality();
+        return new SnapshotDelta(inserted, updated, deleted, unchanged, positionsStable,
+                Arrays.copyOf(updatedPositions, updated));
+    }
+
+    public int inserted() {
+        return inserted;
+    }
+
+    public int updated() {
+        return updated;
+    }
+
+    public int deleted() {
+        return deleted;
+    }
+
+    public int unchanged() {
+        return unchanged;
+    }
+
+    /**
+     * Whether any user was inserted, updated or deleted.
+     */
+    public boolean changed() {
+        return inserted + updated + deleted > 0;
+    }
+
+    /**
+     * Whether every user kept its position, so indexes of the previous
+     * snapshot still address the same users.
+     */
+    boolean positionsStable() {
+        return positionsStable;
+    }
+
+    /**
+     * New positions of the updated users, ascending.
+     */
+    int[] updatedPositions() {
+        return updatedPositions;
+    }
+
+    @Override
+    public String toString() {
+        return "SnapshotDelta[inserted=" + inserted + ", updated=" + updated + ", deleted=" + deleted
+                + ", unchanged=" + unchanged + "]";
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.pagination.snapshot;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import com.example.pagination.dto.UserSort;
+import com.example.pagination.index.SortIndex;
+
+/**
+ * Selects one page of matching positions in a requested sort order without
+ * sorting every match.
+ * <p>
+ * A single key walks the field's cached permutation and stops once the page is
+ * filled. Several keys keep the best {@code to} matches in a bounded heap that
+ * compares precomputed ranks, which costs {@code O(n log to)} instead of a
+ * full sort.
+ */
+public final class SortedPositions {
+
+    private SortedPositions() {
+    }
+
+    /**
+     * Positions at indexes {@code [from, to)} of the matches in sort order.
+     *
+     * @param matches Matching positions in upstream order
+     */
+    public static int[] slice(UserSnapshot snapshot, UserSort sort, int[] matches, int from, int to) {
+        to = Math.min(to, matches.length);
+        if (from >= to) {
+            return new int[0];
+        }
+        List<UserSort.Order> orders = sort.orders();
+        if (orders.size() == 1) {
+            return walk(snapshot, orders.get(0), matches, from, to);
+        }
+        return topK(snapshot, orders, matches, from, to);
+    }
+
+    private static int[] walk(UserSnapshot snapshot, UserSort.Order order, int[] matches, int from, int to) {
+        BitSet members = membership(snapshot, matches);
+        int[] page = new int[to - from];
+        int[] seen = { 0 };
+        snapshot.sortIndex(order.field()).walk(order.descending(), position -> {
+            if (members != null && !members.get(position)) {
+                return true;
+            }
+            int index = seen[0]++;
+            if (index >= from) {
+                page[index - from] = position;
+            }
+            return seen[0] < to;
+        });
+        return page;
+    }
+
+    /**
+     * Membership test for the matches, or null when every position matches.
+     */
+    private static BitSet membership(UserSnapshot snapshot, int[] matches) {
+        if (matches.length == snapshot.size()) {
+            return null;
+        }
+        BitSet members = new BitSet(snapshot.size());
+        for (int position : matches) {
+            members.set(position);
+        }
+        return members;
+    }
+
+    private static int[] topK(UserSnapshot snapshot, List<UserSort.Order> orders, int[] matches, int from, int to) {
+        RankComparator comparator = new RankComparator(snapshot, orders);
+
+        // Max-heap of the best "to" positions seen so far, worst at the root
+        int[] heap = new int[to];
+        int size = 0;
+        for (int position : matches) {
+            if (size < to) {
+                heap[size] = position;
+                siftUp(heap, size++, comparator);
+            } else if (comparator.compare(position, heap[0]) < 0) {
+                heap[0] = position;
+                siftDown(heap, size, comparator);
+            }
+        }
+
+        // Popping the worst repeatedly fills the array back to front in sort order
+        int[] sorted = new int[size];
+        for (int i = size - 1; i >= 0; i--) {
+            sorted[i] = heap[0];
+            heap[0] = heap[i];
+            siftDown(heap, i, comparator);
+        }
+        return Arrays.copyOfRange(sorted, from, size);
+    }
+
+    private static void siftUp(int[] heap, int index, RankComparator comparator) {
+        int position = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (comparator.compare(position, heap[parent]) <= 0) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = position;
+    }
+
+    private static void siftDown(int[] heap, int size, RankComparator comparator) {
+        if (size == 0) {
+            return;
+        }
+        int position = heap[0];
+        int index = 0;
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            if (child + 1 < size && comparator.compare(heap[child + 1], heap[child]) > 0) {
+                child++;
+            }
+            if (comparator.compare(position, heap[child]) >= 0) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = position;
+    }
+
+    /**
+     * Compares positions by the rank of each sort key in turn, then by
+     * upstream position, so no two positions compare equal.
+     */
+    private static final class RankComparator {
+        private final SortIndex[] indexes;
+        private final boolean[] descending;
+
+        RankComparator(UserSnapshot snapshot, List<UserSort.Order> orders) {
+            indexes = new SortIndex[orders.size()];
+            descending = new boolean[orders.size()];
+            for (int i = 0; i < orders.size(); i++) {
+                indexes[i] = snapshot.sortIndex(orders.get(i).field());
+                descending[i] = orders.get(i).descending();
+            }
+        }
+
+        int compare(int a, int b) {
+            for (int i = 0; i < indexes.length; i++) {
+                int rankA = indexes[i].rank(a);
+                int rankB = indexes[i].rank(b);
+                if (rankA == rankB) {
+                    continue;
+                }
+                // Missing values sort last whatever the direction
+                if (rankA == SortIndex.NO_RANK || rankB == SortIndex.NO_RANK) {
+                    return rankA == SortIndex.NO_RANK ? 1 : -1;
+                }
+                return descending[i] ? Integer.compare(rankB, rankA) : Integer.compare(rankA, rankB);
+            }
+            return Integer.compare(a, b);
+        }
+    }
+}
@@ -0,0 +1,611 @@
+package com.example.pagination.snapshot;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.List;
+
+import com.example.pagination.model.User;
+import com.example.pagination.model.User.Address;
+import com.example.pagination.model.User.Address.Coordinates;
+import com.example.pagination.model.User.Bank;
+import com.example.pagination.model.User.Company;
+import com.example.pagination.model.User.Crypto;
+import com.example.pagination.model.User.Hair;
+
+/**
+ * Column-oriented storage of a user dataset.
+ * Numeric fields live in primitive arrays with a null bitmap, low-cardinality
+ * strings are dictionary-encoded, and nested records are flattened into their
+ * own columns with a presence bitmap. Filters read the columns directly;
+ * {@link #user(int)} rebuilds a {@link User} only when one is actually needed.
+ */
+public final class UserColumns {
+
+    private final int size;
+
+    private final LongColumn ids;
+    private final String[] firstNames;
+    private final String[] lastNames;
+    private final IntColumn ages;
+    private final String[] emails;
+    private final String[] phones;
+    private final String[] usernames;
+    private final String[] birthDates;
+    private final IntColumn birthDays;
+    private final String[] images;
+    private final DictionaryColumn bloodGroups;
+    private final DoubleColumn heights;
+    private final DoubleColumn weights;
+    private final DictionaryColumn eyeColors;
+    private final BitSet hasHair;
+    private final DictionaryColumn hairColors;
+    private final DictionaryColumn hairTypes;
+    private final String[] ips;
+    private final AddressColumns addresses;
+    private final String[] macAddresses;
+    private final DictionaryColumn universities;
+    private final BitSet hasBank;
+    private final String[] cardExpires;
+    private final String[] cardNumbers;
+    private final DictionaryColumn cardTypes;
+    private final DictionaryColumn currencies;
+    private final String[] ibans;
+    private final BitSet hasCompany;
+    private final DictionaryColumn departments;
+    private final String[] companyNames;
+    private final DictionaryColumn titles;
+    private final AddressColumns companyAddresses;
+    private final String[] eins;
+    private final String[] ssns;
+    private final DictionaryColumn userAgents;
+    private final BitSet hasCrypto;
+    private final DictionaryColumn coins;
+    private final String[] wallets;
+    private final DictionaryColumn networks;
+    private final DictionaryColumn roles;
+
+    private UserColumns(Builder builder) {
+        this.size = builder.size;
+        this.ids = builder.ids;
+        this.firstNames = builder.firstNames;
+        this.lastNames = builder.lastNames;
+        this.ages = builder.ages;
+        this.emails = builder.emails;
+        this.phones = builder.phones;
+        this.usernames = builder.usernames;
+        this.birthDates = builder.birthDates;
+        this.birthDays = builder.birthDays;
+        this.images = builder.images;
+        this.bloodGroups = builder.bloodGroups.build();
+        this.heights = builder.heights;
+        this.weights = builder.weights;
+        this.eyeColors = builder.eyeColors.build();
+        this.hasHair = builder.hasHair;
+        this.hairColors = builder.hairColors.build();
+        this.hairTypes = builder.hairTypes.build();
+        this.ips = builder.ips;
+        this.addresses = builder.addresses.build();
+        this.macAddresses = builder.macAddresses;
+        this.universities = builder.universities.build();
+        this.hasBank = builder.hasBank;
+        this.cardExpires = builder.cardExpires;
+        this.cardNumbers = builder.cardNumbers;
+        this.cardTypes = builder.cardTypes.build();
+        this.currencies = builder.currencies.build();
+        this.ibans = builder.ibans;
+        this.hasCompany = builder.hasCompany;
+        this.departments = builder.departments.build();
+        this.companyNames = builder.companyNames;
+        this.titles = builder.titles.build();
+        this.companyAddresses = builder.companyAddresses.build();
+        this.eins = builder.eins;
+        this.ssns = builder.ssns;
+        this.userAgents = builder.userAgents.build();
+        this.hasCrypto = builder.hasCrypto;
+        this.coins = builder.coins.build();
+        this.wallets = builder.wallets;
+        this.networks = builder.networks.build();
+        this.roles = builder.roles.build();
+    }
+
+    public static UserColumns of(List<User> users) {
+        Builder builder = builder(users.size());
+        for (int row = 0; row < users.size(); row++) {
+            builder.set(row, users.get(row));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Builder for a fixed number of rows. Rows may be set in any order, and
+     * every row must be set before the columns are built.
+     */
+    public static Builder builder(int rows) {
+        return new Builder(rows);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Rebuild the user stored at the given row. Every call allocates a new
+     * instance, so callers should materialize only what they return.
+     */
+    public User user(int row) {
+        return new User(
+                ids.get(row),
+                firstNames[row],
+                lastNames[row],
+                ages.get(row),
+                emails[row],
+                phones[row],
+                usernames[row],
+                birthDates[row],
+                images[row],
+                bloodGroups.get(row),
+                heights.get(row),
+                weights.get(row),
+                eyeColors.get(row),
+                hasHair.get(row) ? new Hair(hairColors.get(row), hairTypes.get(row)) : null,
+                ips[row],
+                addresses.get(row),
+                macAddresses[row],
+                universities.get(row),
+                hasBank.get(row)
+                        ? new Bank(cardExpires[row], cardNumbers[row], cardTypes.get(row), currencies.get(row),
+                                ibans[row])
+                        : null,
+                hasCompany.get(row)
+                        ? new Company(departments.get(row), companyNames[row], titles.get(row),
+                                companyAddresses.get(row))
+                        : null,
+                eins[row],
+                ssns[row],
+                userAgents.get(row),
+                hasCrypto.get(row) ? new Crypto(coins.get(row), wallets[row], networks.get(row)) : null,
+                roles.get(row));
+    }
+
+    /**
+     * User id at the given row; users without an id report {@link Long#MIN_VALUE}.
+     */
+    public long id(int row) {
+        return ids.isNull(row) ? Long.MIN_VALUE : ids.values[row];
+    }
+
+    public boolean hasId(int row) {
+        return !ids.isNull(row);
+    }
+
+    public String firstName(int row) {
+        return firstNames[row];
+    }
+
+    public String lastName(int row) {
+        return lastNames[row];
+    }
+
+    public String username(int row) {
+        return usernames[row];
+    }
+
+    public String email(int row) {
+        return emails[row];
+    }
+
+    public boolean hasAge(int row) {
+        return !ages.isNull(row);
+    }
+
+    public int age(int row) {
+        return ages.values[row];
+    }
+
+    public boolean hasHeight(int row) {
+        return !heights.isNull(row);
+    }
+
+    public double height(int row) {
+        return heights.values[row];
+    }
+
+    public boolean hasWeight(int row) {
+        return !weights.isNull(row);
+    }
+
+    public double weight(int row) {
+        return weights.values[row];
+    }
+
+    /**
+     * Whether the row has a birth date that could be parsed.
+     */
+    public boolean hasBirthDay(int row) {
+        return !birthDays.isNull(row);
+    }
+
+    /**
+     * Birth date as days since the epoch.
+     */
+    public int birthDay(int row) {
+        return birthDays.values[row];
+    }
+
+    /**
+     * Parse an upstream birth date such as {@code 1996-5-30}, where month and
+     * day are not zero-padded.
+     *
+     * @return The date, or null if the value is missing or malformed
+     */
+    public static LocalDate parseBirthDate(String value) {
+        if (value == null) {
+            return null;
+        }
+        String[] parts = value.trim().split("-");
+        if (parts.length != 3) {
+            return null;
+        }
+        try {
+            return LocalDate.of(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+        } catch (NumberFormatException | DateTimeException e) {
+            return null;
+        }
+    }
+
+    public boolean hasCoordinates(int row) {
+        return addresses.hasCoordinates(row);
+    }
+
+    public double latitude(int row) {
+        return addresses.latitudes.values[row];
+    }
+
+    public double longitude(int row) {
+        return addresses.longitudes.values[row];
+    }
+
+    public DictionaryColumn bloodGroups() {
+        return bloodGroups;
+    }
+
+    public DictionaryColumn eyeColors() {
+        return eyeColors;
+    }
+
+    public DictionaryColumn roles() {
+        return roles;
+    }
+
+    public DictionaryColumn departments() {
+        return departments;
+    }
+
+    public DictionaryColumn states() {
+        return addresses.states;
+    }
+
+    public DictionaryColumn countries() {
+        return addresses.countries;
+    }
+
+    /**
+     * Writes users into preallocated columns one row at a time, so a dataset
+     * can be columnized while it is still being read.
+     */
+    public static final class Builder {
+        private final int size;
+        private final LongColumn ids;
+        private final String[] firstNames;
+        private final String[] lastNames;
+        private final IntColumn ages;
+        private final String[] emails;
+        private final String[] phones;
+        private final String[] usernames;
+        private final String[] birthDates;
+        private final IntColumn birthDays;
+        private final String[] images;
+        private final DictionaryColumn.Builder bloodGroups;
+        private final DoubleColumn heights;
+        private final DoubleColumn weights;
+        private final DictionaryColumn.Builder eyeColors;
+        private final BitSet hasHair;
+        private final DictionaryColumn.Builder hairColors;
+        private final DictionaryColumn.Builder hairTypes;
+        private final String[] ips;
+        private final AddressColumns.Builder addresses;
+        private final String[] macAddresses;
+        private final DictionaryColumn.Builder universities;
+        private final BitSet hasBank;
+        private final String[] cardExpires;
+        private final String[] cardNumbers;
+        private final DictionaryColumn.Builder cardTypes;
+        private final DictionaryColumn.Builder currencies;
+        private final String[] ibans;
+        private final BitSet hasCompany;
+        private final DictionaryColumn.Builder departments;
+        private final String[] companyNames;
+        private final DictionaryColumn.Builder titles;
+        private final AddressColumns.Builder companyAddresses;
+        private final String[] eins;
+        private final String[] ssns;
+        private final DictionaryColumn.Builder userAgents;
+        private final BitSet hasCrypto;
+        private final DictionaryColumn.Builder coins;
+        private final String[] wallets;
+        private final DictionaryColumn.Builder networks;
+        private final DictionaryColumn.Builder roles;
+
+        private Builder(int rows) {
+            size = rows;
+            ids = new LongColumn(rows);
+            firstNames = new String[rows];
+            lastNames = new String[rows];
+            ages = new IntColumn(rows);
+            emails = new String[rows];
+            phones = new String[rows];
+            usernames = new String[rows];
+            birthDates = new String[rows];
+            birthDays = new IntColumn(rows);
+            images = new String[rows];
+            bloodGroups = DictionaryColumn.builder(rows);
+            heights = new DoubleColumn(rows);
+            weights = new DoubleColumn(rows);
+            eyeColors = DictionaryColumn.builder(rows);
+            hasHair = new BitSet(rows);
+            hairColors = DictionaryColumn.builder(rows);
+            hairTypes = DictionaryColumn.builder(rows);
+            ips = new String[rows];
+            addresses = new AddressColumns.Builder(rows);
+            macAddresses = new String[rows];
+            universities = DictionaryColumn.builder(rows);
+            hasBank = new BitSet(rows);
+            cardExpires = new String[rows];
+            cardNumbers = new String[rows];
+            cardTypes = DictionaryColumn.builder(rows);
+            currencies = DictionaryColumn.builder(rows);
+            ibans = new String[rows];
+            hasCompany = new BitSet(rows);
+            departments = DictionaryColumn.builder(rows);
+            companyNames = new String[rows];
+            titles = DictionaryColumn.builder(rows);
+            companyAddresses = new AddressColumns.Builder(rows);
+            eins = new String[rows];
+            ssns = new String[rows];
+            userAgents = DictionaryColumn.builder(rows);
+            hasCrypto = new BitSet(rows);
+            coins = DictionaryColumn.builder(rows);
+            wallets = new String[rows];
+            networks = DictionaryColumn.builder(rows);
+            roles = DictionaryColumn.builder(rows);
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public void set(int row, User user) {
+            ids.set(row, user.id());
+            firstNames[row] = user.firstName();
+            lastNames[row] = user.lastName();
+            ages.set(row, user.age());
+            emails[row] = user.email();
+            phones[row] = user.phone();
+            usernames[row] = user.username();
+            birthDates[row] = user.birthDate();
+            LocalDate birthDay = parseBirthDate(user.birthDate());
+            birthDays.set(row, birthDay != null ? (int) birthDay.toEpochDay() : null);
+            images[row] = user.image();
+            bloodGroups.set(row, user.bloodGroup());
+            heights.set(row, user.height());
+            weights.set(row, user.weight());
+            eyeColors.set(row, user.eyeColor());
+            if (user.hair() != null) {
+                hasHair.set(row);
+                hairColors.set(row, user.hair().color());
+                hairTypes.set(row, user.hair().type());
+            }
+            ips[row] = user.ip();
+            addresses.set(row, user.address());
+            macAddresses[row] = user.macAddress();
+            universities.set(row, user.university());
+            if (user.bank() != null) {
+                hasBank.set(row);
+                cardExpires[row] = user.bank().cardExpire();
+                cardNumbers[row] = user.bank().cardNumber();
+                cardTypes.set(row, user.bank().cardType());
+                currencies.set(row, user.bank().currency());
+                ibans[row] = user.bank().iban();
+            }
+            if (user.company() != null) {
+                hasCompany.set(row);
+                departments.set(row, user.company().department());
+                companyNames[row] = user.company().name();
+                titles.set(row, user.company().title());
+                companyAddresses.set(row, user.company().address());
+            }
+            eins[row] = user.ein();
+            ssns[row] = user.ssn();
+            userAgents.set(row, user.userAgent());
+            if (user.crypto() != null) {
+                hasCrypto.set(row);
+                coins.set(row, user.crypto().coin());
+                wallets[row] = user.crypto().wallet();
+                networks.set(row, user.crypto().network());
+            }
+            roles.set(row, user.role());
+        }
+
+        public UserColumns build() {
+            return new UserColumns(this);
+        }
+    }
+
+    /**
+     * Flattened columns of an {@link Address} and its {@link Coordinates}.
+     */
+    private static final class AddressColumns {
+        private final BitSet present;
+        private final String[] lines;
+        private final DictionaryColumn cities;
+        private final DictionaryColumn states;
+        private final DictionaryColumn stateCodes;
+        private final String[] postalCodes;
+        private final BitSet withCoordinates;
+        private final DoubleColumn latitudes;
+        private final DoubleColumn longitudes;
+        private final DictionaryColumn countries;
+
+        private AddressColumns(Builder builder) {
+            this.present = builder.present;
+            this.lines = builder.lines;
+            this.cities = builder.cities.build();
+            this.states = builder.states.build();
+            this.stateCodes = builder.stateCodes.build();
+            this.postalCodes = builder.postalCodes;
+            this.withCoordinates = builder.withCoordinates;
+            this.latitudes = builder.latitudes;
+            this.longitudes = builder.longitudes;
+            this.countries = builder.countries.build();
+        }
+
+        Address get(int row) {
+            if (!present.get(row)) {
+                return null;
+            }
+            Coordinates coordinates = withCoordinates.get(row)
+                    ? new Coordinates(latitudes.get(row), longitudes.get(row))
+                    : null;
+            return new Address(lines[row], cities.get(row), states.get(row), stateCodes.get(row), postalCodes[row],
+                    coordinates, countries.get(row));
+        }
+
+        boolean hasCoordinates(int row) {
+            return withCoordinates.get(row) && !latitudes.isNull(row) && !longitudes.isNull(row);
+        }
+
+        private static final class Builder {
+            private final BitSet present;
+            private final String[] lines;
+            private final DictionaryColumn.Builder cities;
+            private final DictionaryColumn.Builder states;
+            private final DictionaryColumn.Builder stateCodes;
+            private final String[] postalCodes;
+            private final BitSet withCoordinates;
+            private final DoubleColumn latitudes;
+            private final DoubleColumn longitudes;
+            private final DictionaryColumn.Builder countries;
+
+            Builder(int rows) {
+                present = new BitSet(rows);
+                lines = new String[rows];
+                cities = DictionaryColumn.builder(rows);
+                states = DictionaryColumn.builder(rows);
+                stateCodes = DictionaryColumn.builder(rows);
+                postalCodes = new String[rows];
+                withCoordinates = new BitSet(rows);
+                latitudes = new DoubleColumn(rows);
+                longitudes = new DoubleColumn(rows);
+                countries = DictionaryColumn.builder(rows);
+            }
+
+            void set(int row, Address address) {
+                if (address == null) {
+                    return;
+                }
+                present.set(row);
+                lines[row] = address.address();
+                cities.set(row, address.city());
+                states.set(row, address.state());
+                stateCodes.set(row, address.stateCode());
+                postalCodes[row] = address.postalCode();
+                if (address.coordinates() != null) {
+                    withCoordinates.set(row);
+                    latitudes.set(row, address.coordinates().lat());
+                    longitudes.set(row, address.coordinates().lng());
+                }
+                countries.set(row, address.country());
+            }
+
+            AddressColumns build() {
+                return new AddressColumns(this);
+            }
+        }
+    }
+
+    private static final class LongColumn {
+        private final long[] values;
+        private final BitSet nulls = new BitSet();
+
+        LongColumn(int rows) {
+            values = new long[rows];
+        }
+
+        void set(int row, Long value) {
+            if (value == null) {
+                nulls.set(row);
+            } else {
+                values[row] = value;
+            }
+        }
+
+        boolean isNull(int row) {
+            return nulls.get(row);
+        }
+
+        Long get(int row) {
+            return isNull(row) ? null : values[row];
+        }
+    }
+
+    private static final class IntColumn {
+        private final int[] values;
+        private final BitSet nulls = new BitSet();
+
+        IntColumn(int rows) {
+            values = new int[rows];
+        }
+
+        void set(int row, Integer value) {
+            if (value == null) {
+                nulls.set(row);
+            } else {
+                values[row] = value;
+            }
+        }
+
+        boolean isNull(int row) {
+            return nulls.get(row);
+        }
+
+        Integer get(int row) {
+            return isNull(row) ? null : values[row];
+        }
+    }
+
+    private static final class DoubleColumn {
+        private final double[] values;
+        private final BitSet nulls = new BitSet();
+
+        DoubleColumn(int rows) {
+            values = new double[rows];
+        }
+
+        void set(int row, Double value) {
+            if (value == null) {
+                nulls.set(row);
+            } else {
+                values[row] = value;
+            }
+        }
+
+        boolean isNull(int row) {
+            return nulls.get(row);
+        }
+
+        Double get(int row) {
+            return isNull(row) ? null : values[row];
+        }
+    }
+}
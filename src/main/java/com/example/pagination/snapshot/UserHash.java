@@ -0,0 +1,107 @@
+package com.example.pagination.snapshot;
+
+import com.example.pagination.model.User;
+import com.example.pagination.model.User.Address;
+
+/**
+ * 64-bit content hash of a user, used to detect changed users between loads.
+ * <p>
+ * {@link User#hashCode()} is only 32 bits and collides trivially for short
+ * strings ("Aa" and "BB"), which would make an edited user look unchanged.
+ * This hashes every field with 64-bit FNV-1a, marking nulls and string
+ * lengths so values cannot run into each other, and finishes with the
+ * MurmurHash3 mixer.
+ */
+final class UserHash {
+
+    private static final long OFFSET = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+    private static final long NULL = 0x9e3779b97f4a7c15L;
+
+    private long hash = OFFSET;
+
+    private UserHash() {
+    }
+
+    static long of(User user) {
+        UserHash h = new UserHash();
+        h.add(user.id());
+        h.add(user.firstName()).add(user.lastName());
+        h.add(user.age() != null ? user.age().longValue() : null);
+        h.add(user.email()).add(user.phone()).add(user.username()).add(user.birthDate()).add(user.image());
+        h.add(user.bloodGroup()).add(user.height()).add(user.weight()).add(user.eyeColor());
+        if (h.present(user.hair())) {
+            h.add(user.hair().color()).add(user.hair().type());
+        }
+        h.add(user.ip()).add(user.address()).add(user.macAddress()).add(user.university());
+        if (h.present(user.bank())) {
+            User.Bank bank = user.bank();
+            h.add(bank.cardExpire()).add(bank.cardNumber()).add(bank.cardType()).add(bank.currency()).add(bank.iban());
+        }
+        if (h.present(user.company())) {
+            User.Company company = user.company();
+            h.add(company.department()).add(company.name()).add(company.title()).add(company.address());
+        }
+        h.add(user.ein()).add(user.ssn()).add(user.userAgent());
+        if (h.present(user.crypto())) {
+            h.add(user.crypto().coin()).add(user.crypto().wallet()).add(user.crypto().network());
+        }
+        h.add(user.role());
+        return h.finish();
+    }
+
+    private UserHash add(Address address) {
+        if (present(address)) {
+            add(address.address()).add(address.city()).add(address.state()).add(address.stateCode())
+                    .add(address.postalCode());
+            if (present(address.coordinates())) {
+                add(address.coordinates().lat()).add(address.coordinates().lng());
+            }
+            add(address.country());
+        }
+        return this;
+    }
+
+    private UserHash add(String value) {
+        if (present(value)) {
+            for (int i = 0; i < value.length(); i++) {
+                mix(value.charAt(i));
+            }
+            mix(value.length());
+        }
+        return this;
+    }
+
+    private UserHash add(Double value) {
+        return add(value != null ? Double.doubleToLongBits(value) : null);
+    }
+
+    private UserHash add(Long value) {
+        if (present(value)) {
+            mix(value);
+        }
+        return this;
+    }
+
+    /**
+     * Mix in whether the value is present, so a null differs from any value.
+     */
+    private boolean present(Object value) {
+        mix(value != null ? 1 : NULL);
+        return value != null;
+    }
+
+    private void mix(long value) {
+        hash = (hash ^ value) * PRIME;
+    }
+
+    private long finish() {
+        long h = hash;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
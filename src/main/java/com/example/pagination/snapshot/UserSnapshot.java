@@ -0,0 +1,473 @@
+package com.example.pagination.snapshot;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+import com.example.pagination.client.UserSink;
+import com.example.pagination.dto.UserSort;
+import com.example.pagination.index.CategoryIndex;
+import com.example.pagination.index.GeoIndex;
+import com.example.pagination.index.IdIndex;
+import com.example.pagination.index.NameTrie;
+import com.example.pagination.index.RangeIndex;
+import com.example.pagination.index.SortIndex;
+import com.example.pagination.index.UserSearchIndex;
+import com.example.pagination.index.UsernameIndex;
+import com.example.pagination.model.User;
+
+/**
+ * Immutable view of the user dataset as loaded by one cache refresh.
+ * Users are addressed by their position in upstream order, and every derived
+ * structure is built once here instead of on each request.
+ * <p>
+ * The users themselves are kept in {@link UserColumns} rather than as a list
+ * of records, and a {@link User} is materialized only when it is returned.
+ */
+public final class UserSnapshot {
+
+    private final long version;
+    private final UserColumns columns;
+    private final long[] hashes;
+    private final UserSearchIndex searchIndex;
+    private final NameTrie nameTrie;
+    private final GeoIndex geoIndex;
+    private final IdIndex idIndex;
+    private final UsernameIndex usernameIndex;
+    private final Map<RangeAttribute, RangeIndex> rangeIndexes = new EnumMap<>(RangeAttribute.class);
+    private final Map<CategoryAttribute, CategoryIndex> categoryIndexes = new EnumMap<>(CategoryAttribute.class);
+    private final Map<UserSort.Field, SortIndex> sortIndexes = new ConcurrentHashMap<>();
+    private final int[] allPositions;
+    private final int[] idOrder;
+    private final long[] sortedIds;
+    private final int withIds;
+
+    /**
+     * @param previous Snapshot whose users sit at the same positions, to take
+     *                 indexes from, or null to build every index
+     * @param updated  Positions whose content differs from {@code previous}
+     */
+    private UserSnapshot(long version, UserColumns columns, long[] hashes, UserSnapshot previous, int[] updated) {
+        this.version = version;
+        this.columns = columns;
+        this.hashes = hashes;
+        // An index is reused when none of the updated users changed a value it covers
+        this.searchIndex = unchanged(previous, updated, UserSnapshot::sameNames)
+                ? previous.searchIndex
+                : UserSearchIndex.build(columns.size(), columns::firstName, columns::lastName, columns::username);
+        this.nameTrie = unchanged(previous, updated, UserSnapshot::sameNames)
+                ? previous.nameTrie
+                : NameTrie.build(columns.size(), columns::firstName, columns::lastName);
+        this.geoIndex = unchanged(previous, updated, UserSnapshot::sameCoordinates)
+                ? previous.geoIndex
+                : GeoIndex.build(columns.size(), columns::hasCoordinates, columns::latitude, columns::longitude);
+        this.usernameIndex = unchanged(previous, updated, UserSnapshot::sameUsername)
+                ? previous.usernameIndex
+                : UsernameIndex.build(columns.size(), columns::username);
+        for (RangeAttribute attribute : RangeAttribute.values()) {
+            rangeIndexes.put(attribute, unchanged(previous, updated, sameValue(attribute))
+                    ? previous.rangeIndexes.get(attribute)
+                    : RangeIndex.build(columns.size(),
+                            row -> attribute.has(columns, row), row -> attribute.value(columns, row)));
+        }
+        for (CategoryAttribute attribute : CategoryAttribute.values()) {
+            DictionaryColumn column = attribute.column(columns);
+            categoryIndexes.put(attribute, unchanged(previous, updated, sameValue(attribute))
+                    ? previous.categoryIndexes.get(attribute)
+                    : CategoryIndex.build(columns.size(), column::get));
+        }
+        if (previous != null) {
+            // Same ids at the same positions
+            this.idIndex = previous.idIndex;
+            this.allPositions = previous.allPositions;
+            this.idOrder = previous.idOrder;
+            this.sortedIds = previous.sortedIds;
+            this.withIds = previous.withIds;
+            previous.sortIndexes.forEach((field, index) -> {
+                if (unchanged(previous, updated, sameSortKey(field))) {
+                    sortIndexes.put(field, index);
+                }
+            });
+        } else {
+            this.idIndex = IdIndex.build(columns.size(), columns::hasId, columns::id);
+            this.allPositions = IntStream.range(0, columns.size()).toArray();
+            this.idOrder = sortById(columns);
+            this.withIds = (int) Arrays.stream(idOrder).filter(columns::hasId).count();
+            this.sortedIds = Arrays.stream(idOrder, 0, withIds).mapToLong(columns::id).toArray();
+        }
+    }
+
+    /**
+     * Build a snapshot and all of its indexes from the given users.
+     */
+    public static UserSnapshot of(List<User> users) {
+        Builder builder = builder();
+        builder.begin(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            builder.accept(i, users.get(i));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Builder that columnizes users as they arrive, so a snapshot can be
+     * filled while the upstream response is still being read.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Version derived from the snapshot content, so identical datasets share a
+     * version across reloads and restarts.
+     */
+    public long version() {
+        return version;
+    }
+
+    public int size() {
+        return columns.size();
+    }
+
+    /**
+     * Materialize the user at the given position. Each call builds a new
+     * instance from the columns.
+     */
+    public User user(int position) {
+        return columns.user(position);
+    }
+
+    /**
+     * Read-only list view that materializes users on access.
+     */
+    public List<User> users() {
+        return new UsersView();
+    }
+
+    public UserColumns columns() {
+        return columns;
+    }
+
+    public RangeIndex rangeIndex(RangeAttribute attribute) {
+        return rangeIndexes.get(attribute);
+    }
+
+    public CategoryIndex categoryIndex(CategoryAttribute attribute) {
+        return categoryIndexes.get(attribute);
+    }
+
+    /**
+     * Sort permutation for the field, built on first use and then kept for the
+     * lifetime of the snapshot.
+     */
+    public SortIndex sortIndex(UserSort.Field field) {
+        return sortIndexes.computeIfAbsent(field, this::buildSortIndex);
+    }
+
+    public UserSearchIndex searchIndex() {
+        return searchIndex;
+    }
+
+    /**
+     * Prefix and fuzzy search over the words of first and last names.
+     */
+    public NameTrie nameTrie() {
+        return nameTrie;
+    }
+
+    /**
+     * Spatial index over the address coordinates of users that have them.
+     */
+    public GeoIndex geoIndex() {
+        return geoIndex;
+    }
+
+    /**
+     * Great-circle distance from a point to the user at the given position,
+     * which must have coordinates.
+     */
+    public double distanceKm(int position, double latitude, double longitude) {
+        return GeoIndex.distanceKm(latitude, longitude, columns.latitude(position), columns.longitude(position));
+    }
+
+    /**
+     * Position of the user with the given id, found by hash lookup.
+     *
+     * @return Position, or -1 if no user has the id
+     */
+    public int positionOfId(long id) {
+        return idIndex.position(id);
+    }
+
+    /**
+     * Position of the user with the given username, ignoring case.
+     *
+     * @return Position, or -1 if no user has the username
+     */
+    public int positionOfUsername(String username) {
+        return usernameIndex.position(username);
+    }
+
+    /**
+     * Content hash of the user at the given position.
+     */
+    long hash(int position) {
+        return hashes[position];
+    }
+
+    /**
+     * Every position in upstream order. Shared, callers must not modify it.
+     */
+    public int[] allPositions() {
+        return allPositions;
+    }
+
+    /**
+     * Positions ordered by ascending user id, then by position; users without
+     * an id come last, by position, as with {@code sort=id}. Shared, callers
+     * must not modify it.
+     */
+    public int[] idOrder() {
+        return idOrder;
+    }
+
+    /**
+     * Index into {@link #idOrder()} of the first user after the given
+     * (id, position) key, found by binary search. The position breaks ties
+     * between users sharing an id, or lacking one.
+     *
+     * @param id       Id of the last user seen, or null if it had none
+     * @param position Position of the last user seen
+     */
+    public int firstAfter(Long id, int position) {
+        int low = id != null ? 0 : withIds;
+        int high = id != null ? withIds : idOrder.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            boolean after = id != null
+                    ? sortedIds[mid] > id || (sortedIds[mid] == id && idOrder[mid] > position)
+                    : idOrder[mid] > position;
+            if (after) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private SortIndex buildSortIndex(UserSort.Field field) {
+        return switch (field) {
+            case ID -> SortIndex.build(size(), columns::hasId, Comparator.comparingLong(columns::id));
+            case FIRST_NAME -> byText(columns::firstName);
+            case LAST_NAME -> byText(columns::lastName);
+            case USERNAME -> byText(columns::username);
+            case EMAIL -> byText(columns::email);
+            case AGE -> byValue(RangeAttribute.AGE);
+            case HEIGHT -> byValue(RangeAttribute.HEIGHT);
+            case WEIGHT -> byValue(RangeAttribute.WEIGHT);
+            case BIRTH_DATE -> byValue(RangeAttribute.BIRTH_DATE);
+        };
+    }
+
+    private SortIndex byText(IntFunction<String> value) {
+        IntPredicate present = row -> value.apply(row) != null;
+        return SortIndex.build(size(), present, Comparator.comparing(value::apply, String.CASE_INSENSITIVE_ORDER));
+    }
+
+    private SortIndex byValue(RangeAttribute attribute) {
+        return SortIndex.build(size(), row -> attribute.has(columns, row),
+                Comparator.comparingDouble(row -> attribute.value(columns, row)));
+    }
+
+    private boolean unchanged(UserSnapshot previous, int[] updated, RowEquality same) {
+        if (previous == null) {
+            return false;
+        }
+        for (int row : updated) {
+            if (!same.test(previous.columns, columns, row)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean sameNames(UserColumns before, UserColumns after, int row) {
+        return Objects.equals(before.firstName(row), after.firstName(row))
+                && Objects.equals(before.lastName(row), after.lastName(row))
+                && sameUsername(before, after, row);
+    }
+
+    private static boolean sameUsername(UserColumns before, UserColumns after, int row) {
+        return Objects.equals(before.username(row), after.username(row));
+    }
+
+    private static boolean sameCoordinates(UserColumns before, UserColumns after, int row) {
+        if (before.hasCoordinates(row) != after.hasCoordinates(row)) {
+            return false;
+        }
+        return !after.hasCoordinates(row)
+                || (Double.compare(before.latitude(row), after.latitude(row)) == 0
+                        && Double.compare(before.longitude(row), after.longitude(row)) == 0);
+    }
+
+    private static RowEquality sameValue(RangeAttribute attribute) {
+        return (before, after, row) -> attribute.has(before, row) == attribute.has(after, row)
+                && (!attribute.has(after, row)
+                        || Double.compare(attribute.value(before, row), attribute.value(after, row)) == 0);
+    }
+
+    private static RowEquality sameValue(CategoryAttribute attribute) {
+        return (before, after, row) -> Objects.equals(attribute.column(before).get(row),
+                attribute.column(after).get(row));
+    }
+
+    private static RowEquality sameSortKey(UserSort.Field field) {
+        return switch (field) {
+            case ID -> (before, after, row) -> true;
+            case FIRST_NAME -> (before, after, row) -> Objects.equals(before.firstName(row), after.firstName(row));
+            case LAST_NAME -> (before, after, row) -> Objects.equals(before.lastName(row), after.lastName(row));
+            case USERNAME -> UserSnapshot::sameUsername;
+            case EMAIL -> (before, after, row) -> Objects.equals(before.email(row), after.email(row));
+            case AGE -> sameValue(RangeAttribute.AGE);
+            case HEIGHT -> sameValue(RangeAttribute.HEIGHT);
+            case WEIGHT -> sameValue(RangeAttribute.WEIGHT);
+            case BIRTH_DATE -> sameValue(RangeAttribute.BIRTH_DATE);
+        };
+    }
+
+    private static int[] sortById(UserColumns columns) {
+        return IntStream.range(0, columns.size())
+                .boxed()
+                .sorted(Comparator.<Integer, Boolean>comparing(row -> !columns.hasId(row))
+                        .thenComparingLong(row -> columns.hasId(row) ? columns.id(row) : 0)
+                        .thenComparingInt(Integer::intValue))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    /**
+     * Collects users by position into preallocated columns. Users can be
+     * delivered concurrently and in any order; only the per-user hash is kept
+     * besides the columns, so the version is derived without holding on to the
+     * users themselves.
+     */
+    public static final class Builder implements UserSink {
+        private UserColumns.Builder columns;
+        private long[] hashes;
+        private BitSet delivered;
+        private SnapshotDelta delta;
+
+        private Builder() {
+        }
+
+        @Override
+        public synchronized void begin(int total) {
+            if (columns != null) {
+                throw new IllegalStateException("Snapshot builder already started");
+            }
+            columns = UserColumns.builder(total);
+            hashes = new long[total];
+            delivered = new BitSet(total);
+        }
+
+        @Override
+        public synchronized void accept(int position, User user) {
+            if (columns == null) {
+                throw new IllegalStateException("Snapshot builder not started");
+            }
+            columns.set(position, user);
+            hashes[position] = UserHash.of(user);
+            delivered.set(position);
+        }
+
+        /**
+         * Build the snapshot and its indexes. Positions that were never
+         * delivered are left out, keeping the remaining users in order.
+         */
+        public synchronized UserSnapshot build() {
+            return build(null);
+        }
+
+        /**
+         * Build the snapshot, diffing it against the one it replaces by user
+         * id and content hash. If nothing changed, {@code previous} itself is
+         * returned. If every user kept its position, indexes over values that
+         * no updated user changed are taken over from {@code previous};
+         * inserts, deletes and reordering shift positions, so those rebuild
+         * every index. {@link #delta()} reports the changes afterwards.
+         *
+         * @param previous Snapshot being replaced, or null to build from scratch
+         */
+        public synchronized UserSnapshot build(UserSnapshot previous) {
+            if (columns == null) {
+                throw new IllegalStateException("Snapshot builder not started");
+            }
+            UserColumns built = columns.build();
+            if (delivered.cardinality() < built.size()) {
+                // Rare: the upstream returned fewer users than it reported
+                Builder compacted = builder();
+                compacted.begin(delivered.cardinality());
+                int position = 0;
+                for (int row = delivered.nextSetBit(0); row >= 0; row = delivered.nextSetBit(row + 1)) {
+                    compacted.accept(position++, built.user(row));
+                }
+                UserSnapshot snapshot = compacted.build(previous);
+                delta = compacted.delta;
+                return snapshot;
+            }
+            long hash = 1125899906842597L;
+            for (long value : hashes) {
+                hash = 31 * hash + value;
+            }
+            delta = SnapshotDelta.between(previous, built, hashes);
+            if (previous != null && !delta.changed() && delta.positionsStable()) {
+                return previous;
+            }
+            return new UserSnapshot(hash, built, hashes, delta.positionsStable() ? previous : null,
+                    delta.updatedPositions());
+        }
+
+        /**
+         * Changes found by the last {@link #build(UserSnapshot)}; every user
+         * counts as inserted when there was no previous snapshot.
+         */
+        public synchronized SnapshotDelta delta() {
+            if (delta == null) {
+                throw new IllegalStateException("Snapshot not built yet");
+            }
+            return delta;
+        }
+    }
+
+    /**
+     * Whether a user's values covered by one index are the same in two
+     * column sets.
+     */
+    @FunctionalInterface
+    private interface RowEquality {
+        boolean test(UserColumns before, UserColumns after, int row);
+    }
+
+    private final class UsersView extends AbstractList<User> implements RandomAccess {
+        @Override
+        public User get(int index) {
+            return columns.user(index);
+        }
+
+        @Override
+        public int size() {
+            return columns.size();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.pagination.specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.pagination.index.PositionSets;
+import com.example.pagination.model.User;
+import com.example.pagination.snapshot.UserSnapshot;
+
+/**
+ * Specification satisfied when all of its parts are (AND logic).
+ * Nested AND specifications are flattened into a single array of parts.
+ */
+public final class AndSpecification implements UserSpecification {
+
+    private final UserSpecification[] parts;
+
+    private AndSpecification(UserSpecification[] parts) {
+        this.parts = parts;
+    }
+
+    /**
+     * Combine the given specifications, flattening nested AND specifications.
+     */
+    public static AndSpecification of(UserSpecification... specs) {
+        List<UserSpecification> flat = new ArrayList<>();
+        for (UserSpecification spec : specs) {
+            if (spec instanceof AndSpecification and) {
+                flat.addAll(List.of(and.parts));
+            } else {
+                flat.add(spec);
+            }
+        }
+        return new AndSpecification(flat.toArray(UserSpecification[]::new));
+    }
+
+    /**
+     * The flattened parts, in the order they were combined.
+     */
+    public List<UserSpecification> parts() {
+        return List.of(parts);
+    }
+
+    @Override
+    public boolean isSatisfiedBy(User user) {
+        for (UserSpecification part : parts) {
+            if (!part.isSatisfiedBy(user)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isSatisfiedBy(UserSnapshot snapshot, int position) {
+        for (UserSpecification part : parts) {
+            if (!part.isSatisfiedBy(snapshot, position)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int[] candidates(UserSnapshot snapshot) {
+        int[] candidates = null;
+        for (UserSpecification part : parts) {
+            int[] partCandidates = part.candidates(snapshot);
+            if (partCandidates != null) {
+                candidates = candidates == null ? partCandidates : PositionSets.intersect(candidates, partCandidates);
+            }
+        }
+        return candidates;
+    }
+
+    @Override
+    public double selectivity(UserSnapshot snapshot) {
+        double selectivity = 1.0;
+        for (UserSpecification part : parts) {
+            selectivity *= part.selectivity(snapshot);
+        }
+        return selectivity;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.pagination.specification;
+
+import com.example.pagination.model.User;
+import com.example.pagination.snapshot.CategoryAttribute;
+import com.example.pagination.snapshot.UserSnapshot;
+
+/**
+ * Specification for filtering users by the exact value of a categorical attribute.
+ * Case-insensitive.
+ */
+public class CategorySpecification implements UserSpecification {
+
+    private final CategoryAttribute attribute;
+    private final String value;
+
+    public CategorySpecification(CategoryAttribute attribute, String value) {
+        this.attribute = attribute;
+        this.value = value.trim().toLowerCase();
+    }
+
+    @Override
+    public boolean isSatisfiedBy(User user) {
+        String actual = attribute.value(user);
+        return actual != null && actual.toLowerCase().equals(value);
+    }
+
+    @Override
+    public boolean isSatisfiedBy(UserSnapshot snapshot, int position) {
+        return snapshot.categoryIndex(attribute).matches(position, value);
+    }
+
+    @Override
+    public int[] candidates(UserSnapshot snapshot) {
+        return snapshot.categoryIndex(attribute).positions(value);
+    }
+
+    @Override
+    public boolean exactCandidates() {
+        return true;
+    }
+
+    @Override
+    public int cost() {
+        return 0;
+    }
+}
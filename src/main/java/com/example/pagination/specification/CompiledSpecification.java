@@ -0,0 +1,160 @@
+package com.example.pagination.specification;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+import com.example.pagination.index.PositionSets;
+import com.example.pagination.snapshot.UserSnapshot;
+
+/**
+ * A set of specifications prepared for evaluation against one snapshot.
+ * <p>
+ * Compiling flattens nested AND specifications, resolves index candidates
+ * once, and orders the specifications by estimated selectivity so the one
+ * most likely to reject a user runs first. Testing a position is then a
+ * plain loop over an array, without streams or per-user allocation.
+ * <p>
+ * Specifications whose index candidates are exact, such as range and category
+ * filters, are fully answered by the candidate intersection and are skipped
+ * when filtering.
+ * <p>
+ * Callers that only test positions, stopping once a page is full, use
+ * {@link #predicate(UserSnapshot, List)} instead, which skips resolving
+ * candidates.
+ */
+public final class CompiledSpecification implements IntPredicate {
+
+    private final UserSnapshot snapshot;
+    private final UserSpecification[] specs;
+    private final UserSpecification[] residual;
+    private final int[] candidates;
+
+    private CompiledSpecification(UserSnapshot snapshot, UserSpecification[] specs, UserSpecification[] residual,
+            int[] candidates) {
+        this.snapshot = snapshot;
+        this.specs = specs;
+        this.residual = residual;
+        this.candidates = candidates;
+    }
+
+    /**
+     * Compile the specifications (combined with AND logic) for the snapshot.
+     */
+    public static CompiledSpecification compile(UserSnapshot snapshot, List<UserSpecification> specs) {
+        List<UserSpecification> flat = flatten(specs);
+
+        int size = Math.max(1, snapshot.size());
+        int[] candidates = null;
+        double[] estimates = new double[flat.size()];
+        boolean[] answered = new boolean[flat.size()];
+        for (int i = 0; i < flat.size(); i++) {
+            UserSpecification spec = flat.get(i);
+            int[] specCandidates = spec.candidates(snapshot);
+            if (specCandidates != null) {
+                candidates = candidates == null ? specCandidates : PositionSets.intersect(candidates, specCandidates);
+                estimates[i] = (double) specCandidates.length / size;
+                answered[i] = spec.exactCandidates();
+            } else {
+                estimates[i] = spec.selectivity(snapshot);
+            }
+        }
+
+        // Most selective first, so rejected users fail on the first check
+        Integer[] order = new Integer[flat.size()];
+        Arrays.setAll(order, i -> i);
+        Arrays.sort(order, Comparator.comparingDouble(i -> estimates[i]));
+        UserSpecification[] ordered = new UserSpecification[order.length];
+        List<UserSpecification> residual = new ArrayList<>();
+        for (int i = 0; i < order.length; i++) {
+            ordered[i] = flat.get(order[i]);
+            if (!answered[order[i]]) {
+                residual.add(ordered[i]);
+            }
+        }
+
+        return new CompiledSpecification(snapshot, ordered, residual.toArray(UserSpecification[]::new), candidates);
+    }
+
+    /**
+     * Prepare the specifications (combined with AND logic) as a per-position
+     * check only. No index candidates are resolved, so preparing costs nothing
+     * per user; cheapest checks run first, then the most selective.
+     * {@link #filter()} still works but scans every position.
+     */
+    public static CompiledSpecification predicate(UserSnapshot snapshot, List<UserSpecification> specs) {
+        UserSpecification[] ordered = flatten(specs).stream()
+                .sorted(Comparator.comparingInt(UserSpecification::cost)
+                        .thenComparingDouble(spec -> spec.selectivity(snapshot)))
+                .toArray(UserSpecification[]::new);
+        return new CompiledSpecification(snapshot, ordered, ordered, null);
+    }
+
+    private static List<UserSpecification> flatten(List<UserSpecification> specs) {
+        List<UserSpecification> flat = new ArrayList<>();
+        for (UserSpecification spec : specs) {
+            if (spec instanceof AndSpecification and) {
+                flat.addAll(and.parts());
+            } else {
+                flat.add(spec);
+            }
+        }
+        return flat;
+    }
+
+    /**
+     * Check the user at a snapshot position against every specification.
+     */
+    @Override
+    public boolean test(int position) {
+        for (UserSpecification spec : specs) {
+            if (!spec.isSatisfiedBy(snapshot, position)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Positions satisfying every specification, in upstream order.
+     *
+     * @return Matching positions. May be the snapshot's shared array, callers
+     *         must not modify it.
+     */
+    public int[] filter() {
+        if (specs.length == 0) {
+            return snapshot.allPositions();
+        }
+
+        int[] scan = candidates != null ? candidates : snapshot.allPositions();
+        if (residual.length == 0) {
+            return scan;
+        }
+        int[] matches = new int[scan.length];
+        int count = 0;
+        for (int position : scan) {
+            if (satisfiesResidual(position)) {
+                matches[count++] = position;
+            }
+        }
+        return count == matches.length ? matches : Arrays.copyOf(matches, count);
+    }
+
+    private boolean satisfiesResidual(int position) {
+        for (UserSpecification spec : residual) {
+            if (!spec.isSatisfiedBy(snapshot, position)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The specifications in evaluation order.
+     */
+    public List<UserSpecification> evaluationOrder() {
+        return List.of(specs);
+    }
+}
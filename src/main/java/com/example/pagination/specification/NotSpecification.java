@@ -0,0 +1,42 @@
+package com.example.pagination.specification;
+
+import com.example.pagination.model.User;
+import com.example.pagination.snapshot.UserSnapshot;
+
+/**
+ * Specification satisfied when the wrapped specification is not.
+ * Cannot be narrowed by an index, so it has no candidates.
+ */
+public final class NotSpecification implements UserSpecification {
+
+    private final UserSpecification spec;
+
+    public NotSpecification(UserSpecification spec) {
+        this.spec = spec;
+    }
+
+    @Override
+    public boolean isSatisfiedBy(User user) {
+        return !spec.isSatisfiedBy(user);
+    }
+
+    @Override
+    public boolean isSatisfiedBy(UserSnapshot snapshot, int position) {
+        return !spec.isSatisfiedBy(snapshot, position);
+    }
+
+    /**
+     * The complement of the wrapped estimate; stays unknown (1) when the wrapped
+     * selectivity is unknown.
+     */
+    @Override
+    public double selectivity(UserSnapshot snapshot) {
+        double wrapped = spec.selectivity(snapshot);
+        return wrapped >= 1.0 ? 1.0 : 1.0 - wrapped;
+    }
+
+    @Override
+    public UserSpecification not() {
+        return spec;
+    }
+}
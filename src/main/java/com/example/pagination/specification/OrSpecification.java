@@ -0,0 +1,82 @@
+package com.example.pagination.specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.pagination.index.PositionSets;
+import com.example.pagination.model.User;
+import com.example.pagination.snapshot.UserSnapshot;
+
+/**
+ * Specification satisfied when any of its parts is (OR logic).
+ * Nested OR specifications are flattened into a single array of parts.
+ */
+public final class OrSpecification implements UserSpecification {
+
+    private final UserSpecification[] parts;
+
+    private OrSpecification(UserSpecification[] parts) {
+        this.parts = parts;
+    }
+
+    /**
+     * Combine the given specifications, flattening nested OR specifications.
+     */
+    public static OrSpecification of(UserSpecification... specs) {
+        List<UserSpecification> flat = new ArrayList<>();
+        for (UserSpecification spec : specs) {
+            if (spec instanceof OrSpecification or) {
+                flat.addAll(List.of(or.parts));
+            } else {
+                flat.add(spec);
+            }
+        }
+        return new OrSpecification(flat.toArray(UserSpecification[]::new));
+    }
+
+    @Override
+    public boolean isSatisfiedBy(User user) {
+        for (UserSpecification part : parts) {
+            if (part.isSatisfiedBy(user)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isSatisfiedBy(UserSnapshot snapshot, int position) {
+        for (UserSpecification part : parts) {
+            if (part.isSatisfiedBy(snapshot, position)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The union of the parts' candidates, only available when every part can
+     * be narrowed by an index.
+     */
+    @Override
+    public int[] candidates(UserSnapshot snapshot) {
+        int[] candidates = new int[0];
+        for (UserSpecification part : parts) {
+            int[] partCandidates = part.candidates(snapshot);
+            if (partCandidates == null) {
+                return null;
+            }
+            candidates = PositionSets.union(candidates, partCandidates);
+        }
+        return candidates;
+    }
+
+    @Override
+    public double selectivity(UserSnapshot snapshot) {
+        double none = 1.0;
+        for (UserSpecification part : parts) {
+            none *= 1.0 - part.selectivity(snapshot);
+        }
+        return 1.0 - none;
+    }
+}
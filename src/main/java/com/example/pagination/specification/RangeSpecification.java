@@ -0,0 +1,52 @@
+package com.example.pagination.specification;
+
+import com.example.pagination.model.User;
+import com.example.pagination.snapshot.RangeAttribute;
+import com.example.pagination.snapshot.UserSnapshot;
+
+/**
+ * Specification for filtering users by an inclusive range of a numeric attribute.
+ * Either bound may be null; users without a value never match.
+ */
+public class RangeSpecification implements UserSpecification {
+
+    private final RangeAttribute attribute;
+    private final double min;
+    private final double max;
+
+    public RangeSpecification(RangeAttribute attribute, Double min, Double max) {
+        this.attribute = attribute;
+        this.min = min != null ? min : Double.NEGATIVE_INFINITY;
+        this.max = max != null ? max : Double.POSITIVE_INFINITY;
+    }
+
+    @Override
+    public boolean isSatisfiedBy(User user) {
+        Double value = attribute.value(user);
+        return value != null && value >= min && value <= max;
+    }
+
+    @Override
+    public boolean isSatisfiedBy(UserSnapshot snapshot, int position) {
+        if (!attribute.has(snapshot.columns(), position)) {
+            return false;
+        }
+        double value = attribute.value(snapshot.columns(), position);
+        return value >= min && value <= max;
+    }
+
+    @Override
+    public int[] candidates(UserSnapshot snapshot) {
+        return snapshot.rangeIndex(attribute).candidates(min, max);
+    }
+
+    @Override
+    public boolean exactCandidates() {
+        return true;
+    }
+
+    @Override
+    public int cost() {
+        return 0;
+    }
+}
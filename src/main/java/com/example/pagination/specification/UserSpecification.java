@@ -1,6 +1,7 @@
 package com.example.pagination.specification;
 
 import com.example.pagination.model.User;
+import com.example.pagination.snapshot.UserSnapshot;
 
 /**
  * Functional interface for user specifications.
@@ -15,11 +16,72 @@ public interface UserSpecification {
      * @return true if satisfied, false otherwise
      */
     boolean isSatisfiedBy(User user);
+
+    /**
+     * Check the user at a snapshot position.
+     * Indexed specifications override this to use pre-normalized snapshot data.
+     */
+    default boolean isSatisfiedBy(UserSnapshot snapshot, int position) {
+        return isSatisfiedBy(snapshot.user(position));
+    }
+
+    /**
+     * Narrow the snapshot to the positions that may satisfy this specification.
+     * Candidates are still checked with {@link #isSatisfiedBy(UserSnapshot, int)}.
+     *
+     * @return Sorted candidate positions, or null if no index applies
+     */
+    default int[] candidates(UserSnapshot snapshot) {
+        return null;
+    }
+
+    /**
+     * Whether {@link #candidates(UserSnapshot)} returns exactly the matching
+     * positions, so they need no further check when filtering.
+     */
+    default boolean exactCandidates() {
+        return false;
+    }
+
+    /**
+     * Estimated fraction of snapshot users that satisfy this specification,
+     * used to evaluate the most selective specifications first.
+     * Only consulted when no candidates are available.
+     *
+     * @return A value between 0 and 1, 1 when unknown
+     */
+    default double selectivity(UserSnapshot snapshot) {
+        return 1.0;
+    }
+
+    /**
+     * Relative cost of one {@link #isSatisfiedBy(UserSnapshot, int)} check,
+     * used to order checks when candidates are not resolved: 0 for a column
+     * or index lookup, 1 for a search of pre-normalized text, 2 when the user
+     * has to be rebuilt.
+     */
+    default int cost() {
+        return 2;
+    }
     
     /**
      * Combine with another specification (AND logic).
      */
     default UserSpecification and(UserSpecification other) {
-        return user -> this.isSatisfiedBy(user) && other.isSatisfiedBy(user);
+        return AndSpecification.of(this, other);
+    }
+
+    /**
+     * Combine with another specification (OR logic).
+     */
+    default UserSpecification or(UserSpecification other) {
+        return OrSpecification.of(this, other);
+    }
+
+    /**
+     * Negate this specification.
+     */
+    default UserSpecification not() {
+        return new NotSpecification(this);
     }
 }
@@ -2,9 +2,15 @@ package com.example.pagination.specification;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.IntPredicate;
 
+import com.example.pagination.dto.UserAttributeFilter;
+import com.example.pagination.dto.UserFilter;
 import com.example.pagination.dto.UserQuery;
 import com.example.pagination.model.User;
+import com.example.pagination.snapshot.CategoryAttribute;
+import com.example.pagination.snapshot.RangeAttribute;
+import com.example.pagination.snapshot.UserSnapshot;
 
 /**
  * Factory to create a composite specification based on UserQuery.
@@ -18,20 +24,61 @@ public class UserSpecificationFactory {
      * @return A single UserSpecification combining all filters
      */
     public static UserSpecification build(UserQuery query) {
+        List<UserSpecification> specs = specifications(query.filter());
+
+        // Combine all specifications
+        return AndSpecification.of(specs.toArray(UserSpecification[]::new));
+    }
+
+    /**
+     * Active specifications for the filter, in declaration order.
+     */
+    static List<UserSpecification> specifications(UserFilter filter) {
         List<UserSpecification> specs = new ArrayList<>();
 
         // 1. Filter by Name (if exists)
-        if (query.hasNameFilter()) {
-            specs.add(new NameSpecification(query.name()));
+        if (filter.hasNameFilter()) {
+            specs.add(new NameSpecification(filter.name()));
         }
 
         // 2. Filter by Username (if exists)
-        if (query.hasUsernameFilter()) {
-            specs.add(new UsernameSpecification(query.username()));
+        if (filter.hasUsernameFilter()) {
+            specs.add(new UsernameSpecification(filter.username()));
         }
 
-        // Combine all specifications
-        return user -> specs.stream().allMatch(spec -> spec.isSatisfiedBy(user));
+        // 3. Filter by attribute ranges and exact values (if any)
+        UserAttributeFilter attributes = filter.attributes();
+        if (attributes.hasAgeFilter()) {
+            specs.add(new RangeSpecification(RangeAttribute.AGE, toDouble(attributes.minAge()),
+                    toDouble(attributes.maxAge())));
+        }
+        if (attributes.hasHeightFilter()) {
+            specs.add(new RangeSpecification(RangeAttribute.HEIGHT, attributes.minHeight(), attributes.maxHeight()));
+        }
+        if (attributes.hasWeightFilter()) {
+            specs.add(new RangeSpecification(RangeAttribute.WEIGHT, attributes.minWeight(), attributes.maxWeight()));
+        }
+        if (attributes.hasBirthDateFilter()) {
+            specs.add(new RangeSpecification(RangeAttribute.BIRTH_DATE,
+                    attributes.bornFrom() != null ? (double) attributes.bornFrom().toEpochDay() : null,
+                    attributes.bornTo() != null ? (double) attributes.bornTo().toEpochDay() : null));
+        }
+        addCategory(specs, CategoryAttribute.ROLE, attributes.role());
+        addCategory(specs, CategoryAttribute.BLOOD_GROUP, attributes.bloodGroup());
+        addCategory(specs, CategoryAttribute.DEPARTMENT, attributes.department());
+        addCategory(specs, CategoryAttribute.COUNTRY, attributes.country());
+
+        return specs;
+    }
+
+    private static void addCategory(List<UserSpecification> specs, CategoryAttribute attribute, String value) {
+        if (value != null) {
+            specs.add(new CategorySpecification(attribute, value));
+        }
+    }
+
+    private static Double toDouble(Integer value) {
+        return value != null ? value.doubleValue() : null;
     }
 
     /**
@@ -43,4 +90,52 @@ public class UserSpecificationFactory {
                 .filter(spec::isSatisfiedBy)
                 .toList();
     }
+
+    /**
+     * Filter a snapshot using its indexes.
+     * Candidate positions from every indexed specification are intersected first,
+     * then only the survivors are checked against the pre-normalized fields,
+     * most selective specification first.
+     *
+     * @return Matching snapshot positions in upstream order. May be the
+     *         snapshot's shared array, callers must not modify it.
+     */
+    public static int[] filter(UserSnapshot snapshot, UserQuery query) {
+        return filter(snapshot, query.filter());
+    }
+
+    /**
+     * Filter a snapshot using its indexes.
+     *
+     * @see #filter(UserSnapshot, UserQuery)
+     */
+    public static int[] filter(UserSnapshot snapshot, UserFilter filter) {
+        return compile(snapshot, filter).filter();
+    }
+
+    /**
+     * Compile the filter's specifications for the snapshot.
+     */
+    public static CompiledSpecification compile(UserSnapshot snapshot, UserFilter filter) {
+        return CompiledSpecification.compile(snapshot, specifications(filter));
+    }
+
+    /**
+     * Build a predicate over snapshot positions for the query, for callers that
+     * walk the snapshot in their own order instead of filtering it up front.
+     * Index candidates are not resolved, so a walk that stops after a page
+     * only pays for the positions it tests.
+     */
+    public static IntPredicate matcher(UserSnapshot snapshot, UserQuery query) {
+        return matcher(snapshot, query.filter());
+    }
+
+    /**
+     * Build a predicate over snapshot positions for the filter.
+     *
+     * @see #matcher(UserSnapshot, UserQuery)
+     */
+    public static IntPredicate matcher(UserSnapshot snapshot, UserFilter filter) {
+        return CompiledSpecification.predicate(snapshot, specifications(filter));
+    }
 }
@@ -1,6 +1,7 @@
 package com.example.pagination.specification;
 
 import com.example.pagination.model.User;
+import com.example.pagination.snapshot.UserSnapshot;
 
 /**
  * Specification for filtering users by username.
@@ -25,4 +26,37 @@ public class UsernameSpecification implements UserSpecification {
 
         return username.contains(searchTerm);
     }
+
+    @Override
+    public boolean isSatisfiedBy(UserSnapshot snapshot, int position) {
+        if (searchTerm == null || searchTerm.isEmpty()) {
+            return true;
+        }
+        return snapshot.searchIndex().usernameContains(position, searchTerm);
+    }
+
+    @Override
+    public int[] candidates(UserSnapshot snapshot) {
+        if (searchTerm == null || searchTerm.isEmpty()) {
+            return null;
+        }
+        return snapshot.searchIndex().usernameCandidates(searchTerm);
+    }
+
+    /**
+     * Rough estimate for terms too short for the trigram index: longer terms
+     * match fewer users.
+     */
+    @Override
+    public double selectivity(UserSnapshot snapshot) {
+        if (searchTerm == null || searchTerm.isEmpty()) {
+            return 1.0;
+        }
+        return searchTerm.length() == 1 ? 0.5 : 0.1;
+    }
+
+    @Override
+    public int cost() {
+        return 1;
+    }
 }
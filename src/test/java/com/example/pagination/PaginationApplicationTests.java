@@ -1,13 +1,27 @@
 package com.example.pagination;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcProperties;
 import org.springframework.boot.test.context.SpringBootTest;
 
 @SpringBootTest
 class PaginationApplicationTests {
 
+	@Autowired
+	private WebMvcProperties webMvcProperties;
+
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void exportStreamsOutlastTheContainerAsyncTimeout() {
+		assertEquals(Duration.ofMinutes(10), webMvcProperties.getAsync().getRequestTimeout());
+	}
+
 }
@@ -0,0 +1,83 @@
+package com.example.pagination.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+
+    @Test
+    void testExecute_ConcurrentCallersShareOneLoad() throws Exception {
+        // Given
+        int callers = 10;
+        AtomicInteger loaderCalls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("users", () -> {
+                    loaderCalls.incrementAndGet();
+                    await(release);
+                    return 42;
+                })));
+            }
+
+            // When (All but the leader are waiting on the in-flight load)
+            awaitCondition(() -> singleFlight.coalescedWaiters() == callers - 1);
+            release.countDown();
+
+            // Then
+            for (Future<Integer> result : results) {
+                assertEquals(42, result.get(5, TimeUnit.SECONDS));
+            }
+        }
+        assertEquals(1, loaderCalls.get());
+        assertEquals(1, singleFlight.loads());
+        assertEquals(callers - 1, singleFlight.coalescedWaiters());
+        assertEquals(0, singleFlight.inFlight());
+    }
+
+    @Test
+    void testExecute_FailureIsSharedAndKeyIsReleased() {
+        // Given
+        RuntimeException failure = new IllegalStateException("upstream down");
+
+        // When & Then
+        assertSame(failure, assertThrows(IllegalStateException.class,
+                () -> singleFlight.execute("users", () -> {
+                    throw failure;
+                })));
+        assertEquals(0, singleFlight.inFlight());
+        assertEquals(7, singleFlight.execute("users", () -> 7));
+        assertEquals(2, singleFlight.loads());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.pagination.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.pagination.config.properties.CacheProperties;
+import com.example.pagination.model.User;
+import com.example.pagination.snapshot.UserSnapshot;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class SnapshotStoreTest {
+
+    private static final Instant LOADED_AT = Instant.parse("2024-05-01T12:00:00Z");
+
+    @TempDir
+    private Path directory;
+
+    private Path file;
+    private SnapshotStore store;
+
+    @BeforeEach
+    void setUp() {
+        file = directory.resolve("nested").resolve("users.snapshot");
+        store = storeAt(file.toString());
+    }
+
+    @Test
+    void testSaveAndLoad_RoundTripsUsers() {
+        // Given
+        User user = new User(1L, "Emily", "Johnson", 28, "emily@x.dummyjson.com", "+81 965-431-3024", "emilys",
+                "1996-5-30", null, "O-", 193.24, 63.16, "Green", new User.Hair("Brown", "Curly"), "42.48.100.32",
+                new User.Address("626 Main Street", "Phoenix", "Mississippi", "MS", "29112",
+                        new User.Address.Coordinates(-77.16213, -92.084824), "United States"),
+                null, "University of Wisconsin", null,
+                new User.Company("Engineering", "Dooley, Kozey and Cronin", "Sales Manager", null), null, null, null,
+                new User.Crypto("Bitcoin", "0xb9fc2fe63b2a6c003f1c324c3bfa53259162181a", "Ethereum (ERC20)"), "admin");
+        UserSnapshot snapshot = UserSnapshot.of(List.of(user, user(2L), user(3L)));
+
+        // When
+        store.save(snapshot, LOADED_AT);
+        Optional<SnapshotStore.StoredSnapshot> loaded = storeAt(file.toString()).load();
+
+        // Then
+        assertTrue(loaded.isPresent());
+        assertEquals(snapshot.version(), loaded.get().snapshot().version());
+        assertEquals(snapshot.users(), loaded.get().snapshot().users());
+        assertEquals(LOADED_AT, loaded.get().loadedAt());
+    }
+
+    @Test
+    void testLoad_MissingFileOrDisabled() {
+        // When / Then
+        assertTrue(store.load().isEmpty());
+        assertFalse(storeAt(null).isEnabled());
+        assertTrue(storeAt(null).load().isEmpty());
+    }
+
+    @Test
+    void testLoad_TruncatedFileRejected() throws IOException {
+        // Given
+        store.save(UserSnapshot.of(List.of(user(1L), user(2L))), LOADED_AT);
+        byte[] content = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(content, content.length - 10));
+
+        // When / Then
+        assertTrue(storeAt(file.toString()).load().isEmpty());
+    }
+
+    @Test
+    void testLoad_UnknownFormatRejected() throws IOException {
+        // Given
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "not a snapshot file");
+
+        // When / Then
+        assertTrue(store.load().isEmpty());
+    }
+
+    @Test
+    void testSave_SameVersionOnlyUpdatesLoadTime() throws IOException {
+        // Given
+        UserSnapshot snapshot = UserSnapshot.of(List.of(user(1L)));
+        store.save(snapshot, LOADED_AT);
+        byte[] before = Files.readAllBytes(file);
+        Instant reloadedAt = LOADED_AT.plusSeconds(600);
+
+        // When
+        store.save(UserSnapshot.of(List.of(user(1L))), reloadedAt);
+
+        // Then (Records are left as they are, only the header's load time moves)
+        byte[] after = Files.readAllBytes(file);
+        assertEquals(before.length, after.length);
+        assertArrayEquals(Arrays.copyOfRange(before, 24, before.length), Arrays.copyOfRange(after, 24, after.length));
+        assertEquals(reloadedAt, storeAt(file.toString()).load().orElseThrow().loadedAt());
+    }
+
+    private static SnapshotStore storeAt(String path) {
+        CacheProperties properties = new CacheProperties();
+        properties.setSnapshotPath(path);
+        return new SnapshotStore(properties, new ObjectMapper());
+    }
+
+    private static User user(long id) {
+        return new User(id, "First" + id, "Last" + id, 30, null, null, "user" + id, null, null, null, null, null,
+                null, null, null, null, null, null, null, null, null, null, null, null, "user");
+    }
+}
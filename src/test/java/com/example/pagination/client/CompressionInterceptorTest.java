@@ -0,0 +1,87 @@
+package com.example.pagination.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestClient;
+
+class CompressionInterceptorTest {
+
+    private static final String URL = "https://upstream.test/users";
+    private static final String BODY = "{\"users\":[{\"id\":1,\"firstName\":\"Emily\"}],\"total\":1}";
+
+    private MockRestServiceServer server;
+    private RestClient restClient;
+
+    @BeforeEach
+    void setUp() {
+        RestClient.Builder builder = RestClient.builder().requestInterceptor(new CompressionInterceptor());
+        server = MockRestServiceServer.bindTo(builder).build();
+        restClient = builder.build();
+    }
+
+    @Test
+    void testIntercept_DecompressesGzipResponse() throws IOException {
+        // Given
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        server.expect(requestTo(URL))
+                .andExpect(header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andRespond(withSuccess(gzip(BODY), MediaType.APPLICATION_JSON).headers(headers));
+
+        // When
+        String body = restClient.get().uri(URL).retrieve().body(String.class);
+
+        // Then
+        assertEquals(BODY, body);
+        server.verify();
+    }
+
+    @Test
+    void testIntercept_PassesThroughIdentityResponse() {
+        // Given
+        server.expect(requestTo(URL)).andRespond(withSuccess(BODY, MediaType.APPLICATION_JSON));
+
+        // When
+        String body = restClient.get().uri(URL).retrieve().body(String.class);
+
+        // Then
+        assertEquals(BODY, body);
+        server.verify();
+    }
+
+    @Test
+    void testIntercept_KeepsExplicitAcceptEncoding() {
+        // Given
+        server.expect(requestTo(URL))
+                .andExpect(header(HttpHeaders.ACCEPT_ENCODING, "identity"))
+                .andRespond(withSuccess(BODY, MediaType.APPLICATION_JSON));
+
+        // When
+        String body = restClient.get().uri(URL).header(HttpHeaders.ACCEPT_ENCODING, "identity").retrieve()
+                .body(String.class);
+
+        // Then
+        assertEquals(BODY, body);
+        server.verify();
+    }
+
+    private static byte[] gzip(String value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(value.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,314 @@
+package com.example.pagination.client.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestClient;
+
+import com.example.pagination.client.UpstreamGuard;
+import com.example.pagination.client.UserSink;
+import com.example.pagination.config.properties.ExternalApiProperties;
+import com.example.pagination.config.properties.ExternalApiProperties.FetchMode;
+import com.example.pagination.exception.ExternalApiException;
+import com.example.pagination.metrics.ResponseSizeInterceptor;
+import com.example.pagination.metrics.UserMetrics;
+import com.example.pagination.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ExternalApiClientImplTest {
+
+    private static final String BASE_URL = "https://upstream.test";
+
+    private MockRestServiceServer server;
+    private ExternalApiProperties properties;
+    private SimpleMeterRegistry registry;
+    private RestClient restClient;
+    private UserMetrics metrics;
+    private ExternalApiClientImpl client;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new UserMetrics(registry);
+        RestClient.Builder builder = RestClient.builder().requestInterceptor(new ResponseSizeInterceptor(metrics));
+        server = MockRestServiceServer.bindTo(builder).ignoreExpectOrder(true).build();
+
+        properties = new ExternalApiProperties();
+        properties.setBaseUrl(BASE_URL);
+        properties.setUsersEndpoint("/users");
+        properties.setPageSize(10);
+        properties.setMaxConcurrentRequests(2);
+        properties.getResilience().setMaxAttempts(1);
+        properties.getResilience().setInitialBackoffMillis(1);
+
+        restClient = builder.build();
+        client = newClient();
+    }
+
+    @Test
+    void testFetchAllUsers_ParallelMergesPagesInOrder() {
+        // Given
+        expectPage(0, 10, 25);
+        expectPage(10, 10, 25);
+        expectPage(20, 10, 25);
+
+        // When
+        List<User> users = client.fetchAllUsers();
+
+        // Then
+        assertEquals(25, users.size());
+        assertEquals(IntStream.rangeClosed(1, 25).mapToObj(Long::valueOf).toList(),
+                users.stream().map(User::id).toList());
+        server.verify();
+    }
+
+    @Test
+    void testFetchAllUsers_StepsByCappedUpstreamLimit() {
+        // Given (Upstream returns only 5 users even though 10 were requested)
+        properties.setPageSize(10);
+        server.expect(requestTo(url(0, 10))).andRespond(withSuccess(page(0, 5, 12), MediaType.APPLICATION_JSON));
+        expectPage(5, 5, 12);
+        server.expect(requestTo(url(10, 5))).andRespond(withSuccess(page(10, 2, 12), MediaType.APPLICATION_JSON));
+
+        // When
+        List<User> users = client.fetchAllUsers();
+
+        // Then
+        assertEquals(12, users.size());
+        assertEquals(12L, users.get(11).id());
+        server.verify();
+    }
+
+    @Test
+    void testFetchAllUsers_SingleModeFetchesFirstPageOnly() {
+        // Given
+        properties.setFetchMode(FetchMode.SINGLE);
+        expectPage(0, 10, 25);
+
+        // When
+        List<User> users = client.fetchAllUsers();
+
+        // Then
+        assertEquals(10, users.size());
+        server.verify();
+    }
+
+    @Test
+    void testFetchAllUsers_RecordsPayloadAndRecordCount() {
+        // Given
+        expectPage(0, 10, 25);
+        expectPage(10, 10, 25);
+        expectPage(20, 10, 25);
+        long expectedBytes = page(0, 10, 25).length() + page(10, 10, 25).length() + page(20, 5, 25).length();
+
+        // When
+        client.fetchAllUsers();
+
+        // Then
+        assertEquals(25.0, registry.get("users.upstream.records").gauge().value());
+        assertEquals(expectedBytes, registry.get("users.upstream.payload.size").gauge().value());
+        assertEquals(3, registry.get("users.upstream.response.size").summary().count());
+        assertEquals(1, registry.get("users.upstream.fetch").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void testFetchAllUsers_StreamsUsersIntoSinkByPosition() {
+        // Given
+        expectPage(0, 10, 25);
+        expectPage(10, 10, 25);
+        expectPage(20, 10, 25);
+        User[] received = new User[25];
+        int[] begun = new int[1];
+
+        // When
+        int delivered = client.fetchAllUsers(new UserSink() {
+            @Override
+            public void begin(int total) {
+                begun[0] = total;
+            }
+
+            @Override
+            public synchronized void accept(int position, User user) {
+                received[position] = user;
+            }
+        });
+
+        // Then
+        assertEquals(25, begun[0]);
+        assertEquals(25, delivered);
+        for (int i = 0; i < 25; i++) {
+            assertEquals(i + 1L, received[i].id());
+        }
+    }
+
+    @Test
+    void testFetchAllUsers_SkipsUnknownFieldsAndNullUsers() {
+        // Given (Extra fields around and inside the users array, total after it)
+        properties.setFetchMode(FetchMode.SINGLE);
+        String body = "{\"meta\":{\"source\":[1,2,{\"x\":null}]},\"users\":[{\"id\":1,\"tags\":[\"a\"],"
+                + "\"firstName\":\"Emily\"},null,{\"id\":2}],\"total\":2,\"skip\":0,\"limit\":3}";
+        server.expect(requestTo(url(0, 10))).andRespond(withSuccess(body, MediaType.APPLICATION_JSON));
+
+        // When
+        List<User> users = client.fetchAllUsers();
+
+        // Then
+        assertEquals(List.of(1L, 2L), users.stream().map(User::id).toList());
+        assertEquals("Emily", users.get(0).firstName());
+    }
+
+    @Test
+    void testFetchAllUsers_MissingUsersThrowsExternalApiException() {
+        // Given
+        server.expect(requestTo(url(0, 10))).andRespond(withSuccess("{\"total\":0}", MediaType.APPLICATION_JSON));
+
+        // When & Then
+        assertThrows(ExternalApiException.class, () -> client.fetchAllUsers());
+    }
+
+    @Test
+    void testFetchAllUsers_FailedPageThrowsExternalApiException() {
+        // Given
+        expectPage(0, 10, 25);
+        expectPage(10, 10, 25);
+        server.expect(requestTo(url(20, 10))).andExpect(method(HttpMethod.GET)).andRespond(withServerError());
+
+        // When & Then
+        assertThrows(ExternalApiException.class, () -> client.fetchAllUsers());
+        assertEquals(1, registry.get("users.upstream.fetch").tag("outcome", "error").timer().count());
+    }
+
+    @Test
+    void testFetchAllUsers_RetriesServerErrorWithBackoff() {
+        // Given
+        properties.setFetchMode(FetchMode.SINGLE);
+        properties.getResilience().setMaxAttempts(3);
+        UpstreamGuard guard = UpstreamGuard.of(properties.getResilience());
+        client = new ExternalApiClientImpl(restClient, properties, metrics, guard, new ObjectMapper());
+        server.expect(requestTo(url(0, 10))).andRespond(withServerError());
+        server.expect(requestTo(url(0, 10))).andRespond(withServerError());
+        expectPage(0, 10, 10);
+
+        // When
+        List<User> users = client.fetchAllUsers();
+
+        // Then
+        assertEquals(10, users.size());
+        assertEquals(1, guard.retry().getMetrics().getNumberOfSuccessfulCallsWithRetryAttempt());
+        server.verify();
+    }
+
+    @Test
+    void testFetchAllUsers_RetriedFirstPageFailingMidBodyKeepsPositions() {
+        // Given (The first attempt breaks off after three users)
+        properties.getResilience().setMaxAttempts(2);
+        client = newClient();
+        String body = page(0, 10, 25);
+        String partial = body.substring(0, body.indexOf("{\"id\":4"));
+        server.expect(requestTo(url(0, 10))).andRespond(request -> {
+            MockClientHttpResponse response = new MockClientHttpResponse(truncated(partial), HttpStatus.OK);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            return response;
+        });
+        expectPage(0, 10, 25);
+        expectPage(10, 10, 25);
+        expectPage(20, 10, 25);
+
+        // When
+        List<User> users = client.fetchAllUsers();
+
+        // Then
+        assertEquals(IntStream.rangeClosed(1, 25).mapToObj(Long::valueOf).toList(),
+                users.stream().map(User::id).toList());
+        server.verify();
+    }
+
+    @Test
+    void testFetchAllUsers_ClientErrorNotRetried() {
+        // Given
+        properties.getResilience().setMaxAttempts(3);
+        client = newClient();
+        server.expect(requestTo(url(0, 10))).andRespond(withStatus(HttpStatus.NOT_FOUND));
+
+        // When & Then
+        assertThrows(ExternalApiException.class, () -> client.fetchAllUsers());
+        server.verify();
+    }
+
+    @Test
+    void testFetchAllUsers_OpenCircuitFailsFastWithoutCallingUpstream() {
+        // Given (Two failures in a window of two open the circuit)
+        properties.getResilience().setSlidingWindowSize(2);
+        properties.getResilience().setMinimumCalls(2);
+        UpstreamGuard guard = UpstreamGuard.of(properties.getResilience());
+        client = new ExternalApiClientImpl(restClient, properties, metrics, guard, new ObjectMapper());
+        server.expect(ExpectedCount.times(2), requestTo(url(0, 10))).andRespond(withServerError());
+        assertThrows(ExternalApiException.class, () -> client.fetchAllUsers());
+        assertThrows(ExternalApiException.class, () -> client.fetchAllUsers());
+
+        // When
+        ExternalApiException exception = assertThrows(ExternalApiException.class, () -> client.fetchAllUsers());
+
+        // Then
+        assertEquals(CircuitBreaker.State.OPEN, guard.circuitBreaker().getState());
+        assertTrue(exception.getMessage().contains("circuit breaker is open"));
+        server.verify();
+    }
+
+    private ExternalApiClientImpl newClient() {
+        return new ExternalApiClientImpl(restClient, properties, metrics, UpstreamGuard.of(properties.getResilience()),
+                new ObjectMapper());
+    }
+
+    private void expectPage(int skip, int limit, int total) {
+        int count = Math.min(limit, total - skip);
+        server.expect(requestTo(url(skip, limit)))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess(page(skip, count, total), MediaType.APPLICATION_JSON));
+    }
+
+    /**
+     * Body that yields the given text, then fails as a dropped connection would.
+     */
+    private static InputStream truncated(String text) {
+        return new SequenceInputStream(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)),
+                new InputStream() {
+                    @Override
+                    public int read() throws IOException {
+                        throw new IOException("Connection reset");
+                    }
+                });
+    }
+
+    private static String url(int skip, int limit) {
+        return BASE_URL + "/users?limit=" + limit + "&skip=" + skip;
+    }
+
+    private static String page(int skip, int count, int total) {
+        String users = IntStream.range(skip, skip + count)
+                .mapToObj(i -> "{\"id\":" + (i + 1) + ",\"firstName\":\"First" + (i + 1) + "\"}")
+                .collect(Collectors.joining(","));
+        return "{\"users\":[" + users + "],\"total\":" + total + ",\"skip\":" + skip + ",\"limit\":" + count + "}";
+    }
+}
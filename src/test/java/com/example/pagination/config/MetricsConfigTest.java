@@ -0,0 +1,36 @@
+package com.example.pagination.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.pagination.client.UpstreamGuard;
+import com.example.pagination.config.properties.ExternalApiProperties;
+import com.example.pagination.exception.ExternalApiException;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class MetricsConfigTest {
+
+    @Test
+    void testUpstreamGuardMetrics_RejectionsSurviveStateTransitions() {
+        // Given
+        UpstreamGuard guard = UpstreamGuard.of(new ExternalApiProperties().getResilience());
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new MetricsConfig().upstreamGuardMetrics(guard).bindTo(registry);
+        CircuitBreaker circuitBreaker = guard.circuitBreaker();
+
+        // When (Rejected while open, then the circuit closes and its own metrics reset)
+        circuitBreaker.transitionToOpenState();
+        assertThrows(ExternalApiException.class, () -> guard.call(() -> "users"));
+        assertThrows(ExternalApiException.class, () -> guard.call(() -> "users"));
+        circuitBreaker.transitionToClosedState();
+        guard.call(() -> "users");
+
+        // Then
+        assertEquals(0, circuitBreaker.getMetrics().getNumberOfNotPermittedCalls());
+        assertEquals(2, registry.get("users.upstream.circuit.rejected").counter().count());
+        assertEquals(1, registry.get("users.upstream.circuit.state").tag("state", "closed").gauge().value());
+    }
+}
@@ -0,0 +1,360 @@
+package com.example.pagination.controller;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.json.JsonCompareMode;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.example.pagination.dto.FacetsResponse;
+import com.example.pagination.dto.GeoQuery;
+import com.example.pagination.dto.NameQuery;
+import com.example.pagination.dto.NearbyUser;
+import com.example.pagination.dto.PaginationResponse;
+import com.example.pagination.dto.UserAttributeFilter;
+import com.example.pagination.dto.UserBatchRequest;
+import com.example.pagination.dto.UserBatchResponse;
+import com.example.pagination.dto.UserFilter;
+import com.example.pagination.dto.UserQuery;
+import com.example.pagination.dto.UserSort;
+import com.example.pagination.exception.UserNotFoundException;
+import com.example.pagination.model.User;
+import com.example.pagination.service.UserService;
+
+@WebMvcTest(UserController.class)
+class UserControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private UserService userService;
+
+    @Test
+    void testExportUsers_WritesOneJsonObjectPerLine() throws Exception {
+        // Given
+        when(userService.streamUsers(new UserFilter("emily", null)))
+                .thenReturn(Stream.of(user(1L, "Emily"), user(7L, "Emilia")));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/users/export")
+                .param("name", " Emily ")
+                .param("fields", "id,firstName"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string("{\"id\":1,\"firstName\":\"Emily\"}\n{\"id\":7,\"firstName\":\"Emilia\"}\n"));
+    }
+
+    @Test
+    void testExportUsers_EmptyResultWritesEmptyBody() throws Exception {
+        // Given
+        when(userService.streamUsers(new UserFilter(null, null))).thenReturn(Stream.empty());
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/users/export")).andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void testExportUsers_UnknownFieldIsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/users/export").param("fields", "password"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Unknown field 'password'"));
+    }
+
+    @Test
+    void testGetUsers_StaleDataCarriesWarningAndAge() throws Exception {
+        // Given
+        when(userService.getUsers(UserQuery.of(null, null, 1, 10)))
+                .thenReturn(new PaginationResponse<>(1, 10, 1, 1, List.of(user(1L, "Emily"))));
+        when(userService.staleAge()).thenReturn(Optional.of(Duration.ofSeconds(754)));
+
+        // When & Then
+        mockMvc.perform(get("/api/users"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Warning", "110 - \"Response is Stale\""))
+                .andExpect(header().string("Age", "754"));
+    }
+
+    @Test
+    void testGetUsers_FreshDataHasNoStaleHeaders() throws Exception {
+        // Given
+        when(userService.getUsers(UserQuery.of(null, null, 1, 10)))
+                .thenReturn(new PaginationResponse<>(1, 10, 1, 1, List.of(user(1L, "Emily"))));
+
+        // When & Then
+        mockMvc.perform(get("/api/users"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Warning"))
+                .andExpect(header().doesNotExist("Age"));
+    }
+
+    @Test
+    void testGetUsers_CarriesETagAndMaxAgeOfRemainingTtl() throws Exception {
+        // Given
+        when(userService.getUsers(UserQuery.of(null, null, 1, 10)))
+                .thenReturn(new PaginationResponse<>(1, 10, 1, 1, List.of(user(1L, "Emily"))));
+        when(userService.snapshotVersion()).thenReturn(0xabcL);
+        when(userService.remainingTtl()).thenReturn(Duration.ofSeconds(120));
+
+        // When & Then
+        mockMvc.perform(get("/api/users"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", startsWith("\"abc-")))
+                .andExpect(header().string("Cache-Control", "max-age=120"));
+    }
+
+    @Test
+    void testGetUsers_MatchingETagIsNotModifiedWithoutFiltering() throws Exception {
+        // Given
+        when(userService.getUsers(UserQuery.of("emily", null, 1, 10)))
+                .thenReturn(new PaginationResponse<>(1, 10, 1, 1, List.of(user(1L, "Emily"))));
+        when(userService.snapshotVersion()).thenReturn(42L);
+        String eTag = mockMvc.perform(get("/api/users").param("name", "emily"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // When & Then
+        mockMvc.perform(get("/api/users").param("name", "emily").header("If-None-Match", "W/" + eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(content().string(""));
+        verify(userService, times(1)).getUsers(any());
+    }
+
+    @Test
+    void testGetUsers_ETagChangesWithSnapshotAndQuery() throws Exception {
+        // Given
+        when(userService.getUsers(any()))
+                .thenReturn(new PaginationResponse<>(1, 10, 1, 1, List.of(user(1L, "Emily"))));
+        when(userService.snapshotVersion()).thenReturn(1L);
+        String eTag = mockMvc.perform(get("/api/users")).andReturn().getResponse().getHeader("ETag");
+
+        // When
+        String otherPage = mockMvc.perform(get("/api/users").param("page", "2").header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        when(userService.snapshotVersion()).thenReturn(2L);
+        String refreshed = mockMvc.perform(get("/api/users").header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Then
+        assertNotEquals(eTag, otherPage);
+        assertNotEquals(eTag, refreshed);
+    }
+
+    @Test
+    void testGetUsers_NearReturnsProjectedUsersWithDistance() throws Exception {
+        // Given
+        when(userService.getNearbyUsers(UserQuery.of(null, null, 1, 10), new GeoQuery(40.7, -74.0, 25.0, null)))
+                .thenReturn(new PaginationResponse<>(1, 10, 1, 1, List.of(new NearbyUser<>(user(3L, "Emily"), 1.25))));
+
+        // When & Then
+        mockMvc.perform(get("/api/users")
+                .param("near", "40.7, -74.0")
+                .param("radiusKm", "25")
+                .param("fields", "id,firstName"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].id").value(3))
+                .andExpect(jsonPath("$.data[0].firstName").value("Emily"))
+                .andExpect(jsonPath("$.data[0].lastName").doesNotExist())
+                .andExpect(jsonPath("$.data[0].distanceKm").value(1.25));
+    }
+
+    @Test
+    void testGetUsers_RadiusWithoutNearIsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/users").param("radiusKm", "10"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("radiusKm and nearest require near"));
+    }
+
+    @Test
+    void testGetUsers_QSearchesNames() throws Exception {
+        // Given
+        when(userService.searchUsers(UserQuery.of(null, null, 1, 10), new NameQuery(List.of("jon", "smi"))))
+                .thenReturn(new PaginationResponse<>(1, 10, 1, 1, List.of(user(3L, "John"))));
+
+        // When & Then
+        mockMvc.perform(get("/api/users")
+                .param("q", " Jon  Smi ")
+                .param("fields", "id,firstName"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].id").value(3))
+                .andExpect(jsonPath("$.data[0].firstName").value("John"))
+                .andExpect(jsonPath("$.data[0].lastName").doesNotExist());
+    }
+
+    @Test
+    void testGetUsers_QWithNearIsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/users").param("q", "john").param("near", "0,0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("q cannot be combined with near"));
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void testGetUser_ProjectsFields() throws Exception {
+        // Given
+        when(userService.getUser(7L)).thenReturn(user(7L, "Emilia"));
+
+        // When & Then
+        mockMvc.perform(get("/api/users/7").param("fields", "id,firstName"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(content().json("{\"id\":7,\"firstName\":\"Emilia\"}", JsonCompareMode.STRICT));
+    }
+
+    @Test
+    void testGetUser_UnknownIdIsNotFound() throws Exception {
+        // Given
+        when(userService.getUser(404L)).thenThrow(new UserNotFoundException("No user with id 404"));
+
+        // When & Then
+        mockMvc.perform(get("/api/users/404"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("No user with id 404"));
+    }
+
+    @Test
+    void testGetUser_NonNumericIdIsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/users/abc"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid value for 'id'"));
+    }
+
+    @Test
+    void testGetUsersByKeys_ReturnsFoundAndMissingKeys() throws Exception {
+        // Given
+        UserBatchRequest request = new UserBatchRequest(List.of(1L, 99L), List.of("emilys"));
+        when(userService.getUsersByKeys(request))
+                .thenReturn(new UserBatchResponse<>(List.of(user(1L, "Emily")), List.of(99L), List.of()));
+
+        // When & Then
+        mockMvc.perform(post("/api/users/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\":[1,99],\"usernames\":[\"emilys\"]}")
+                .param("fields", "id,firstName"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(
+                        "{\"data\":[{\"id\":1,\"firstName\":\"Emily\"}],\"missingIds\":[99],\"missingUsernames\":[]}",
+                        JsonCompareMode.STRICT));
+    }
+
+    @Test
+    void testGetUsersByKeys_MalformedBodyIsBadRequest() throws Exception {
+        mockMvc.perform(post("/api/users/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\":[\"one\"]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetFacets_BindsFiltersAndBucketSize() throws Exception {
+        // Given
+        when(userService.getFacets(new UserFilter("emily", null), 5)).thenReturn(new FacetsResponse(2,
+                Map.of("role", List.of(new FacetsResponse.FacetCount("admin", 2)))));
+
+        // When & Then
+        mockMvc.perform(get("/api/users/facets").param("name", "Emily").param("ageBucketSize", "5"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.totalItems").value(2))
+                .andExpect(jsonPath("$.facets.role[0].value").value("admin"))
+                .andExpect(jsonPath("$.facets.role[0].count").value(2));
+    }
+
+    @Test
+    void testGetUsers_BindsAttributeFilters() throws Exception {
+        // Given
+        UserAttributeFilter attributes = new UserAttributeFilter(25, 40, null, null, null, 80.5,
+                LocalDate.of(1990, 1, 1), null, "admin", null, "Engineering", null);
+        when(userService.getUsers(UserQuery.of(null, null, attributes, 1, 10)))
+                .thenReturn(new PaginationResponse<>(1, 10, 1, 1, List.of(user(1L, "Emily"))));
+
+        // When & Then
+        mockMvc.perform(get("/api/users")
+                .param("minAge", "25")
+                .param("maxAge", "40")
+                .param("maxWeight", "80.5")
+                .param("bornFrom", "1990-01-01")
+                .param("role", "admin")
+                .param("department", "Engineering"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].id").value(1));
+    }
+
+    @Test
+    void testGetUsers_MalformedAttributeIsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/users").param("minAge", "old"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid value for 'minAge'"));
+    }
+
+    @Test
+    void testGetUsers_EmptyRangeIsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/users").param("bornFrom", "2000-01-01").param("bornTo", "1990-01-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("bornFrom must not be greater than bornTo"));
+    }
+
+    @Test
+    void testGetUsers_NonFiniteBoundIsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/users").param("minHeight", "NaN"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("minHeight must be a finite number"));
+        mockMvc.perform(get("/api/users").param("maxWeight", "Infinity"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("maxWeight must be a finite number"));
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void testGetUsers_ParsesSortKeys() throws Exception {
+        // Given
+        UserSort sort = UserSort.parse(List.of("lastName,desc", "age"));
+        when(userService.getUsers(UserQuery.of(null, null, UserAttributeFilter.NONE, sort, 1, 10)))
+                .thenReturn(new PaginationResponse<>(1, 10, 1, 1, List.of(user(3L, "Emily"))));
+
+        // When & Then
+        mockMvc.perform(get("/api/users").param("sort", "lastName,desc").param("sort", "age"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].id").value(3));
+    }
+
+    @Test
+    void testGetUsers_UnknownSortFieldIsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/users").param("sort", "salary,desc"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Unknown sort field 'salary'"));
+    }
+
+    private static User user(long id, String firstName) {
+        return new User(id, firstName, "Johnson", 29, null, null, "user" + id, null, null, null, null, null, null,
+                null, null, null, null, null, null, null, null, null, null, null, "user");
+    }
+}
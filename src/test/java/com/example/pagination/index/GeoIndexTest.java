@@ -0,0 +1,85 @@
+package com.example.pagination.index;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class GeoIndexTest {
+
+    private static final int POINTS = 2000;
+
+    private final double[] latitudes = new double[POINTS];
+    private final double[] longitudes = new double[POINTS];
+
+    GeoIndexTest() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < POINTS; i++) {
+            latitudes[i] = random.nextDouble(-90, 90);
+            longitudes[i] = random.nextDouble(-180, 180);
+        }
+    }
+
+    @Test
+    void testNearest_MatchesBruteForceWithinRadius() {
+        // Given
+        GeoIndex index = GeoIndex.build(POINTS, i -> true, i -> latitudes[i], i -> longitudes[i]);
+
+        // When
+        int[] nearby = index.nearest(48.85, 2.35, Integer.MAX_VALUE, 2500, i -> true);
+
+        // Then
+        assertArrayEquals(bruteForce(48.85, 2.35, Integer.MAX_VALUE, 2500, i -> true), nearby);
+        assertTrue(nearby.length > 0);
+    }
+
+    @Test
+    void testNearest_MatchesBruteForceForKWithPredicate() {
+        // Given
+        GeoIndex index = GeoIndex.build(POINTS, i -> i % 5 != 0, i -> latitudes[i], i -> longitudes[i]);
+        IntPredicate even = i -> i % 2 == 0;
+
+        // When
+        int[] nearest = index.nearest(-33.87, 151.21, 25, Double.POSITIVE_INFINITY, even);
+
+        // Then
+        assertArrayEquals(bruteForce(-33.87, 151.21, 25, Double.POSITIVE_INFINITY, i -> i % 5 != 0 && even.test(i)),
+                nearest);
+        assertEquals(1600, index.size());
+    }
+
+    @Test
+    void testNearest_CrossesAntimeridian() {
+        // Given
+        double[] lats = { 0, 0, 0 };
+        double[] lngs = { 179.9, -179.9, 170 };
+        GeoIndex index = GeoIndex.build(3, i -> true, i -> lats[i], i -> lngs[i]);
+
+        // When
+        int[] nearest = index.nearest(0, -179.95, 2, 100, i -> true);
+
+        // Then
+        assertArrayEquals(new int[] { 1, 0 }, nearest);
+        assertEquals(22.2, GeoIndex.distanceKm(0, 179.9, 0, -179.9), 0.1);
+    }
+
+    private int[] bruteForce(double latitude, double longitude, int limit, double maxKm, IntPredicate accept) {
+        return IntStream.range(0, POINTS)
+                .filter(accept)
+                .filter(i -> distance(i, latitude, longitude) <= maxKm)
+                .boxed()
+                .sorted(Comparator.<Integer>comparingDouble(i -> distance(i, latitude, longitude))
+                        .thenComparingInt(i -> i))
+                .limit(limit)
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private double distance(int i, double latitude, double longitude) {
+        return GeoIndex.distanceKm(latitude, longitude, latitudes[i], longitudes[i]);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.pagination.index;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class IdIndexTest {
+
+    @Test
+    void testPosition_FindsEveryIdAndRejectsOthers() {
+        // Given
+        SplittableRandom random = new SplittableRandom(11);
+        long[] ids = random.longs(5000).distinct().toArray();
+        IdIndex index = IdIndex.build(ids.length, doc -> true, doc -> ids[doc]);
+
+        // When & Then
+        assertEquals(ids.length, index.size());
+        for (int doc = 0; doc < ids.length; doc++) {
+            assertEquals(doc, index.position(ids[doc]));
+        }
+        assertEquals(IdIndex.NOT_FOUND, index.position(ids[0] + 1));
+    }
+
+    @Test
+    void testPosition_SkipsAbsentIdsAndKeepsFirstDuplicate() {
+        // Given
+        long[] ids = { 7, 3, 7, 0, 9 };
+        IdIndex index = IdIndex.build(ids.length, doc -> doc != 3, doc -> ids[doc]);
+
+        // When & Then
+        assertEquals(0, index.position(7));
+        assertEquals(1, index.position(3));
+        assertEquals(4, index.position(9));
+        assertEquals(IdIndex.NOT_FOUND, index.position(0));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void testPosition_EmptyIndex() {
+        // Given
+        IdIndex index = IdIndex.build(0, doc -> true, doc -> doc);
+
+        // When & Then
+        assertEquals(IdIndex.NOT_FOUND, index.position(1));
+    }
+}
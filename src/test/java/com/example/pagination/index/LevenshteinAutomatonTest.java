@@ -0,0 +1,66 @@
+package com.example.pagination.index;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class LevenshteinAutomatonTest {
+
+    @Test
+    void testDistance_MatchesEditDistanceUpToBound() {
+        // Given
+        String word = "smith";
+        String[] inputs = { "smith", "smyth", "smth", "smiths", "msith", "smythe", "jones", "" };
+
+        // When & Then
+        for (int maxEdits = 0; maxEdits <= 2; maxEdits++) {
+            LevenshteinAutomaton automaton = new LevenshteinAutomaton(word, maxEdits);
+            for (String input : inputs) {
+                int expected = Math.min(editDistance(word, input), maxEdits + 1);
+                assertEquals(expected, automaton.distance(run(automaton, input)), input + " within " + maxEdits);
+            }
+        }
+    }
+
+    @Test
+    void testStep_RejectsInputThatCannotRecover() {
+        // Given
+        LevenshteinAutomaton automaton = new LevenshteinAutomaton("ann", 1);
+        int[] start = new int[automaton.stateSize()];
+        int[] afterX = new int[automaton.stateSize()];
+        int[] afterXy = new int[automaton.stateSize()];
+        automaton.start(start);
+
+        // When & Then
+        assertTrue(automaton.step(start, 'x', afterX));
+        assertFalse(automaton.step(afterX, 'y', afterXy));
+    }
+
+    private static int[] run(LevenshteinAutomaton automaton, String input) {
+        int[] state = new int[automaton.stateSize()];
+        int[] next = new int[automaton.stateSize()];
+        automaton.start(state);
+        for (char c : input.toCharArray()) {
+            automaton.step(state, c, next);
+            int[] swap = state;
+            state = next;
+            next = swap;
+        }
+        return state;
+    }
+
+    private static int editDistance(String a, String b) {
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            for (int j = 0; j <= b.length(); j++) {
+                if (i == 0 || j == 0) {
+                    d[i][j] = i + j;
+                } else {
+                    int substitute = d[i - 1][j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                    d[i][j] = Math.min(substitute, Math.min(d[i - 1][j], d[i][j - 1]) + 1);
+                }
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+}
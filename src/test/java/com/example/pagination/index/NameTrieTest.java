@@ -0,0 +1,90 @@
+package com.example.pagination.index;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class NameTrieTest {
+
+    private static final String[][] NAMES = {
+            { "John", "Smith" },
+            { "Jon", "Smyth" },
+            { "Johnny", "Appleseed" },
+            { "Zoë-Ann", "Smithers" },
+            { "Jane", "Doe" },
+    };
+
+    private NameTrie trie;
+
+    @BeforeEach
+    void setUp() {
+        trie = NameTrie.build(NAMES.length, doc -> NAMES[doc][0], doc -> NAMES[doc][1]);
+    }
+
+    @Test
+    void testSearch_RanksExactThenPrefixThenTypo() {
+        // When & Then
+        assertArrayEquals(new int[] { 0, 2, 1 }, trie.search(List.of("john"), doc -> true));
+        assertArrayEquals(new int[] { 0, 3, 1 }, trie.search(List.of("smith"), doc -> true));
+    }
+
+    @Test
+    void testSearch_EveryWordMustMatch() {
+        // When & Then (Johnny has no smith-like word)
+        assertArrayEquals(new int[] { 0, 1 }, trie.search(List.of("jon", "smith"), doc -> true));
+        assertArrayEquals(new int[0], trie.search(List.of("jane", "smith"), doc -> true));
+    }
+
+    @Test
+    void testSearch_ShortWordsMatchOnlyExactlyOrAsPrefix() {
+        // When & Then
+        assertArrayEquals(new int[] { 0, 1, 2 }, trie.search(List.of("jo"), doc -> true));
+        assertArrayEquals(new int[0], trie.search(List.of("xo"), doc -> true));
+    }
+
+    @Test
+    void testSearch_FoldsAccentsAndSplitsWords() {
+        // When & Then
+        assertEquals(List.of("zoe", "ann", "o", "brien"), NameTokenizer.tokens("Zoë-Ann  O'Brien"));
+        assertArrayEquals(new int[] { 3 }, trie.search(NameTokenizer.tokens("ZOE ann"), doc -> true));
+    }
+
+    @Test
+    void testSearch_OnlyReturnsAcceptedPositions() {
+        // When & Then
+        assertArrayEquals(new int[] { 3, 1 }, trie.search(List.of("smith"), doc -> doc != 0));
+    }
+
+    @Test
+    void testSearch_RareWordsRankLikeCommonWords() {
+        // Given (Rare first names are merged from postings, the common last name uses a dense pass)
+        String[][] names = new String[400][];
+        for (int doc = 0; doc < names.length; doc++) {
+            names[doc] = new String[] { "Filler" + doc, "Smith" };
+        }
+        names[10] = new String[] { "John", "Smith" };
+        names[20] = new String[] { "Jon", "Smith" };
+        names[30] = new String[] { "Johnny", "Smyth" };
+        NameTrie large = NameTrie.build(names.length, doc -> names[doc][0], doc -> names[doc][1]);
+
+        // When & Then
+        assertArrayEquals(new int[] { 10, 30, 20 }, large.search(List.of("john"), doc -> true));
+        assertArrayEquals(new int[] { 10, 20, 30 }, large.search(List.of("smith", "john"), doc -> true));
+        assertArrayEquals(new int[] { 20, 30 }, large.search(List.of("john", "smith"), doc -> doc != 10));
+        assertEquals(400, large.search(List.of("smith"), doc -> true).length);
+    }
+
+    @Test
+    void testBuild_IndexesDistinctWordsAndSkipsNulls() {
+        // Given
+        NameTrie withNulls = NameTrie.build(2, doc -> doc == 0 ? "Ann Ann" : null, doc -> "ann");
+
+        // When & Then
+        assertEquals(1, withNulls.size());
+        assertArrayEquals(new int[] { 0, 1 }, withNulls.search(List.of("ann"), doc -> true));
+        assertEquals(11, trie.size());
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.pagination.index;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class RangeIndexTest {
+
+    @Test
+    void testCandidates_NarrowAndWideRangesReturnSortedMatches() {
+        // Given (Every tenth document has no value)
+        SplittableRandom random = new SplittableRandom(5);
+        double[] values = random.doubles(5000, 0, 100).map(Math::floor).toArray();
+        RangeIndex index = RangeIndex.build(values.length, doc -> doc % 10 != 0, doc -> values[doc]);
+
+        // When & Then (From a single value, sorted, to nearly everything, read from a bitmap)
+        for (double[] range : new double[][] { { 42, 42 }, { 10, 12 }, { 0, 50 }, { 5, 99 }, { -1, 1000 } }) {
+            double min = range[0];
+            double max = range[1];
+            int[] expected = IntStream.range(0, values.length)
+                    .filter(doc -> doc % 10 != 0 && values[doc] >= min && values[doc] <= max)
+                    .toArray();
+
+            assertArrayEquals(expected, index.candidates(min, max), min + ".." + max);
+            assertEquals(expected.length, index.count(min, max));
+        }
+    }
+
+    @Test
+    void testCandidates_EmptyRange() {
+        // Given
+        RangeIndex index = RangeIndex.build(3, doc -> true, doc -> doc);
+
+        // When & Then
+        assertArrayEquals(new int[0], index.candidates(5, 10));
+        assertEquals(3, index.size());
+    }
+}
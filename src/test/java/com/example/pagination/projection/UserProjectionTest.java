@@ -0,0 +1,65 @@
+package com.example.pagination.projection;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.pagination.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class UserProjectionTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final User user = new User(1L, "Emily", "Johnson", 29, "emily@x.example.com", null, "emilys", null,
+            null, "O-", 193.24, 63.16, "Green", new User.Hair("Brown", "Curly"), null,
+            new User.Address("626 Main Street", "Phoenix", "Mississippi", "MS", "29112",
+                    new User.Address.Coordinates(-77.16, -92.08), "United States"),
+            null, null, null, new User.Company("Engineering", "Dooley", "Sales Manager", null), null, null, null,
+            null, "admin");
+
+    @Test
+    void testWriteFields_OnlyRequestedFieldsInDeclarationOrder() throws Exception {
+        UserProjection projection = UserProjection.of("username, id ,lastName,firstName");
+
+        String json = objectMapper.writeValueAsString(new ProjectedUser(user, projection));
+
+        assertEquals("{\"id\":1,\"firstName\":\"Emily\",\"lastName\":\"Johnson\",\"username\":\"emilys\"}", json);
+    }
+
+    @Test
+    void testWriteFields_NestedPathsAndWholeRecords() throws Exception {
+        UserProjection projection = UserProjection.of("id,address.city,address.coordinates.lat,hair,image");
+
+        String json = objectMapper.writeValueAsString(new ProjectedUser(user, projection));
+
+        assertEquals("{\"id\":1,\"image\":null,\"hair\":{\"color\":\"Brown\",\"type\":\"Curly\"},"
+                + "\"address\":{\"city\":\"Phoenix\",\"coordinates\":{\"lat\":-77.16}}}", json);
+    }
+
+    @Test
+    void testWriteFields_NullNestedRecordWrittenAsNull() throws Exception {
+        UserProjection projection = UserProjection.of("bank.currency");
+
+        String json = objectMapper.writeValueAsString(new ProjectedUser(user, projection));
+
+        assertEquals("{\"bank\":null}", json);
+    }
+
+    @Test
+    void testOf_SameFieldsShareCompiledProjection() {
+        assertSame(UserProjection.of("id,firstName"), UserProjection.of(" firstName,id,id "));
+        assertEquals("firstName,id", UserProjection.of("id,firstName").fields());
+    }
+
+    @Test
+    void testOf_InvalidFieldsRejected() {
+        assertEquals("Unknown field 'password'",
+                assertThrows(IllegalArgumentException.class, () -> UserProjection.of("id,password")).getMessage());
+        assertEquals("Unknown field 'address.zip'",
+                assertThrows(IllegalArgumentException.class, () -> UserProjection.of("address.zip")).getMessage());
+        assertEquals("Field 'firstName' has no nested fields",
+                assertThrows(IllegalArgumentException.class, () -> UserProjection.of("firstName.x")).getMessage());
+        assertThrows(IllegalArgumentException.class, () -> UserProjection.of(" , "));
+    }
+}
@@ -0,0 +1,319 @@
+package com.example.pagination.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import com.example.pagination.cache.SingleFlight;
+import com.example.pagination.cache.SnapshotStore;
+import com.example.pagination.client.ExternalApiClient;
+import com.example.pagination.config.CacheConfig;
+import com.example.pagination.config.properties.CacheProperties;
+import com.example.pagination.exception.ExternalApiException;
+import com.example.pagination.metrics.UserMetrics;
+import com.example.pagination.model.User;
+import com.example.pagination.dto.UserFilter;
+import com.example.pagination.service.FilteredUserCacheService;
+import com.example.pagination.service.UserCacheService;
+import com.example.pagination.snapshot.SnapshotDelta;
+import com.example.pagination.snapshot.UserSnapshot;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringJUnitConfig
+@Import({ CacheConfig.class, UserCacheServiceImpl.class, FilteredUserCacheServiceImpl.class, UserMetrics.class,
+        SimpleMeterRegistry.class })
+@EnableConfigurationProperties(CacheProperties.class)
+class UserCacheServiceImplTest {
+
+    // Real default methods, so streaming fetches go through the stubbed list fetch
+    @MockitoBean(answers = Answers.CALLS_REAL_METHODS)
+    private ExternalApiClient externalApiClient;
+
+    @MockitoBean
+    private SnapshotStore snapshotStore;
+
+    @Autowired
+    private UserCacheService userCacheService;
+
+    @Autowired
+    private SingleFlight<String, UserSnapshot> snapshotLoads;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private FilteredUserCacheService filteredUserCacheService;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache("users").clear();
+        cacheManager.getCache("filteredUsers").clear();
+    }
+
+    @Test
+    void testRefreshSnapshot_ReplacesCachedEntry() {
+        // Given
+        when(externalApiClient.fetchAllUsers())
+                .thenReturn(List.of(user(1L)))
+                .thenReturn(List.of(user(1L), user(2L)));
+
+        // When
+        UserSnapshot first = userCacheService.getSnapshot();
+        UserSnapshot cached = userCacheService.getSnapshot();
+        UserSnapshot refreshed = userCacheService.refreshSnapshot();
+        UserSnapshot afterRefresh = userCacheService.getSnapshot();
+
+        // Then
+        assertSame(first, cached);
+        assertEquals(1, first.size());
+        assertEquals(2, refreshed.size());
+        assertSame(refreshed, afterRefresh);
+        verify(externalApiClient, times(2)).fetchAllUsers();
+    }
+
+    @Test
+    void testRefreshSnapshot_ConcurrentCallsShareOneUpstreamFetch() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        when(externalApiClient.fetchAllUsers()).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(user(1L));
+        });
+        long coalescedBefore = snapshotLoads.coalescedWaiters();
+
+        // When
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 8; i++) {
+                executor.submit(userCacheService::refreshSnapshot);
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (snapshotLoads.coalescedWaiters() - coalescedBefore < 7 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+        }
+
+        // Then
+        verify(externalApiClient, times(1)).fetchAllUsers();
+        assertEquals(7, snapshotLoads.coalescedWaiters() - coalescedBefore);
+    }
+
+    @Test
+    void testGetMatchingPositions_CachedUntilRefreshChangesUsers() {
+        // Given
+        when(externalApiClient.fetchAllUsers())
+                .thenReturn(List.of(user(1L), user(2L), user(12L)))
+                .thenReturn(List.of(user(1L), user(2L), user(12L), user(13L)));
+        UserSnapshot snapshot = userCacheService.getSnapshot();
+        UserFilter filter = new UserFilter(null, "user1");
+
+        // When
+        int[] first = filteredUserCacheService.getMatchingPositions(snapshot, filter);
+        int[] second = filteredUserCacheService.getMatchingPositions(snapshot, new UserFilter(null, "user1"));
+        userCacheService.refreshSnapshot();
+        int[] afterRefresh = filteredUserCacheService.getMatchingPositions(snapshot, filter);
+
+        // Then
+        assertArrayEquals(new int[] { 0, 2 }, first);
+        assertSame(first, second);
+        assertNotSame(first, afterRefresh);
+        assertArrayEquals(first, afterRefresh);
+    }
+
+    @Test
+    void testRefreshSnapshot_UnchangedUsersKeepSnapshotAndFilterCache() {
+        // Given
+        when(externalApiClient.fetchAllUsers()).thenReturn(List.of(user(1L), user(2L), user(12L)));
+        UserSnapshot snapshot = userCacheService.refreshSnapshot();
+        UserFilter filter = new UserFilter(null, "user1");
+        int[] cached = filteredUserCacheService.getMatchingPositions(snapshot, filter);
+
+        // When
+        UserSnapshot refreshed = userCacheService.refreshSnapshot();
+        int[] afterRefresh = filteredUserCacheService.getMatchingPositions(refreshed, filter);
+
+        // Then
+        assertSame(snapshot, refreshed);
+        assertSame(cached, afterRefresh);
+        SnapshotDelta delta = userCacheService.lastDelta().orElseThrow();
+        assertFalse(delta.changed());
+        assertEquals(3, delta.unchanged());
+    }
+
+    @Test
+    void testRefreshSnapshot_CountsInsertedUpdatedAndDeletedUsers() {
+        // Given
+        User renamed = new User(2L, "Renamed", "Last2", 30, null, null, "user2", null, null, null, null, null,
+                null, null, null, null, null, null, null, null, null, null, null, null, "user");
+        when(externalApiClient.fetchAllUsers())
+                .thenReturn(List.of(user(1L), user(2L), user(3L)))
+                .thenReturn(List.of(user(1L), renamed, user(4L), user(5L)));
+        userCacheService.refreshSnapshot();
+
+        // When
+        UserSnapshot refreshed = userCacheService.refreshSnapshot();
+
+        // Then
+        SnapshotDelta delta = userCacheService.lastDelta().orElseThrow();
+        assertEquals(2, delta.inserted());
+        assertEquals(1, delta.updated());
+        assertEquals(1, delta.deleted());
+        assertEquals(1, delta.unchanged());
+        assertEquals("Renamed", refreshed.user(refreshed.positionOfId(2L)).firstName());
+        assertEquals(-1, refreshed.positionOfId(3L));
+    }
+
+    @Test
+    void testGetMatchingPositions_UnfilteredNotCached() {
+        // Given
+        when(externalApiClient.fetchAllUsers()).thenReturn(List.of(user(1L), user(2L)));
+        UserSnapshot snapshot = userCacheService.getSnapshot();
+
+        // When
+        int[] positions = filteredUserCacheService.getMatchingPositions(snapshot, new UserFilter(null, null));
+
+        // Then
+        assertSame(snapshot.allPositions(), positions);
+        assertNull(cacheManager.getCache("filteredUsers").get(List.of(snapshot.version(), new UserFilter(null, null))));
+    }
+
+    @Test
+    void testGetSnapshot_PersistsLoadedSnapshot() {
+        // Given
+        when(externalApiClient.fetchAllUsers()).thenReturn(List.of(user(1L), user(99L)));
+
+        // When
+        UserSnapshot snapshot = userCacheService.getSnapshot();
+
+        // Then
+        verify(snapshotStore).save(eq(snapshot), any());
+    }
+
+    @Test
+    void testRestoreSnapshot_SeedsCacheWithoutUpstreamFetch() {
+        // Given
+        UserSnapshot stored = UserSnapshot.of(List.of(user(1L), user(2L)));
+        Instant loadedAt = Instant.now().minus(Duration.ofMinutes(4));
+        when(snapshotStore.load()).thenReturn(Optional.of(new SnapshotStore.StoredSnapshot(stored, loadedAt)));
+
+        // When
+        UserSnapshot restored = userCacheService.restoreSnapshot();
+        UserSnapshot cached = userCacheService.getSnapshot();
+
+        // Then (TTL counts from the original load, not from the restart)
+        assertSame(stored, restored);
+        assertSame(stored, cached);
+        assertTrue(userCacheService.staleAge().isEmpty());
+        assertTrue(userCacheService.remainingTtl().compareTo(Duration.ofMinutes(6)) <= 0);
+        verifyNoInteractions(externalApiClient);
+    }
+
+    @Test
+    void testRestoreSnapshot_ExpiredFileServedAsStaleWhileUpstreamFails() {
+        // Given
+        UserSnapshot stored = UserSnapshot.of(List.of(user(1L), user(2L)));
+        Instant loadedAt = Instant.now().minus(Duration.ofHours(3));
+        when(snapshotStore.load()).thenReturn(Optional.of(new SnapshotStore.StoredSnapshot(stored, loadedAt)));
+        when(externalApiClient.fetchAllUsers()).thenThrow(new ExternalApiException("upstream down"));
+
+        // When
+        UserSnapshot restored = userCacheService.restoreSnapshot();
+        UserSnapshot served = userCacheService.getSnapshot();
+        Optional<Duration> staleAge = userCacheService.staleAge();
+
+        // Then (Not cached, so every request retries the upstream first)
+        assertSame(stored, restored);
+        assertSame(stored, served);
+        assertNull(cacheManager.getCache("users").get(SimpleKey.EMPTY));
+        assertTrue(staleAge.isPresent());
+        assertTrue(staleAge.get().compareTo(Duration.ofHours(3)) >= 0);
+        assertEquals(Duration.ZERO, userCacheService.remainingTtl());
+        verify(externalApiClient).fetchAllUsers();
+    }
+
+    @Test
+    void testRestoreSnapshot_NoStoredSnapshotLeavesCacheEmpty() {
+        // Given
+        when(snapshotStore.load()).thenReturn(Optional.empty());
+        when(externalApiClient.fetchAllUsers()).thenReturn(List.of(user(1L)));
+
+        // When
+        UserSnapshot restored = userCacheService.restoreSnapshot();
+        UserSnapshot loaded = userCacheService.getSnapshot();
+
+        // Then
+        assertNull(restored);
+        assertEquals(1, loaded.size());
+        verify(externalApiClient).fetchAllUsers();
+    }
+
+    @Test
+    void testGetSnapshot_UpstreamFailureServesLastGoodSnapshotUncached() {
+        // Given
+        when(externalApiClient.fetchAllUsers())
+                .thenReturn(List.of(user(1L)))
+                .thenThrow(new ExternalApiException("upstream down"))
+                .thenThrow(new ExternalApiException("upstream down"))
+                .thenReturn(List.of(user(1L), user(2L)));
+        UserSnapshot good = userCacheService.getSnapshot();
+        cacheManager.getCache("users").clear();
+
+        // When
+        UserSnapshot fallback = userCacheService.getSnapshot();
+        Optional<Duration> staleAge = userCacheService.staleAge();
+        UserSnapshot stillFallback = userCacheService.getSnapshot();
+        UserSnapshot recovered = userCacheService.getSnapshot();
+
+        // Then
+        assertSame(good, fallback);
+        assertSame(good, stillFallback);
+        assertTrue(staleAge.isPresent());
+        assertEquals(2, recovered.size());
+        assertTrue(userCacheService.staleAge().isEmpty());
+        verify(externalApiClient, times(4)).fetchAllUsers();
+    }
+
+    @Test
+    void testRemainingTtl_CountsFromLastLoadAndIsZeroWhileStale() {
+        // Given
+        when(externalApiClient.fetchAllUsers())
+                .thenReturn(List.of(user(1L)))
+                .thenThrow(new ExternalApiException("upstream down"));
+
+        // When
+        userCacheService.getSnapshot();
+        Duration afterLoad = userCacheService.remainingTtl();
+        userCacheService.refreshSnapshot();
+        Duration whileStale = userCacheService.remainingTtl();
+
+        // Then
+        assertTrue(afterLoad.compareTo(Duration.ofMinutes(10)) <= 0);
+        assertTrue(afterLoad.compareTo(Duration.ofMinutes(9)) > 0);
+        assertEquals(Duration.ZERO, whileStale);
+    }
+
+    private static User user(long id) {
+        return new User(id, "First" + id, "Last" + id, 30, null, null, "user" + id, null, null, null, null, null,
+                null, null, null, null, null, null, null, null, null, null, null, null, "user");
+    }
+}
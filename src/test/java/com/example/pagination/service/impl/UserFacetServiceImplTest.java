@@ -0,0 +1,72 @@
+package com.example.pagination.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import com.example.pagination.dto.FacetsResponse;
+import com.example.pagination.dto.FacetsResponse.FacetCount;
+import com.example.pagination.dto.UserAttributeFilter;
+import com.example.pagination.dto.UserFilter;
+import com.example.pagination.metrics.UserMetrics;
+import com.example.pagination.model.User;
+import com.example.pagination.snapshot.UserSnapshot;
+
+class UserFacetServiceImplTest {
+
+    private final UserFacetServiceImpl userFacetService = new UserFacetServiceImpl(
+            new FilteredUserCacheServiceImpl(new UserMetrics(new SimpleMeterRegistry())));
+
+    private final UserSnapshot snapshot = UserSnapshot.of(List.of(
+            user(1L, "admin", "O+", "Engineering", "Texas", 24),
+            user(2L, "user", "A-", "Engineering", "Ohio", 31),
+            user(3L, "user", "O+", "Sales", "Texas", 38),
+            user(4L, "user", null, null, null, null),
+            user(5L, "moderator", "O+", "Engineering", "Texas", 29)));
+
+    @Test
+    void testGetFacets_CountsEveryFacetMostCommonFirst() {
+        // When
+        FacetsResponse response = userFacetService.getFacets(snapshot, new UserFilter(null, null), 10);
+
+        // Then
+        assertEquals(5, response.totalItems());
+        assertEquals(List.of("role", "bloodGroup", "department", "state", "age"),
+                List.copyOf(response.facets().keySet()));
+        assertEquals(List.of(new FacetCount("user", 3), new FacetCount("admin", 1), new FacetCount("moderator", 1)),
+                response.facets().get("role"));
+        assertEquals(List.of(new FacetCount("O+", 3), new FacetCount("A-", 1)), response.facets().get("bloodGroup"));
+        assertEquals(List.of(new FacetCount("Texas", 3), new FacetCount("Ohio", 1)), response.facets().get("state"));
+        assertEquals(List.of(new FacetCount("20-29", 2), new FacetCount("30-39", 2)), response.facets().get("age"));
+    }
+
+    @Test
+    void testGetFacets_CountsOnlyFilteredUsers() {
+        // Given
+        UserAttributeFilter engineering = new UserAttributeFilter(null, null, null, null, null, null, null, null,
+                null, null, "engineering", null);
+
+        // When
+        FacetsResponse response = userFacetService.getFacets(snapshot, new UserFilter(null, null, engineering), 5);
+
+        // Then
+        assertEquals(3, response.totalItems());
+        assertEquals(List.of(new FacetCount("Engineering", 3)), response.facets().get("department"));
+        assertEquals(List.of(new FacetCount("20-24", 1), new FacetCount("25-29", 1), new FacetCount("30-34", 1)),
+                response.facets().get("age"));
+    }
+
+    private static User user(long id, String role, String bloodGroup, String department, String state, Integer age) {
+        User.Address address = state != null
+                ? new User.Address("1 Main Street", "City", state, "ST", "12345", null, "United States")
+                : null;
+        User.Company company = department != null ? new User.Company(department, "Example Inc", "Engineer", null)
+                : null;
+        return new User(id, "First" + id, "Last" + id, age, null, null, "user" + id, null, null, bloodGroup, null,
+                null, null, null, null, address, null, null, null, company, null, null, null, null, role);
+    }
+}
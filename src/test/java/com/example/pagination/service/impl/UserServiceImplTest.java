@@ -5,18 +5,33 @@ import static org.mockito.Mockito.*;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.LongStream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import com.example.pagination.dto.CursorPaginationResponse;
+import com.example.pagination.dto.GeoQuery;
+import com.example.pagination.dto.NameQuery;
+import com.example.pagination.dto.NearbyUser;
 import com.example.pagination.dto.PaginationResponse;
+import com.example.pagination.dto.UserBatchRequest;
+import com.example.pagination.dto.UserBatchResponse;
+import com.example.pagination.dto.UserFilter;
 import com.example.pagination.dto.UserQuery;
+import com.example.pagination.dto.UserSort;
+import com.example.pagination.exception.UserNotFoundException;
+import com.example.pagination.metrics.UserMetrics;
 import com.example.pagination.model.User;
 import com.example.pagination.service.UserCacheService;
+import com.example.pagination.snapshot.UserSnapshot;
 
 @ExtendWith(MockitoExtension.class)
 class UserServiceImplTest {
@@ -24,6 +39,14 @@ class UserServiceImplTest {
     @Mock
     private UserCacheService userCacheService;
 
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Spy
+    private UserMetrics metrics = new UserMetrics(registry);
+
+    @Spy
+    private FilteredUserCacheServiceImpl filteredUserCacheService = new FilteredUserCacheServiceImpl(metrics);
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -37,7 +60,7 @@ class UserServiceImplTest {
     @Test
     void testGetUsers_FirstPage() {
         // Given
-        when(userCacheService.getAllUsers()).thenReturn(mockUsers);
+        when(userCacheService.getSnapshot()).thenReturn(UserSnapshot.of(mockUsers));
 
         // When
         PaginationResponse<User> response = userService.getUsers(UserQuery.of(null, null, 1, 10));
@@ -55,7 +78,7 @@ class UserServiceImplTest {
     @Test
     void testGetUsers_SecondPage() {
         // Given
-        when(userCacheService.getAllUsers()).thenReturn(mockUsers);
+        when(userCacheService.getSnapshot()).thenReturn(UserSnapshot.of(mockUsers));
 
         // When
         PaginationResponse<User> response = userService.getUsers(UserQuery.of(null, null, 2, 10));
@@ -73,7 +96,7 @@ class UserServiceImplTest {
     @Test
     void testGetUsers_LastPage() {
         // Given
-        when(userCacheService.getAllUsers()).thenReturn(mockUsers);
+        when(userCacheService.getSnapshot()).thenReturn(UserSnapshot.of(mockUsers));
 
         // When
         PaginationResponse<User> response = userService.getUsers(UserQuery.of(null, null, 10, 10));
@@ -91,7 +114,7 @@ class UserServiceImplTest {
     @Test
     void testGetUsers_PageBeyondTotal() {
         // Given
-        when(userCacheService.getAllUsers()).thenReturn(mockUsers);
+        when(userCacheService.getSnapshot()).thenReturn(UserSnapshot.of(mockUsers));
 
         // When
         PaginationResponse<User> response = userService.getUsers(UserQuery.of(null, null, 100, 10));
@@ -141,10 +164,71 @@ class UserServiceImplTest {
         assertEquals("Size must be greater than 0", exception.getMessage());
     }
 
+    @Test
+    void testGetFacets_InvalidAgeBucketSize() {
+        // When & Then
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> userService.getFacets(new UserFilter(null, null), 0));
+        assertEquals("ageBucketSize must be between 1 and 100", exception.getMessage());
+    }
+
+    @Test
+    void testGetUser_FindsUserById() {
+        // Given
+        when(userCacheService.getSnapshot()).thenReturn(UserSnapshot.of(mockUsers));
+
+        // When
+        User user = userService.getUser(42L);
+
+        // Then
+        assertEquals(42L, user.id());
+        assertEquals("user42", user.username());
+    }
+
+    @Test
+    void testGetUser_UnknownId() {
+        // Given
+        when(userCacheService.getSnapshot()).thenReturn(UserSnapshot.of(mockUsers));
+
+        // When & Then
+        UserNotFoundException exception = assertThrows(UserNotFoundException.class,
+                () -> userService.getUser(1000L));
+        assertEquals("No user with id 1000", exception.getMessage());
+    }
+
+    @Test
+    void testGetUsersByKeys_KeepsRequestOrderAndReportsMissingKeys() {
+        // Given
+        when(userCacheService.getSnapshot()).thenReturn(UserSnapshot.of(mockUsers));
+        UserBatchRequest request = new UserBatchRequest(List.of(7L, 500L, 3L), List.of("USER3", "user9", "nobody"));
+
+        // When
+        UserBatchResponse<User> response = userService.getUsersByKeys(request);
+
+        // Then
+        assertEquals(List.of(7L, 3L, 9L), response.data().stream().map(User::id).toList());
+        assertEquals(List.of(500L), response.missingIds());
+        assertEquals(List.of("nobody"), response.missingUsernames());
+    }
+
+    @Test
+    void testGetUsersByKeys_TooManyKeys() {
+        // Given
+        List<Long> ids = LongStream.rangeClosed(1, UserServiceImpl.MAX_BATCH_SIZE).boxed().toList();
+        UserBatchRequest request = new UserBatchRequest(ids, List.of("user1"));
+
+        // When & Then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> userService.getUsersByKeys(request));
+        assertEquals("At most 100 ids and usernames per batch", exception.getMessage());
+        verifyNoInteractions(userCacheService);
+    }
+
     @Test
     void testGetUsers_CustomPageSize() {
         // Given
-        when(userCacheService.getAllUsers()).thenReturn(mockUsers);
+        when(userCacheService.getSnapshot()).thenReturn(UserSnapshot.of(mockUsers));
 
         // When
         PaginationResponse<User> response = userService.getUsers(UserQuery.of(null, null, 1, 25));
@@ -162,7 +246,7 @@ class UserServiceImplTest {
     void testGetUsers_PartialLastPage() {
         // Given
         List<User> users = createMockUsers(23);
-        when(userCacheService.getAllUsers()).thenReturn(users);
+        when(userCacheService.getSnapshot()).thenReturn(UserSnapshot.of(users));
 
         // When
         PaginationResponse<User> response = userService.getUsers(UserQuery.of(null, null, 3, 10));
@@ -179,7 +263,7 @@ class UserServiceImplTest {
     @Test
     void testGetUsers_FilterByName() {
         // Given
-        when(userCacheService.getAllUsers()).thenReturn(mockUsers);
+        when(userCacheService.getSnapshot()).thenReturn(UserSnapshot.of(mockUsers));
 
         // When (Filter by "FirstName1" - matches FirstName1, FirstName10-19,
         // FirstName100)
@@ -193,6 +277,259 @@ class UserServiceImplTest {
         assertEquals("FirstName50", response.data().get(0).firstName());
     }
 
+    @Test
+    void testGetUsers_FilterByUsername() {
+        // Given
+        when(userCacheService.getSnapshot()).thenReturn(UserSnapshot.of(mockUsers));
+
+        // When (Matches user7 and user70-79)
+        PaginationResponse<User> response = userService.getUsers(UserQuery.of(null, "USER7", 1, 10));
+
+        // Then
+        assertEquals(11, response.totalItems());
+        assertEquals(2, response.totalPages());
+        assertEquals(7L, response.data().get(0).id());
+        assertEquals(70L, response.data().get(1).id());
+    }
+
+    @Test
+    void testGetUsers_FilterByShortName() {
+        // Given
+        when(userCacheService.getSnapshot()).thenReturn(UserSnapshot.of(mockUsers));
+
+        // When (Term shorter than a trigram falls back to scanning normalized names)
+        PaginationResponse<User> response = userService.getUsers(UserQuery.of("e9", null, 1, 20));
+
+        // Then (Matches Name9 and Name90-99)
+        assertEquals(11, response.totalItems());
+        assertEquals(9L, response.data().get(0).id());
+    }
+
+    @Test
+    void testGetUsers_FilterByNameAndUsername_NoMatch() {
+        // Given
+        when(userCacheService.getSnapshot()).thenReturn(UserSnapshot.of(mockUsers));
+
+        // When
+        PaginationResponse<User> response = userService.getUsers(UserQuery.of("FirstName5", "user6", 1, 10));
+
+        // Then
+        assertEquals(0, response.totalItems());
+        assertEquals(0, response.data().size());
+    }
+
+    @Test
+    void testGetUsers_RecordsFilterAndPaginateStages() {
+        // Given
+        when(userCacheService.getSnapshot()).thenReturn(UserSnapshot.of(mockUsers));
+
+        // When
+        userService.getUsers(UserQuery.of("FirstName1", null, 1, 5));
+        userService.getUsers(UserQuery.of(null, null, 1, 5));
+
+        // Then (Only the filtered query is counted as a filter evaluation)
+        assertEquals(1, registry.get("users.filter").timer().count());
+        assertEquals(12.0, registry.get("users.filter.matches").summary().totalAmount());
+        assertEquals(2, registry.get("users.paginate").timer().count());
+    }
+
+    @Test
+    void testGetUsers_SortedPage() {
+        // Given
+        when(userCacheService.getSnapshot()).thenReturn(UserSnapshot.of(mockUsers));
+        UserQuery query = UserQuery.of("FirstName1", null, null, UserSort.parse(List.of("id,desc")), 2, 3);
+
+        // When
+        PaginationResponse<User> response = userService.getUsers(query);
+
+        // Then (FirstName1, FirstName10-19 and FirstName100 match; page 2 of ids descending)
+        assertEquals(12, response.totalItems());
+        assertEquals(List.of(17L, 16L, 15L), response.data().stream().map(User::id).toList());
+    }
+
+    @Test
+    void testGetUsersAfter_WalksAllPagesInIdOrder() {
+        // Given
+        when(userCacheService.getSnapshot()).thenReturn(UserSnapshot.of(mockUsers));
+
+        // When
+        List<Long> ids = new ArrayList<>();
+        String cursor = "";
+        int pages = 0;
+        do {
+            CursorPaginationResponse<User> response = userService.getUsersAfter(UserQuery.of(null, null, 1, 30), cursor);
+            response.data().forEach(user -> ids.add(user.id()));
+            cursor = response.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        // Then
+        assertEquals(4, pages);
+        assertEquals(100, ids.size());
+        assertEquals(1L, ids.get(0));
+        assertEquals(100L, ids.get(99));
+    }
+
+    @Test
+    void testGetUsersAfter_ResumesByIdAfterSnapshotChange() {
+        // Given
+        when(userCacheService.getSnapshot()).thenReturn(UserSnapshot.of(mockUsers));
+        CursorPaginationResponse<User> first = userService.getUsersAfter(UserQuery.of(null, "user1", 1, 5), null);
+
+        // When (A user sorting before the cursor disappears from the snapshot)
+        List<User> changed = new ArrayList<>(mockUsers);
+        changed.remove(0);
+        when(userCacheService.getSnapshot()).thenReturn(UserSnapshot.of(changed));
+        CursorPaginationResponse<User> second = userService.getUsersAfter(UserQuery.of(null, "user1", 1, 5),
+                first.nextCursor());
+
+        // Then (user1, user10-13 then user14-18, nothing skipped or repeated)
+        assertEquals(List.of(1L, 10L, 11L, 12L, 13L), first.data().stream().map(User::id).toList());
+        assertEquals(List.of(14L, 15L, 16L, 17L, 18L), second.data().stream().map(User::id).toList());
+    }
+
+    @Test
+    void testGetUsersAfter_PageBoundaryInsideSharedAndMissingIds() {
+        // Given (Duplicate ids and users without an id, in upstream order)
+        Long[] ids = { 5L, null, 3L, 5L, null, 5L, 1L, null };
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < ids.length; i++) {
+            users.add(new User(ids[i], "User" + i, "Last", 30, null, null, "user" + i, null, null, null, null, null,
+                    null, null, null, null, null, null, null, null, null, null, null, null, "user"));
+        }
+        when(userCacheService.getSnapshot()).thenReturn(UserSnapshot.of(users));
+
+        // When
+        List<String> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPaginationResponse<User> response = userService.getUsersAfter(UserQuery.of(null, null, 1, 2), cursor);
+            response.data().forEach(user -> walked.add(user.firstName()));
+            cursor = response.nextCursor();
+        } while (cursor != null);
+
+        // Then (By id, ties by position, users without an id last as with sort=id)
+        assertEquals(List.of("User6", "User2", "User0", "User3", "User5", "User1", "User4", "User7"), walked);
+    }
+
+    @Test
+    void testGetUsersAfter_LastPageHasNoCursor() {
+        // Given
+        when(userCacheService.getSnapshot()).thenReturn(UserSnapshot.of(mockUsers));
+
+        // When
+        CursorPaginationResponse<User> response = userService.getUsersAfter(UserQuery.of("FirstName50", null, 1, 10), "");
+
+        // Then
+        assertFalse(response.hasMore());
+        assertNull(response.nextCursor());
+        assertEquals(1, response.data().size());
+    }
+
+    @Test
+    void testGetUsersAfter_CursorForDifferentFilterRejected() {
+        // Given
+        when(userCacheService.getSnapshot()).thenReturn(UserSnapshot.of(mockUsers));
+        String cursor = userService.getUsersAfter(UserQuery.of(null, null, 1, 10), null).nextCursor();
+
+        // When & Then
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> userService.getUsersAfter(UserQuery.of("FirstName", null, 1, 10), cursor));
+        assertEquals("Cursor does not match the current filters", exception.getMessage());
+    }
+
+    @Test
+    void testGetUsersAfter_MalformedCursorRejected() {
+        // Given
+        when(userCacheService.getSnapshot()).thenReturn(UserSnapshot.of(mockUsers));
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> userService.getUsersAfter(UserQuery.of(null, null, 1, 10), "not-a-cursor"));
+    }
+
+    @Test
+    void testGetNearbyUsers_PagesByDistanceWithinRadius() {
+        // Given
+        when(userCacheService.getSnapshot()).thenReturn(UserSnapshot.of(List.of(
+                userAt(1L, 0.0, 2.0), userAt(2L, 0.0, 10.0), userAt(3L, 0.0, 0.0), userAt(4L, null, null), userAt(5L, 0.0, 1.0))));
+        GeoQuery near = GeoQuery.parse("0,0.1", 300.0, null);
+
+        // When
+        PaginationResponse<NearbyUser<User>> first = userService.getNearbyUsers(UserQuery.of(null, null, 1, 2), near);
+        PaginationResponse<NearbyUser<User>> second = userService.getNearbyUsers(UserQuery.of(null, null, 2, 2), near);
+
+        // Then
+        assertEquals(3, first.totalItems());
+        assertEquals(2, first.totalPages());
+        assertEquals(List.of(3L, 5L), first.data().stream().map(nearby -> nearby.user().id()).toList());
+        assertEquals(11.119, first.data().get(0).distanceKm(), 0.001);
+        assertEquals(List.of(1L), second.data().stream().map(nearby -> nearby.user().id()).toList());
+    }
+
+    @Test
+    void testGetNearbyUsers_NearestOnlyCountsFilteredUsers() {
+        // Given
+        when(userCacheService.getSnapshot()).thenReturn(UserSnapshot.of(List.of(
+                userAt(1L, 0.0, 0.0), userAt(2L, 0.0, 1.0), userAt(3L, 0.0, 2.0), userAt(4L, 0.0, 3.0))));
+        GeoQuery near = GeoQuery.parse("0,3", null, 2);
+
+        // When
+        PaginationResponse<NearbyUser<User>> unfiltered = userService.getNearbyUsers(
+                UserQuery.of(null, null, 1, 10), near);
+        PaginationResponse<NearbyUser<User>> filtered = userService.getNearbyUsers(
+                UserQuery.of("nearby1", null, 1, 10), near);
+
+        // Then
+        assertEquals(List.of(4L, 3L), unfiltered.data().stream().map(nearby -> nearby.user().id()).toList());
+        assertEquals(List.of(1L), filtered.data().stream().map(nearby -> nearby.user().id()).toList());
+        assertEquals(1, filtered.totalItems());
+    }
+
+    @Test
+    void testGetNearbyUsers_SortRejected() {
+        // Given
+        UserQuery query = UserQuery.of(null, null, null, UserSort.parse(List.of("age")), 1, 10);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> userService.getNearbyUsers(query, GeoQuery.parse("0,0", null, null)));
+        verifyNoInteractions(userCacheService);
+    }
+
+    @Test
+    void testSearchUsers_RanksMatchesWithinFilter() {
+        // Given
+        when(userCacheService.getSnapshot()).thenReturn(UserSnapshot.of(mockUsers));
+
+        // When (user5 and user50-59 pass the filter; FirstName5 is exact, the rest prefixes)
+        PaginationResponse<User> response = userService.searchUsers(UserQuery.of(null, "user5", 1, 3),
+                NameQuery.parse("firstname5"));
+
+        // Then
+        assertEquals(11, response.totalItems());
+        assertEquals(4, response.totalPages());
+        assertEquals(List.of(5L, 50L, 51L), response.data().stream().map(User::id).toList());
+    }
+
+    @Test
+    void testSearchUsers_SortRejected() {
+        // Given
+        UserQuery query = UserQuery.of(null, null, null, UserSort.parse(List.of("age")), 1, 10);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> userService.searchUsers(query, NameQuery.parse("john")));
+        verifyNoInteractions(userCacheService);
+    }
+
+    private static User userAt(long id, Double latitude, Double longitude) {
+        User.Address address = new User.Address("1 Main Street", "City", "State", "ST", "12345",
+                latitude != null ? new User.Address.Coordinates(latitude, longitude) : null, "United States");
+        return new User(id, "Nearby" + id, "Johnson", 29, null, null, "user" + id, null, null, null, null, null,
+                null, null, null, address, null, null, null, null, null, null, null, null, "user");
+    }
+
     private List<User> createMockUsers(int count) {
         List<User> users = new ArrayList<>();
         for (long i = 1; i <= count; i++) {
@@ -0,0 +1,142 @@
+package com.example.pagination.snapshot;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.pagination.dto.UserSort;
+import com.example.pagination.model.User;
+
+class SortedPositionsTest {
+
+    private static final String[] LAST_NAMES = { "Johnson", "williams", "Brown", "davis", null };
+
+    private final List<User> users = createUsers(300);
+    private final UserSnapshot snapshot = UserSnapshot.of(users);
+
+    @Test
+    void testSlice_MatchesFullSortForEveryPage() {
+        List<UserSort> sorts = List.of(
+                UserSort.parse(List.of("age")),
+                UserSort.parse(List.of("age,desc")),
+                UserSort.parse(List.of("lastName,asc", "age,desc")),
+                UserSort.parse(List.of("lastName,desc,height,asc,id,desc")),
+                UserSort.parse(List.of("birthDate,desc", "firstName")));
+        int[] everyThird = IntStream.range(0, users.size()).filter(i -> i % 3 == 0).toArray();
+
+        for (UserSort sort : sorts) {
+            for (int[] matches : List.of(snapshot.allPositions(), everyThird)) {
+                int[] expected = naiveSort(sort, matches);
+                for (int from = 0; from < matches.length; from += 7) {
+                    int to = from + 7;
+                    int[] page = SortedPositions.slice(snapshot, sort, matches, from, to);
+
+                    assertArrayEquals(Arrays.copyOfRange(expected, from, Math.min(to, expected.length)), page,
+                            sort + " [" + from + ", " + to + ")");
+                }
+            }
+        }
+    }
+
+    @Test
+    void testSlice_MissingValuesSortLastInBothDirections() {
+        for (String direction : new String[] { "asc", "desc" }) {
+            int[] sorted = SortedPositions.slice(snapshot, UserSort.parse(List.of("lastName," + direction)),
+                    snapshot.allPositions(), 0, users.size());
+
+            assertNull(users.get(sorted[sorted.length - 1]).lastName(), direction);
+            assertNotNull(users.get(sorted[0]).lastName(), direction);
+        }
+    }
+
+    @Test
+    void testSlice_UsersWithoutIdSortLastInBothDirections() {
+        List<User> withMissingId = new ArrayList<>(users.subList(0, 5));
+        withMissingId.add(2, new User(null, "NoId", null, null, null, null, "noid", null, null, null, null, null,
+                null, null, null, null, null, null, null, null, null, null, null, null, "user"));
+        UserSnapshot sparse = UserSnapshot.of(withMissingId);
+
+        for (String direction : new String[] { "asc", "desc" }) {
+            int[] sorted = SortedPositions.slice(sparse, UserSort.parse(List.of("id," + direction)),
+                    sparse.allPositions(), 0, withMissingId.size());
+
+            assertEquals(2, sorted[sorted.length - 1], direction);
+            assertEquals(direction.equals("asc") ? 296L : 300L, withMissingId.get(sorted[0]).id(), direction);
+        }
+    }
+
+    @Test
+    void testSlice_PageBeyondMatchesIsEmpty() {
+        int[] page = SortedPositions.slice(snapshot, UserSort.parse(List.of("age")), new int[] { 1, 2 }, 10, 20);
+
+        assertEquals(0, page.length);
+    }
+
+    @Test
+    void testParse_RejectsUnknownFieldsAndMisplacedDirections() {
+        assertEquals("Unknown sort field 'salary'",
+                assertThrows(IllegalArgumentException.class, () -> UserSort.parse(List.of("salary"))).getMessage());
+        assertThrows(IllegalArgumentException.class, () -> UserSort.parse(List.of("desc")));
+        assertThrows(IllegalArgumentException.class, () -> UserSort.parse(List.of("age", "age,desc")));
+        assertFalse(UserSort.parse(List.of(" ")).isSorted());
+    }
+
+    /**
+     * Reference order: keys in turn with missing values last, then upstream position.
+     */
+    private int[] naiveSort(UserSort sort, int[] matches) {
+        Comparator<Integer> comparator = (a, b) -> 0;
+        for (UserSort.Order order : sort.orders()) {
+            Comparator<Integer> key = keyComparator(order.field(), order.descending());
+            comparator = comparator.thenComparing(key);
+        }
+        return Arrays.stream(matches).boxed()
+                .sorted(comparator.thenComparing(Comparator.naturalOrder()))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private Comparator<Integer> keyComparator(UserSort.Field field, boolean descending) {
+        return switch (field) {
+            case ID -> nullsLast(User::id, Comparator.<Long>naturalOrder(), descending);
+            case FIRST_NAME -> nullsLast(User::firstName, String.CASE_INSENSITIVE_ORDER, descending);
+            case LAST_NAME -> nullsLast(User::lastName, String.CASE_INSENSITIVE_ORDER, descending);
+            case USERNAME -> nullsLast(User::username, String.CASE_INSENSITIVE_ORDER, descending);
+            case EMAIL -> nullsLast(User::email, String.CASE_INSENSITIVE_ORDER, descending);
+            case AGE -> nullsLast(User::age, Comparator.<Integer>naturalOrder(), descending);
+            case HEIGHT -> nullsLast(User::height, Comparator.<Double>naturalOrder(), descending);
+            case WEIGHT -> nullsLast(User::weight, Comparator.<Double>naturalOrder(), descending);
+            case BIRTH_DATE -> nullsLast(user -> UserColumns.parseBirthDate(user.birthDate()),
+                    Comparator.<LocalDate>naturalOrder(), descending);
+        };
+    }
+
+    private <T> Comparator<Integer> nullsLast(Function<User, T> getter, Comparator<T> order, boolean descending) {
+        Comparator<T> directed = descending ? order.reversed() : order;
+        return Comparator.comparing(position -> getter.apply(users.get(position)),
+                Comparator.nullsLast(directed));
+    }
+
+    private static List<User> createUsers(int count) {
+        SplittableRandom random = new SplittableRandom(7);
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            boolean sparse = random.nextInt(10) == 0;
+            users.add(new User((long) count - i, "First" + random.nextInt(20), LAST_NAMES[random.nextInt(5)],
+                    sparse ? null : 20 + random.nextInt(15), "user" + i + "@x.com", null, "user" + i,
+                    sparse ? null : (1980 + random.nextInt(10)) + "-" + (1 + random.nextInt(12)) + "-1", null,
+                    null, sparse ? null : 150.0 + random.nextInt(10), null, null, null, null, null, null, null,
+                    null, null, null, null, null, null, "user"));
+        }
+        return users;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.pagination.snapshot;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.pagination.model.User;
+import com.example.pagination.model.User.Address;
+import com.example.pagination.model.User.Address.Coordinates;
+import com.example.pagination.model.User.Bank;
+import com.example.pagination.model.User.Company;
+import com.example.pagination.model.User.Crypto;
+import com.example.pagination.model.User.Hair;
+
+class UserColumnsTest {
+
+    private static final User FULL = new User(1L, "Emily", "Johnson", 28, "emily@x.dummyjson.com", "+81 965-431-3024",
+            "emilys", "1996-5-30", "https://dummyjson.com/icon/emilys/128", "O-", 193.24, 63.16, "Green",
+            new Hair("Brown", "Curly"), "42.48.100.32",
+            new Address("626 Main Street", "Phoenix", "Mississippi", "MS", "29112",
+                    new Coordinates(-77.16213, -92.084824), "United States"),
+            "47:fa:41:18:ec:eb", "University of Wisconsin--Madison",
+            new Bank("03/26", "9289760655481815", "Elo", "CNY", "YPUXISOBI7TTHPK2BR3HAIXL"),
+            new Company("Engineering", "Dooley, Kozey and Cronin", "Sales Manager",
+                    new Address("263 Tenth Street", "San Francisco", "Wisconsin", "WI", "37657",
+                            new Coordinates(71.814525, -161.150263), "United States")),
+            "977-175", "900-590-289", "Mozilla/5.0", new Crypto("Bitcoin", "0xb9fc", "Ethereum (ERC20)"), "admin");
+
+    private static final User SPARSE = new User(null, "Michael", null, null, null, null, "michaelw", null, null,
+            null, null, 70.5, null, null, null,
+            new Address("1 Elm Street", null, "Alabama", null, null, null, null),
+            null, null, null, new Company("Engineering", null, null, null), null, null, null, null, "user");
+
+    @Test
+    void testUser_RoundTripsEveryField() {
+        // Given
+        UserColumns columns = UserColumns.of(List.of(FULL, SPARSE));
+
+        // When & Then
+        assertEquals(FULL, columns.user(0));
+        assertEquals(SPARSE, columns.user(1));
+    }
+
+    @Test
+    void testPrimitiveColumns_ReportNulls() {
+        // Given
+        UserColumns columns = UserColumns.of(List.of(FULL, SPARSE));
+
+        // Then
+        assertEquals(1L, columns.id(0));
+        assertEquals(Long.MIN_VALUE, columns.id(1));
+        assertTrue(columns.hasAge(0));
+        assertEquals(28, columns.age(0));
+        assertFalse(columns.hasAge(1));
+        assertFalse(columns.hasHeight(1));
+        assertEquals(70.5, columns.weight(1));
+        assertTrue(columns.hasCoordinates(0));
+        assertEquals(-77.16213, columns.latitude(0));
+        assertFalse(columns.hasCoordinates(1));
+    }
+
+    @Test
+    void testDictionaryColumns_ShareRepeatedValues() {
+        // Given
+        UserColumns columns = UserColumns.of(List.of(FULL, SPARSE, FULL));
+
+        // Then
+        DictionaryColumn departments = columns.departments();
+        assertEquals(1, departments.cardinality());
+        assertEquals(departments.code(0), departments.code(1));
+        assertEquals(0, departments.codeOf("Engineering"));
+        assertEquals(DictionaryColumn.NO_CODE, departments.codeOf("Legal"));
+        assertEquals(DictionaryColumn.NO_CODE, columns.bloodGroups().code(1));
+        assertNull(columns.bloodGroups().get(1));
+        assertEquals(2, columns.roles().cardinality());
+    }
+
+    @Test
+    void testDictionaryColumns_MissingEnclosingRecordReadsAsNull() {
+        // Given (a user without company or address)
+        User bare = new User(3L, "Sophia", null, null, null, null, null, null, null, null, null, null, null, null,
+                null, null, null, null, null, null, null, null, null, null, null);
+        UserColumns columns = UserColumns.of(List.of(bare, FULL));
+
+        // Then
+        assertEquals(DictionaryColumn.NO_CODE, columns.departments().code(0));
+        assertNull(columns.countries().get(0));
+        assertEquals("United States", columns.countries().get(1));
+        assertEquals(bare, columns.user(0));
+    }
+
+    @Test
+    void testParseBirthDate_AcceptsUnpaddedDates() {
+        assertEquals(LocalDate.of(1996, 5, 30), UserColumns.parseBirthDate("1996-5-30"));
+        assertNull(UserColumns.parseBirthDate("1996-13-1"));
+        assertNull(UserColumns.parseBirthDate("unknown"));
+        assertNull(UserColumns.parseBirthDate(null));
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.pagination.snapshot;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.pagination.dto.UserSort;
+import com.example.pagination.model.User;
+
+class UserSnapshotTest {
+
+    @Test
+    void testBuilder_OutOfOrderDeliveryMatchesListSnapshot() {
+        // Given
+        List<User> users = List.of(user(1L, "emilys"), user(2L, "michaelw"), user(3L, "sophiab"));
+        UserSnapshot.Builder builder = UserSnapshot.builder();
+
+        // When
+        builder.begin(3);
+        builder.accept(2, users.get(2));
+        builder.accept(0, users.get(0));
+        builder.accept(1, users.get(1));
+        UserSnapshot snapshot = builder.build();
+
+        // Then
+        UserSnapshot expected = UserSnapshot.of(users);
+        assertEquals(expected.version(), snapshot.version());
+        assertEquals(users, snapshot.users());
+        assertArrayEquals(new int[] { 1 }, snapshot.searchIndex().usernameCandidates("michael"));
+    }
+
+    @Test
+    void testBuilder_UndeliveredPositionsLeftOut() {
+        // Given
+        UserSnapshot.Builder builder = UserSnapshot.builder();
+        builder.begin(4);
+        builder.accept(0, user(1L, "emilys"));
+        builder.accept(2, user(3L, "sophiab"));
+
+        // When
+        UserSnapshot snapshot = builder.build();
+
+        // Then
+        assertEquals(List.of(user(1L, "emilys"), user(3L, "sophiab")), snapshot.users());
+        assertEquals(UserSnapshot.of(snapshot.users()).version(), snapshot.version());
+    }
+
+    @Test
+    void testBuild_UnchangedUsersReturnPreviousSnapshot() {
+        // Given
+        List<User> users = List.of(user(1L, "emilys"), user(2L, "michaelw"));
+        UserSnapshot previous = UserSnapshot.of(users);
+
+        // When
+        UserSnapshot.Builder builder = builderOf(users);
+        UserSnapshot snapshot = builder.build(previous);
+
+        // Then
+        assertSame(previous, snapshot);
+        assertFalse(builder.delta().changed());
+        assertEquals(2, builder.delta().unchanged());
+    }
+
+    @Test
+    void testBuild_InPlaceUpdateReusesIndexesOverUnchangedValues() {
+        // Given
+        UserSnapshot previous = UserSnapshot.of(List.of(user(1L, "emilys"), user(2L, "michaelw")));
+        User older = new User(2L, "First2", "Last2", 31, null, null, "michaelw", null, null, null, null, null,
+                null, null, null, null, null, null, null, null, null, null, null, null, "user");
+        previous.sortIndex(UserSort.Field.LAST_NAME);
+
+        // When
+        UserSnapshot.Builder builder = builderOf(List.of(user(1L, "emilys"), older));
+        UserSnapshot snapshot = builder.build(previous);
+
+        // Then
+        assertEquals(1, builder.delta().updated());
+        assertEquals(UserSnapshot.of(snapshot.users()).version(), snapshot.version());
+        assertSame(previous.searchIndex(), snapshot.searchIndex());
+        assertSame(previous.categoryIndex(CategoryAttribute.ROLE), snapshot.categoryIndex(CategoryAttribute.ROLE));
+        assertSame(previous.sortIndex(UserSort.Field.LAST_NAME), snapshot.sortIndex(UserSort.Field.LAST_NAME));
+        assertNotSame(previous.rangeIndex(RangeAttribute.AGE), snapshot.rangeIndex(RangeAttribute.AGE));
+        assertEquals(31, snapshot.user(1).age());
+    }
+
+    @Test
+    void testBuild_EditWithCollidingHashCodeIsDetected() {
+        // Given ("Aa" and "BB" have the same String hash, so the records share a hashCode)
+        User before = new User(1L, "Aa", "Last1", 30, null, null, "emilys", null, null, null, null, null,
+                null, null, null, null, null, null, null, null, null, null, null, null, "user");
+        User after = new User(1L, "BB", "Last1", 30, null, null, "emilys", null, null, null, null, null,
+                null, null, null, null, null, null, null, null, null, null, null, null, "user");
+        assertEquals(before.hashCode(), after.hashCode());
+        UserSnapshot previous = UserSnapshot.of(List.of(before));
+
+        // When
+        UserSnapshot.Builder builder = builderOf(List.of(after));
+        UserSnapshot snapshot = builder.build(previous);
+
+        // Then
+        assertEquals(1, builder.delta().updated());
+        assertNotSame(previous, snapshot);
+        assertEquals("BB", snapshot.user(0).firstName());
+    }
+
+    @Test
+    void testBuild_InsertAndDeleteRebuildIndexes() {
+        // Given
+        UserSnapshot previous = UserSnapshot.of(List.of(user(1L, "emilys"), user(2L, "michaelw")));
+
+        // When
+        UserSnapshot.Builder builder = builderOf(List.of(user(2L, "michaelw"), user(3L, "sophiab")));
+        UserSnapshot snapshot = builder.build(previous);
+
+        // Then
+        assertEquals(1, builder.delta().inserted());
+        assertEquals(1, builder.delta().deleted());
+        assertEquals(1, builder.delta().unchanged());
+        assertNotSame(previous.searchIndex(), snapshot.searchIndex());
+        assertEquals(0, snapshot.positionOfId(2L));
+        assertEquals(1, snapshot.positionOfUsername("sophiab"));
+        assertEquals(-1, snapshot.positionOfId(1L));
+    }
+
+    @Test
+    void testBuilder_NotStartedRejected() {
+        // Given
+        UserSnapshot.Builder builder = UserSnapshot.builder();
+
+        // When / Then
+        assertThrows(IllegalStateException.class, () -> builder.accept(0, user(1L, "emilys")));
+        assertThrows(IllegalStateException.class, builder::build);
+    }
+
+    private static User user(long id, String username) {
+        return new User(id, "First" + id, "Last" + id, 30, null, null, username, null, null, null, null, null,
+                null, null, null, null, null, null, null, null, null, null, null, null, "user");
+    }
+
+    private static UserSnapshot.Builder builderOf(List<User> users) {
+        UserSnapshot.Builder builder = UserSnapshot.builder();
+        builder.begin(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            builder.accept(i, users.get(i));
+        }
+        return builder;
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.pagination.specification;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.pagination.dto.UserAttributeFilter;
+import com.example.pagination.dto.UserQuery;
+import com.example.pagination.model.User;
+import com.example.pagination.snapshot.CategoryAttribute;
+import com.example.pagination.snapshot.RangeAttribute;
+import com.example.pagination.snapshot.UserSnapshot;
+
+import java.time.LocalDate;
+
+class UserSpecificationFactoryTest {
+
+    private static final String[] FIRST_NAMES = { "Emily", "Michael", "Sophia", "James", "Emma", "Olivia", "Alexander",
+            "Ava", "Ethan", "Isabella", null };
+    private static final String[] LAST_NAMES = { "Johnson", "Williams", "Brown", "Davis", "Miller", "Wilson", "Jones",
+            "Taylor", "Martinez", "Anderson", "Thomas" };
+    private static final String[] BLOOD_GROUPS = { "O-", "A+", "AB+", "B-" };
+    private static final String[] DEPARTMENTS = { "Engineering", "Legal", "Support", "Marketing", "Sales" };
+    private static final String[] ROLES = { "admin", "user", "moderator" };
+
+    private final List<User> users = createUsers(500);
+    private final UserSnapshot snapshot = UserSnapshot.of(users);
+
+    @Test
+    void testSnapshotFilter_MatchesListFilter() {
+        String[] terms = { null, "", "e", "em", "emi", "EMILY", " son ", "lia", "ander", "x", "zzz", "user1", "r49" };
+
+        for (String name : terms) {
+            for (String username : terms) {
+                UserQuery query = UserQuery.of(name, username, 1, 10);
+                List<Long> expected = UserSpecificationFactory.filter(users, query).stream().map(User::id).toList();
+                List<Long> actual = Arrays.stream(UserSpecificationFactory.filter(snapshot, query))
+                        .mapToObj(position -> snapshot.user(position).id())
+                        .toList();
+
+                assertEquals(expected, actual, "name='" + name + "', username='" + username + "'");
+            }
+        }
+    }
+
+    @Test
+    void testSnapshotFilter_NoFilterReturnsAllPositions() {
+        int[] positions = UserSpecificationFactory.filter(snapshot, UserQuery.of(null, null, 1, 10));
+
+        assertEquals(users.size(), positions.length);
+        assertEquals(0, positions[0]);
+        assertEquals(users.size() - 1, positions[positions.length - 1]);
+    }
+
+    @Test
+    void testOrAndNot_MatchListAndSnapshotEvaluation() {
+        UserSpecification emilyOrAva = new NameSpecification("emily").or(new NameSpecification("ava"));
+        UserSpecification notJohnson = new NameSpecification("johnson").not();
+        UserSpecification combined = emilyOrAva.and(notJohnson).and(new UsernameSpecification("1"));
+
+        for (UserSpecification spec : List.of(emilyOrAva, notJohnson, combined, combined.not().not())) {
+            List<Long> expected = users.stream().filter(spec::isSatisfiedBy).map(User::id).toList();
+            int[] positions = CompiledSpecification.compile(snapshot, List.of(spec)).filter();
+            List<Long> actual = Arrays.stream(positions).mapToObj(p -> snapshot.user(p).id()).toList();
+
+            assertFalse(expected.isEmpty());
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    void testOrSpecification_UnionsCandidatesWhenAllPartsIndexed() {
+        int[] emily = new NameSpecification("emily").candidates(snapshot);
+        int[] ava = new NameSpecification("ava").candidates(snapshot);
+
+        int[] union = new NameSpecification("emily").or(new NameSpecification("ava")).candidates(snapshot);
+
+        assertEquals(emily.length + ava.length, union.length);
+        assertNull(new NameSpecification("emily").or(new NameSpecification("e")).candidates(snapshot));
+    }
+
+    @Test
+    void testAttributeFilters_MatchListFilter() {
+        List<UserAttributeFilter> filters = List.of(
+                attributes(25, 30, null, null, null, null, null, null, null),
+                attributes(null, 22, 170.0, null, null, null, null, null, null),
+                attributes(null, null, null, 65.5, LocalDate.of(1990, 1, 1), LocalDate.of(1995, 6, 30), null, null,
+                        null),
+                attributes(null, null, null, null, null, null, " ADMIN ", "o-", null),
+                attributes(30, null, null, null, null, null, "user", null, "engineering"),
+                attributes(40, 40, null, null, null, null, "moderator", "AB+", "Legal"),
+                attributes(null, null, null, null, null, null, "nobody", null, null));
+
+        for (UserAttributeFilter filter : filters) {
+            for (String name : new String[] { null, "em", "emily" }) {
+                UserQuery query = UserQuery.of(name, null, filter, 1, 10);
+                List<Long> expected = UserSpecificationFactory.filter(users, query).stream().map(User::id).toList();
+                List<Long> actual = Arrays.stream(UserSpecificationFactory.filter(snapshot, query))
+                        .mapToObj(position -> snapshot.user(position).id())
+                        .toList();
+
+                assertEquals(expected, actual, "name='" + name + "', " + filter);
+            }
+        }
+    }
+
+    @Test
+    void testAttributeFilters_ExactCandidatesNeedNoScan() {
+        UserQuery query = UserQuery.of(null, null, attributes(null, null, null, null, null, null, "admin", null, null),
+                1, 10);
+
+        int[] positions = UserSpecificationFactory.filter(snapshot, query);
+
+        assertSame(snapshot.categoryIndex(CategoryAttribute.ROLE).positions("admin"), positions);
+        assertEquals(users.size() / 3 + 1, positions.length);
+    }
+
+    @Test
+    void testAttributeFilters_EmptyRangeIsRejected() {
+        UserAttributeFilter filter = attributes(40, 30, null, null, null, null, null, null, null);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> UserQuery.of(null, null, filter, 1, 10));
+        assertEquals("minAge must not be greater than maxAge", e.getMessage());
+    }
+
+    @Test
+    void testCompile_OrdersMostSelectiveFirst() {
+        UserSpecification broad = new NameSpecification("e");
+        UserSpecification narrow = new UsernameSpecification("user49");
+
+        CompiledSpecification compiled = CompiledSpecification.compile(snapshot, List.of(broad.and(narrow)));
+
+        assertEquals(List.of(narrow, broad), compiled.evaluationOrder());
+    }
+
+    @Test
+    void testPredicate_SkipsCandidatesAndRunsCheapestFirst() {
+        UserSpecification name = new NameSpecification("e");
+        UserSpecification age = new RangeSpecification(RangeAttribute.AGE, 30.0, null);
+        UserSpecification unindexed = new UserSpecification() {
+            @Override
+            public boolean isSatisfiedBy(User user) {
+                return true;
+            }
+
+            @Override
+            public int[] candidates(UserSnapshot snapshot) {
+                throw new AssertionError("candidates resolved");
+            }
+        };
+
+        CompiledSpecification predicate = CompiledSpecification.predicate(snapshot, List.of(unindexed, name.and(age)));
+
+        assertEquals(List.of(age, name, unindexed), predicate.evaluationOrder());
+        int[] expected = CompiledSpecification.compile(snapshot, List.of(name.and(age))).filter();
+        assertArrayEquals(expected, predicate.filter());
+    }
+
+    @Test
+    void testMatcher_AgreesWithFilter() {
+        UserQuery query = UserQuery.of("a", null, attributes(25, null, null, null, null, null, null, null, null), 1, 10);
+
+        IntPredicate matcher = UserSpecificationFactory.matcher(snapshot, query);
+        int[] matched = IntStream.range(0, snapshot.size()).filter(matcher).toArray();
+
+        assertArrayEquals(UserSpecificationFactory.filter(snapshot, query), matched);
+    }
+
+    private static UserAttributeFilter attributes(Integer minAge, Integer maxAge, Double minHeight, Double maxWeight,
+            LocalDate bornFrom, LocalDate bornTo, String role, String bloodGroup, String department) {
+        return new UserAttributeFilter(minAge, maxAge, minHeight, null, null, maxWeight, bornFrom, bornTo, role,
+                bloodGroup, department, null);
+    }
+
+    private static List<User> createUsers(int count) {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            // Every seventh user lacks the optional attributes
+            boolean sparse = i % 7 == 6;
+            users.add(new User((long) i + 1, FIRST_NAMES[i % FIRST_NAMES.length], LAST_NAMES[(i / 3) % LAST_NAMES.length],
+                    sparse ? null : 20 + i % 40, null, null, "user" + i,
+                    sparse ? null : (1980 + i % 25) + "-" + (1 + i % 12) + "-" + (1 + i % 28), null,
+                    BLOOD_GROUPS[i % BLOOD_GROUPS.length], sparse ? null : 150.0 + i % 50, 50.0 + (i % 60) * 0.5,
+                    null, null, null, null, null, null, null,
+                    sparse ? null : new User.Company(DEPARTMENTS[i % DEPARTMENTS.length], null, null, null),
+                    null, null, null, null, ROLES[i % ROLES.length]));
+        }
+        return users;
+    }
+}